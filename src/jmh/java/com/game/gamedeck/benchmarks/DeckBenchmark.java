@@ -0,0 +1,50 @@
+package com.game.gamedeck.benchmarks;
+
+import com.game.gamedeck.model.Card;
+import com.game.gamedeck.model.CardEnum;
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.shared.utils.DeckUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+
+    @Param({"1", "8", "64"})
+    private int numberOfDecks;
+
+    private CardStack gameCards;
+
+    @Setup
+    public void setUp() {
+        gameCards = CardStack.ofDecks(numberOfDecks);
+    }
+
+    @Benchmark
+    public CardStack shuffleCards() {
+        DeckUtils.shuffleCards(gameCards);
+        return gameCards;
+    }
+
+    @Benchmark
+    public List<Card> createDeck() {
+        List<Card> cards = new ArrayList<>(numberOfDecks * CardEnum.values().length);
+        for (int i = 0; i < numberOfDecks; i++) {
+            cards.addAll(CardEnum.createDeck());
+        }
+        return cards;
+    }
+
+    @Benchmark
+    public CardStack createCardStack() {
+        return CardStack.ofDecks(numberOfDecks);
+    }
+}
@@ -0,0 +1,32 @@
+package com.game.gamedeck.benchmarks;
+
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.shared.utils.DeckUtils;
+
+public class GameFixtures {
+
+    public static final int NUMBER_OF_PLAYERS = 4;
+
+    private GameFixtures() {
+    }
+
+    /**
+     * A shuffled game of the given number of decks with a quarter of the shoe dealt to the players.
+     */
+    public static Game dealtGame(int numberOfDecks) {
+        Game game = new Game();
+        game.setGameCards(CardStack.ofDecks(numberOfDecks));
+        DeckUtils.shuffleCards(game.getGameCards());
+        for (int i = 0; i < NUMBER_OF_PLAYERS; i++) {
+            game.getPlayers().add(new Player("player" + i));
+        }
+
+        int cardsToDeal = game.getGameCards().size() / 4;
+        for (int i = 0; i < cardsToDeal; i++) {
+            game.getPlayers().get(i % NUMBER_OF_PLAYERS).getOnHandCards().add(game.getGameCards().removeFirst());
+        }
+        return game;
+    }
+}
@@ -0,0 +1,113 @@
+package com.game.gamedeck.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed loop HTTP load against a running instance, to compare serving modes (e.g. with and without
+ * the virtual-threads profile) at a given concurrency. Each simulated client sends the next request as
+ * soon as the previous one completes; the run reports the throughput and the latency percentiles.
+ * <p>
+ * Arguments: url [concurrency, default 1000] [seconds, default 30] [warmup seconds, default 10].
+ */
+public class HttpLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        Duration warmup = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 10);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clients)
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(uri).build();
+
+            run(clients, client, request, concurrency, warmup);
+            Result result = run(clients, client, request, concurrency, duration);
+
+            System.out.printf("%s concurrency=%d requests=%d errors=%d throughput=%.0f req/s " +
+                            "p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                    uri, concurrency, result.latencies.length, result.errors,
+                    result.latencies.length / (duration.toNanos() / 1e9),
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0));
+        }
+    }
+
+    private static Result run(ExecutorService clients, HttpClient client, HttpRequest request,
+                              int concurrency, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Result>> results = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            results.add(clients.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                long errors = 0;
+                long start;
+                while ((start = System.nanoTime()) < deadline) {
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors++;
+                        }
+                    } catch (Exception e) {
+                        errors++;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                return new Result(Arrays.copyOf(latencies, count), errors);
+            }));
+        }
+
+        List<Result> clientResults = new ArrayList<>(concurrency);
+        for (Future<Result> result : results) {
+            clientResults.add(result.get());
+        }
+        long[] latencies = new long[clientResults.stream().mapToInt(result -> result.latencies.length).sum()];
+        long errors = 0;
+        int offset = 0;
+        for (Result clientResult : clientResults) {
+            System.arraycopy(clientResult.latencies, 0, latencies, offset, clientResult.latencies.length);
+            offset += clientResult.latencies.length;
+            errors += clientResult.errors;
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors);
+    }
+
+    private static class Result {
+
+        private final long[] latencies;
+        private final long errors;
+
+        private Result(long[] latencies, long errors) {
+            this.latencies = latencies;
+            this.errors = errors;
+        }
+
+        /**
+         * The latency in milliseconds at the given quantile of the sorted latencies.
+         */
+        private double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.game.gamedeck.benchmarks;
+
+import com.game.gamedeck.model.Card;
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.responses.GameResponseDTO;
+import com.game.gamedeck.responses.PlayerResponseDTO;
+import com.game.gamedeck.shared.mappers.GameResponseMapper;
+import org.modelmapper.Converter;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game to response mapping: the reflective ModelMapper configuration the service used to rely on
+ * against the hand-written {@link GameResponseMapper}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"1", "8", "64"})
+    private int numberOfDecks;
+
+    private ModelMapper modelMapper;
+    private GameResponseMapper gameResponseMapper;
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        modelMapper = modelMapper();
+        gameResponseMapper = new GameResponseMapper();
+        game = GameFixtures.dealtGame(numberOfDecks);
+    }
+
+    @Benchmark
+    public GameResponseDTO modelMapperGameToResponse() {
+        return modelMapper.map(game, GameResponseDTO.class);
+    }
+
+    @Benchmark
+    public GameResponseDTO gameResponseMapperGameToResponse() {
+        return gameResponseMapper.toGameResponse(game);
+    }
+
+    private static ModelMapper modelMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        Converter<CardStack, List<Card>> toCards = context -> context.getSource() == null
+                ? null : context.getSource().toCards();
+
+        modelMapper.typeMap(Player.class, PlayerResponseDTO.class)
+                .addMappings(mapper -> mapper.using(toCards)
+                        .map(Player::getOnHandCards, PlayerResponseDTO::setOnHandCards));
+        modelMapper.typeMap(Game.class, GameResponseDTO.class)
+                .addMappings(mapper -> mapper.using(toCards)
+                        .map(Game::getGameCards, GameResponseDTO::setGameCards));
+        return modelMapper;
+    }
+}
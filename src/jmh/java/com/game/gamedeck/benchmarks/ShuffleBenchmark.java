@@ -0,0 +1,63 @@
+package com.game.gamedeck.benchmarks;
+
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.services.impl.ShuffleEngine;
+import com.game.gamedeck.shared.utils.DeckUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shuffles from 8 threads at once, each on a game of its own, with each {@link ShuffleEngine.Source}
+ * against a single {@link Random} shared by every thread, which they contend on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class ShuffleBenchmark {
+
+    @Param({"1", "8"})
+    private int numberOfDecks;
+
+    @Param({"SHARED_RANDOM", "THREAD_LOCAL", "SPLITTABLE", "SECURE"})
+    private String source;
+
+    private ShuffleEngine shuffleEngine;
+    private Random sharedRandom;
+    private boolean shared;
+
+    @State(Scope.Thread)
+    public static class ThreadGame {
+
+        private Game game;
+
+        @Setup
+        public void setUp(ShuffleBenchmark benchmark) {
+            game = new Game(null, CardStack.ofDecks(benchmark.numberOfDecks), new ArrayList<>());
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        shared = source.equals("SHARED_RANDOM");
+        sharedRandom = new Random();
+        shuffleEngine = new ShuffleEngine(shared ? ShuffleEngine.Source.THREAD_LOCAL : ShuffleEngine.Source.valueOf(source));
+    }
+
+    @Benchmark
+    public long shuffleCards(ThreadGame threadGame) {
+        if (shared) {
+            long seed = sharedRandom.nextLong();
+            DeckUtils.shuffleCards(threadGame.game.getGameCards(), sharedRandom);
+            return seed;
+        }
+        return shuffleEngine.shuffle(threadGame.game);
+    }
+}
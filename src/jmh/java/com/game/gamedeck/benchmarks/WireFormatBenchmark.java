@@ -0,0 +1,63 @@
+package com.game.gamedeck.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.game.gamedeck.responses.GameResponseDTO;
+import com.game.gamedeck.shared.mappers.CardOrdinalsModule;
+import com.game.gamedeck.shared.mappers.GameResponseMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading a game response in each wire format the API serves: JSON or CBOR, with the
+ * cards as objects or as their codes. {@link WireFormatSizes} prints the size of each payload.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"1", "8", "64"})
+    private int numberOfDecks;
+
+    @Param({"JSON", "CBOR"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean cardOrdinals;
+
+    private ObjectMapper objectMapper;
+    private GameResponseDTO response;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = objectMapper(format, cardOrdinals);
+        response = response(numberOfDecks);
+        payload = objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public GameResponseDTO deserialize() throws IOException {
+        return objectMapper.readValue(payload, GameResponseDTO.class);
+    }
+
+    static ObjectMapper objectMapper(String format, boolean cardOrdinals) {
+        ObjectMapper formatMapper = format.equals("CBOR") ? new CBORMapper() : new ObjectMapper();
+        return cardOrdinals ? CardOrdinalsModule.withCardOrdinals(formatMapper) : formatMapper;
+    }
+
+    static GameResponseDTO response(int numberOfDecks) {
+        return new GameResponseMapper().toGameResponse(GameFixtures.dealtGame(numberOfDecks));
+    }
+}
@@ -0,0 +1,23 @@
+package com.game.gamedeck.benchmarks;
+
+import java.io.IOException;
+
+/**
+ * The size of the game response written in each wire format of {@link WireFormatBenchmark}, for the
+ * same numbers of decks.
+ */
+public class WireFormatSizes {
+
+    public static void main(String[] args) throws IOException {
+        for (int numberOfDecks : new int[]{ 1, 8, 64 }) {
+            for (String format : new String[]{ "JSON", "CBOR" }) {
+                for (boolean cardOrdinals : new boolean[]{ false, true }) {
+                    byte[] payload = WireFormatBenchmark.objectMapper(format, cardOrdinals)
+                            .writeValueAsBytes(WireFormatBenchmark.response(numberOfDecks));
+                    System.out.printf("numberOfDecks=%d format=%s cardOrdinals=%b payload=%d bytes%n",
+                            numberOfDecks, format, cardOrdinals, payload.length);
+                }
+            }
+        }
+    }
+}
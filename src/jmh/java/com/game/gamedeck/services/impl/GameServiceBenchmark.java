@@ -0,0 +1,70 @@
+package com.game.gamedeck.services.impl;
+
+import com.game.gamedeck.benchmarks.GameFixtures;
+import com.game.gamedeck.model.Card;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.repositories.GameRepository;
+import com.game.gamedeck.repositories.impl.InMemoryGameRepository;
+import com.game.gamedeck.shared.mappers.GameResponseMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service hot paths over an in-memory repository, so the numbers exclude any database round trip.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameServiceBenchmark {
+
+    @Param({"1", "8", "64"})
+    private int numberOfDecks;
+
+    private GameServiceImpl gameService;
+    private String gameId;
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        GameRepository repository = new InMemoryGameRepository(64);
+        gameService = new GameServiceImpl();
+        inject("repository", repository);
+        inject("gameResponseMapper", new GameResponseMapper());
+
+        game = GameFixtures.dealtGame(numberOfDecks);
+        gameId = repository.save(game).get().getId();
+    }
+
+    @Benchmark
+    public TreeMap<Card, Long> getCountRemainingCardsSortedUsingCollectors() {
+        return gameService.getCountRemainingCardsSortedUsingCollectors(gameId);
+    }
+
+    @Benchmark
+    public Map<String, Long> getCardsLeftBySuitUsingCollectors() {
+        return gameService.getCardsLeftBySuitUsingCollectors(gameId);
+    }
+
+    @Benchmark
+    public void calculatePlayerCards(Blackhole blackhole) {
+        for (Player player : game.getPlayers()) {
+            blackhole.consume(gameService.calculatePlayerCards(player.getOnHandCards()));
+        }
+    }
+
+    private void inject(String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(GameServiceImpl.class, fieldName);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, gameService, value);
+    }
+}
@@ -1,118 +1,227 @@
 package com.game.gamedeck.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.game.gamedeck.model.Card;
+import com.game.gamedeck.model.CardsBySuit;
+import com.game.gamedeck.model.CardsBySuitAndValue;
 import com.game.gamedeck.requests.AddPlayerRequestDTO;
 import com.game.gamedeck.requests.CreateGameRequestDTO;
+import com.game.gamedeck.requests.DealCardsRequestDTO;
 import com.game.gamedeck.responses.GameResponseDTO;
 import com.game.gamedeck.responses.OperationStatus;
 import com.game.gamedeck.responses.PlayerTotalResponseDTO;
 import com.game.gamedeck.services.GameService;
-import io.swagger.annotations.ApiOperation;
+import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/game-management/api/v1")
 public class GameControllerV1 {
 
     @Autowired
     private GameService gameService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/games")
-    @ApiOperation(value="Find all games", notes="Find all games created")
-    public ResponseEntity<List<GameResponseDTO>> findAllGames() {
-        return new ResponseEntity<>(gameService.getAllGames(), HttpStatus.OK);
+    @Operation(summary="Find games",
+            description="Find games ordered by id, one page at a time. Enter the id of the last game of a page as " +
+                    "after to get the next page, a limit of up to 1000 games (100 by default), and " +
+                    "includeGameCards=false to leave the game cards out. Enter fields, e.g. fields=id,players.name, " +
+                    "to read and get only those fields of each game: id, gameCards, players, players.name and " +
+                    "players.onHandCards.")
+    public ResponseEntity<List<GameResponseDTO>> findAllGames(
+            @RequestParam(value = "after", required = false) String afterId,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "includeGameCards", defaultValue = "true") boolean includeGameCards,
+            @RequestParam(value = "fields", required = false) List<String> fields) {
+        return new ResponseEntity<>(gameService.getGames(afterId, limit, includeGameCards, fields), HttpStatus.OK);
+    }
+
+    @GetMapping("/games/{game-id}")
+    @Operation(summary="Find game",
+            description="Find a game. You need to enter a valid game id. Enter fields, e.g. fields=players, to read " +
+                    "and get only those fields of the game: id, gameCards, players, players.name and " +
+                    "players.onHandCards.")
+    public ResponseEntity<GameResponseDTO> getGame(
+            @PathVariable("game-id") String gameId,
+            @RequestParam(value = "fields", required = false) List<String> fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(gameId, ifNoneMatch, () -> gameService.getGame(gameId, fields));
+    }
+
+    @GetMapping(value = "/games/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary="Stream all games",
+            description="Stream all games as newline delimited JSON, one game per line, straight from a database " +
+                    "cursor. Enter includeGameCards=false to leave the game cards out.")
+    public ResponseEntity<StreamingResponseBody> streamAllGames(
+            @RequestParam(value = "includeGameCards", defaultValue = "true") boolean includeGameCards) {
+        ObjectWriter writer = objectMapper.writerFor(GameResponseDTO.class);
+
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<GameResponseDTO> games = gameService.streamGames(includeGameCards)) {
+                Iterator<GameResponseDTO> iterator = games.iterator();
+                while (iterator.hasNext()) {
+                    outputStream.write(writer.writeValueAsBytes(iterator.next()));
+                    outputStream.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(value = "/games/{game-id}/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary="Stream game changes",
+            description="Subscribe to the changes of a game as server-sent events, one per deal, shuffle, player " +
+                    "added or removed and deck added, named after the change and carrying the game version as " +
+                    "their id. A subscriber too slow to keep up is dropped and may subscribe again.")
+    public Flux<ServerSentEvent<byte[]>> streamGameChanges(@PathVariable("game-id") String gameId) {
+        return gameService.streamGameChanges(gameId);
     }
 
     @PostMapping("/games")
-    @ApiOperation(value="Create Game", notes="Create new game")
+    @Operation(summary="Create Game", description="Create new game")
     public ResponseEntity<GameResponseDTO> createGame(@Valid @RequestBody CreateGameRequestDTO createGameRequestDTO) {
         return new ResponseEntity<>(gameService
                 .createGame(createGameRequestDTO), HttpStatus.CREATED);
     }
 
     @DeleteMapping("/games/{game-id}")
-    @ApiOperation(value="Delete Game", notes="Delete Game")
+    @Operation(summary="Delete Game", description="Delete Game")
     public ResponseEntity<OperationStatus> deleteGame(@PathVariable("game-id") String gameId) {
         return new ResponseEntity(gameService.deleteGame(gameId), HttpStatus.OK);
     }
 
     @PutMapping("/games/{game-id}/players/{player-name}/deal-cards")
-    @ApiOperation(value="Deal cards to a player",
-            notes="Deal cards to a player. You need to enter a valid game id and player name. ")
+    @Operation(summary="Deal cards to a player",
+            description="Deal cards to a player. You need to enter a valid game id and player name. " +
+                    "Enter delta=true to get only the version, the cards left and the player dealt to.")
+    public ResponseEntity<GameResponseDTO> dealCards(@PathVariable("game-id") String gameId,
+                                                     @PathVariable("player-name") String playerName,
+                                                     @RequestParam(value = "delta", defaultValue = "false") boolean delta) {
+        return new ResponseEntity<>(gameService.dealCards(gameId, playerName, delta), HttpStatus.OK);
+    }
+
+    @PutMapping("/games/{game-id}/deal-cards")
+    @Operation(summary="Deal cards to many players",
+            description="Deal cards to many players at once, one card per player and round. You need to enter a valid " +
+                    "game id and either the number of cards for every player (cardsPerPlayer, in seat order) or " +
+                    "the number of cards for each named player (cardsByPlayer, in the given order). Enter " +
+                    "delta=true to get only the version, the cards left and the players dealt to.")
     public ResponseEntity<GameResponseDTO> dealCards(@PathVariable("game-id") String gameId,
-                                                     @PathVariable("player-name") String playerName) {
-        return new ResponseEntity<>(gameService.dealCards(gameId, playerName), HttpStatus.OK);
+                                                     @Valid @RequestBody DealCardsRequestDTO dealCardsRequestDTO,
+                                                     @RequestParam(value = "delta", defaultValue = "false") boolean delta) {
+        return new ResponseEntity<>(gameService.dealCards(gameId, dealCardsRequestDTO, delta), HttpStatus.OK);
     }
 
     @PostMapping("/games/{game-id}/players")
-    @ApiOperation(value="Add player",
-            notes="Add a new player into the game. " +
-                    "You need to enter a valid game id and a valid json object containing the player name.")
+    @Operation(summary="Add player",
+            description="Add a new player into the game. " +
+                    "You need to enter a valid game id and a valid json object containing the player name. " +
+                    "Enter delta=true to get only the version, the cards left and the new player.")
     public ResponseEntity<GameResponseDTO> addPlayer(@PathVariable("game-id") String gameId,
-                                                     @Valid @RequestBody AddPlayerRequestDTO addPlayerRequestDTO) {
-        return new ResponseEntity<>(gameService.addPlayer(gameId, addPlayerRequestDTO),
+                                                     @Valid @RequestBody AddPlayerRequestDTO addPlayerRequestDTO,
+                                                     @RequestParam(value = "delta", defaultValue = "false") boolean delta) {
+        return new ResponseEntity<>(gameService.addPlayer(gameId, addPlayerRequestDTO, delta),
                 HttpStatus.CREATED);
     }
 
     @DeleteMapping("/games/{game-id}/players/{player-name}")
-    @ApiOperation(value="Delete player",
-            notes="Delete a player from the game. You need to enter an existent game id and player name.")
+    @Operation(summary="Delete player",
+            description="Delete a player from the game. You need to enter an existent game id and player name. " +
+                    "Enter delta=true to get only the version and the cards left.")
     public ResponseEntity<GameResponseDTO> removePlayer(@PathVariable("game-id") String gameId,
-                                                        @PathVariable("player-name") String playerName) {
+                                                        @PathVariable("player-name") String playerName,
+                                                        @RequestParam(value = "delta", defaultValue = "false") boolean delta) {
 
-        return new ResponseEntity<>(gameService.removePlayer(gameId, playerName),
+        return new ResponseEntity<>(gameService.removePlayer(gameId, playerName, delta),
                 HttpStatus.OK);
     }
 
     @PostMapping("/games/{game-id}/decks")
-    @ApiOperation(value="Add deck", notes="Add a new deck into the game You need to enter a valid game id.")
-    public ResponseEntity<GameResponseDTO> addDeck(@PathVariable("game-id") String gameId) {
-        return new ResponseEntity<>(gameService.addDeck(gameId), HttpStatus.CREATED);
+    @Operation(summary="Add deck", description="Add a new deck into the game You need to enter a valid game id. " +
+            "Enter delta=true to get only the version and the cards left.")
+    public ResponseEntity<GameResponseDTO> addDeck(@PathVariable("game-id") String gameId,
+                                                   @RequestParam(value = "delta", defaultValue = "false") boolean delta) {
+        return new ResponseEntity<>(gameService.addDeck(gameId, delta), HttpStatus.CREATED);
     }
 
     @GetMapping("/games/{game-id}/players/{player-name}/cards")
-    @ApiOperation(value="Retrieve Player's cards",
-            notes="Retrieve player's cards. You need to enter a valid game id and player name. ")
+    @Operation(summary="Retrieve Player's cards",
+            description="Retrieve player's cards. You need to enter a valid game id and player name. ")
     public ResponseEntity<List<Card>> getPlayerCards(@PathVariable("game-id") String gameId,
-                                                     @PathVariable("player-name") String playerName) {
-        return new ResponseEntity<>(gameService.getPlayerCards(gameId, playerName), HttpStatus.OK);
+                                                     @PathVariable("player-name") String playerName,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                     String ifNoneMatch) {
+        return conditional(gameId, ifNoneMatch, () -> gameService.getPlayerCards(gameId, playerName));
     }
 
     @GetMapping("/games/{game-id}/players/totals")
-    @ApiOperation(value="Retrieve player's totals", notes="Retrieve player's totals. You need to enter a valid game id.")
-    public ResponseEntity<List<PlayerTotalResponseDTO>> getPlayersTotals(@PathVariable("game-id") String gameId) {
-        return new ResponseEntity(gameService.getPlayersTotals(gameId), HttpStatus.OK);
+    @Operation(summary="Retrieve player's totals", description="Retrieve player's totals. You need to enter a valid game id.")
+    public ResponseEntity<List<PlayerTotalResponseDTO>> getPlayersTotals(
+            @PathVariable("game-id") String gameId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(gameId, ifNoneMatch, () -> gameService.getPlayersTotals(gameId));
     }
 
     @GetMapping("/games/{game-id}/cards/summary/remaining/suit")
-    @ApiOperation(value="Retrieve count of cards left in the deck per suit",
-            notes="Retrieve count of the cards left in the deck per suit. You need to enter a valid game id.")
-    public ResponseEntity<Map<String, Long>> getCountRemainingCardsBySuit(@PathVariable("game-id") String gameId) {
-        return new ResponseEntity(gameService.getCountRemainingCardsBySuit(gameId), HttpStatus.OK);
+    @Operation(summary="Retrieve count of cards left in the deck per suit",
+            description="Retrieve count of the cards left in the deck per suit. You need to enter a valid game id.")
+    public ResponseEntity<List<CardsBySuit>> getCountRemainingCardsBySuit(
+            @PathVariable("game-id") String gameId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(gameId, ifNoneMatch, () -> gameService.getCountRemainingCardsBySuit(gameId));
     }
 
     @GetMapping("/games/{game-id}/cards/summary/remaining")
-    @ApiOperation(value="Retrieve count of cards left in the card, sorting them by suit and face value",
-            notes="Retrieve count of cards left in the card, sorting them by suit and face value. " +
+    @Operation(summary="Retrieve count of cards left in the card, sorting them by suit and face value",
+            description="Retrieve count of cards left in the card, sorting them by suit and face value. " +
                     "You need to enter a valid game id.")
-    public ResponseEntity<TreeMap<Card, Long>> getCountRemainingCardsSorted(
-            @PathVariable("game-id") String gameId, Sort sort) {
-        return new ResponseEntity(gameService
-                .getCountRemainingCardsSorted(gameId, sort), HttpStatus.OK);
+    public ResponseEntity<List<CardsBySuitAndValue>> getCountRemainingCardsSorted(
+            @PathVariable("game-id") String gameId, Sort sort,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(gameId, ifNoneMatch, () -> gameService.getCountRemainingCardsSorted(gameId, sort));
     }
 
     @PutMapping("/games/{game-id}/cards/shuffle")
-    @ApiOperation(value="Shuffle cards", notes="Shuffle game cards. You need to enter a valid game id.")
-    public ResponseEntity<GameResponseDTO> shuffleCards(@PathVariable("game-id") String gameId) {
-        return new ResponseEntity(gameService.shuffleCards(gameId), HttpStatus.OK);
+    @Operation(summary="Shuffle cards", description="Shuffle game cards. You need to enter a valid game id. " +
+            "Enter delta=true to get only the version and the cards left.")
+    public ResponseEntity<GameResponseDTO> shuffleCards(@PathVariable("game-id") String gameId,
+                                                        @RequestParam(value = "delta", defaultValue = "false") boolean delta) {
+        return new ResponseEntity(gameService.shuffleCards(gameId, delta), HttpStatus.OK);
+    }
+
+    /**
+     * Answers 304 Not Modified, without reading the game, when the client already has the version of
+     * the game it names in If-None-Match, and the body with the version as its ETag otherwise.
+     */
+    private <T> ResponseEntity<T> conditional(String gameId, String ifNoneMatch, Supplier<T> body) {
+        Optional<String> eTag = gameService.getGameVersion(gameId).map(GameETags::of);
+        if (eTag.isPresent() && GameETags.matches(ifNoneMatch, eTag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        eTag.ifPresent(response::eTag);
+        return response.body(body.get());
     }
 }
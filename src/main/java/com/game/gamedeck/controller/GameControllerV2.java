@@ -0,0 +1,217 @@
+package com.game.gamedeck.controller;
+
+import com.game.gamedeck.model.Card;
+import com.game.gamedeck.model.CardsBySuit;
+import com.game.gamedeck.model.CardsBySuitAndValue;
+import com.game.gamedeck.requests.AddPlayerRequestDTO;
+import com.game.gamedeck.requests.CreateGameRequestDTO;
+import com.game.gamedeck.requests.DealCardsRequestDTO;
+import com.game.gamedeck.responses.GameResponseDTO;
+import com.game.gamedeck.responses.OperationStatus;
+import com.game.gamedeck.responses.PlayerTotalResponseDTO;
+import com.game.gamedeck.services.ReactiveGameService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Non blocking version of the game API, on the {@link ReactiveGameService}. No thread is held while
+ * a request waits on the database, both on WebFlux (the reactive profile) and on Spring MVC, where
+ * the request is completed asynchronously.
+ */
+@RestController
+@RequestMapping("/game-management/api/v2")
+public class GameControllerV2 {
+
+    @Autowired
+    private ReactiveGameService gameService;
+
+    @GetMapping("/games")
+    @Operation(summary="Find games",
+            description="Find games ordered by id, one page at a time. Enter the id of the last game of a page as " +
+                    "after to get the next page, a limit of up to 1000 games (100 by default), and " +
+                    "includeGameCards=false to leave the game cards out. Enter fields, e.g. fields=id,players.name, " +
+                    "to read and get only those fields of each game: id, gameCards, players, players.name and " +
+                    "players.onHandCards.")
+    public Flux<GameResponseDTO> findAllGames(
+            @RequestParam(value = "after", required = false) String afterId,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "includeGameCards", defaultValue = "true") boolean includeGameCards,
+            @RequestParam(value = "fields", required = false) List<String> fields) {
+        return gameService.getGames(afterId, limit, includeGameCards, fields);
+    }
+
+    @GetMapping("/games/{game-id}")
+    @Operation(summary="Find game",
+            description="Find a game. You need to enter a valid game id. Enter fields, e.g. fields=players, to read " +
+                    "and get only those fields of the game: id, gameCards, players, players.name and " +
+                    "players.onHandCards.")
+    public Mono<ResponseEntity<GameResponseDTO>> getGame(
+            @PathVariable("game-id") String gameId,
+            @RequestParam(value = "fields", required = false) List<String> fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(gameId, ifNoneMatch, gameService.getGame(gameId, fields));
+    }
+
+    @GetMapping(value = "/games/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary="Stream all games",
+            description="Stream all games as newline delimited JSON, one game per line, as they are read from the " +
+                    "database. Enter includeGameCards=false to leave the game cards out.")
+    public Flux<GameResponseDTO> streamAllGames(
+            @RequestParam(value = "includeGameCards", defaultValue = "true") boolean includeGameCards) {
+        return gameService.streamGames(includeGameCards);
+    }
+
+    @GetMapping(value = "/games/{game-id}/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary="Stream game changes",
+            description="Subscribe to the changes of a game as server-sent events, one per deal, shuffle, player " +
+                    "added or removed and deck added, named after the change and carrying the game version as " +
+                    "their id. A subscriber too slow to keep up is dropped and may subscribe again.")
+    public Flux<ServerSentEvent<byte[]>> streamGameChanges(@PathVariable("game-id") String gameId) {
+        return gameService.streamGameChanges(gameId);
+    }
+
+    @PostMapping("/games")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary="Create Game", description="Create new game")
+    public Mono<GameResponseDTO> createGame(@Valid @RequestBody CreateGameRequestDTO createGameRequestDTO) {
+        return gameService.createGame(createGameRequestDTO);
+    }
+
+    @DeleteMapping("/games/{game-id}")
+    @Operation(summary="Delete Game", description="Delete Game")
+    public Mono<OperationStatus> deleteGame(@PathVariable("game-id") String gameId) {
+        return gameService.deleteGame(gameId);
+    }
+
+    @PutMapping("/games/{game-id}/players/{player-name}/deal-cards")
+    @Operation(summary="Deal cards to a player",
+            description="Deal cards to a player. You need to enter a valid game id and player name. " +
+                    "Enter delta=true to get only the version, the cards left and the player dealt to.")
+    public Mono<GameResponseDTO> dealCards(@PathVariable("game-id") String gameId,
+                                           @PathVariable("player-name") String playerName,
+                                           @RequestParam(value = "delta", defaultValue = "false") boolean delta) {
+        return gameService.dealCards(gameId, playerName, delta);
+    }
+
+    @PutMapping("/games/{game-id}/deal-cards")
+    @Operation(summary="Deal cards to many players",
+            description="Deal cards to many players at once, one card per player and round. You need to enter a valid " +
+                    "game id and either the number of cards for every player (cardsPerPlayer, in seat order) or " +
+                    "the number of cards for each named player (cardsByPlayer, in the given order). Enter " +
+                    "delta=true to get only the version, the cards left and the players dealt to.")
+    public Mono<GameResponseDTO> dealCards(@PathVariable("game-id") String gameId,
+                                           @Valid @RequestBody DealCardsRequestDTO dealCardsRequestDTO,
+                                           @RequestParam(value = "delta", defaultValue = "false") boolean delta) {
+        return gameService.dealCards(gameId, dealCardsRequestDTO, delta);
+    }
+
+    @PostMapping("/games/{game-id}/players")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary="Add player",
+            description="Add a new player into the game. " +
+                    "You need to enter a valid game id and a valid json object containing the player name. " +
+                    "Enter delta=true to get only the version, the cards left and the new player.")
+    public Mono<GameResponseDTO> addPlayer(@PathVariable("game-id") String gameId,
+                                           @Valid @RequestBody AddPlayerRequestDTO addPlayerRequestDTO,
+                                           @RequestParam(value = "delta", defaultValue = "false") boolean delta) {
+        return gameService.addPlayer(gameId, addPlayerRequestDTO, delta);
+    }
+
+    @DeleteMapping("/games/{game-id}/players/{player-name}")
+    @Operation(summary="Delete player",
+            description="Delete a player from the game. You need to enter an existent game id and player name. " +
+                    "Enter delta=true to get only the version and the cards left.")
+    public Mono<GameResponseDTO> removePlayer(@PathVariable("game-id") String gameId,
+                                              @PathVariable("player-name") String playerName,
+                                              @RequestParam(value = "delta", defaultValue = "false") boolean delta) {
+        return gameService.removePlayer(gameId, playerName, delta);
+    }
+
+    @PostMapping("/games/{game-id}/decks")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary="Add deck", description="Add a new deck into the game You need to enter a valid game id. " +
+            "Enter delta=true to get only the version and the cards left.")
+    public Mono<GameResponseDTO> addDeck(@PathVariable("game-id") String gameId,
+                                         @RequestParam(value = "delta", defaultValue = "false") boolean delta) {
+        return gameService.addDeck(gameId, delta);
+    }
+
+    @GetMapping("/games/{game-id}/players/{player-name}/cards")
+    @Operation(summary="Retrieve Player's cards",
+            description="Retrieve player's cards. You need to enter a valid game id and player name. ")
+    public Mono<ResponseEntity<List<Card>>> getPlayerCards(
+            @PathVariable("game-id") String gameId, @PathVariable("player-name") String playerName,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(gameId, ifNoneMatch, gameService.getPlayerCards(gameId, playerName));
+    }
+
+    @GetMapping("/games/{game-id}/players/totals")
+    @Operation(summary="Retrieve player's totals", description="Retrieve player's totals. You need to enter a valid game id.")
+    public Mono<ResponseEntity<List<PlayerTotalResponseDTO>>> getPlayersTotals(
+            @PathVariable("game-id") String gameId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(gameId, ifNoneMatch, gameService.getPlayersTotals(gameId));
+    }
+
+    @GetMapping("/games/{game-id}/cards/summary/remaining/suit")
+    @Operation(summary="Retrieve count of cards left in the deck per suit",
+            description="Retrieve count of the cards left in the deck per suit. You need to enter a valid game id.")
+    public Mono<ResponseEntity<List<CardsBySuit>>> getCountRemainingCardsBySuit(
+            @PathVariable("game-id") String gameId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(gameId, ifNoneMatch, gameService.getCountRemainingCardsBySuit(gameId));
+    }
+
+    @GetMapping("/games/{game-id}/cards/summary/remaining")
+    @Operation(summary="Retrieve count of cards left in the card, sorting them by suit and face value",
+            description="Retrieve count of cards left in the card, sorting them by suit and face value. " +
+                    "You need to enter a valid game id.")
+    public Mono<ResponseEntity<List<CardsBySuitAndValue>>> getCountRemainingCardsSorted(
+            @PathVariable("game-id") String gameId, Sort sort,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(gameId, ifNoneMatch, gameService.getCountRemainingCardsSorted(gameId, sort));
+    }
+
+    @PutMapping("/games/{game-id}/cards/shuffle")
+    @Operation(summary="Shuffle cards", description="Shuffle game cards. You need to enter a valid game id. " +
+            "Enter delta=true to get only the version and the cards left.")
+    public Mono<GameResponseDTO> shuffleCards(@PathVariable("game-id") String gameId,
+                                              @RequestParam(value = "delta", defaultValue = "false") boolean delta) {
+        return gameService.shuffleCards(gameId, delta);
+    }
+
+    /**
+     * Same as in {@link GameControllerV1}: 304 Not Modified when the client names the version of the
+     * game in If-None-Match, without subscribing to the body, and the body with its ETag otherwise.
+     */
+    private <T> Mono<ResponseEntity<List<T>>> conditional(String gameId, String ifNoneMatch, Flux<T> body) {
+        return conditional(gameId, ifNoneMatch, body.collectList());
+    }
+
+    private <T> Mono<ResponseEntity<T>> conditional(String gameId, String ifNoneMatch, Mono<T> body) {
+        return gameService.getGameVersion(gameId)
+                .map(version -> Optional.of(GameETags.of(version)))
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(eTag -> {
+                    if (eTag.isPresent() && GameETags.matches(ifNoneMatch, eTag.get())) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).<T>build());
+                    }
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    eTag.ifPresent(response::eTag);
+                    return body.map(response::body);
+                });
+    }
+}
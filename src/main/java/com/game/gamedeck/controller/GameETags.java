@@ -0,0 +1,37 @@
+package com.game.gamedeck.controller;
+
+/**
+ * ETags of the game-scoped reads, made from the version of the game, which every write to the game
+ * increments. They are weak, as the same version is served as JSON, CBOR or card ordinals, which are
+ * equivalent but not the same bytes; responses vary by Accept for caches to tell them apart.
+ */
+final class GameETags {
+
+    private GameETags() {
+    }
+
+    static String of(long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header lists the ETag, weakly or strongly, or is a wildcard.
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = opaque(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = opaque(candidate.trim());
+            if (tag.equals("*") || tag.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
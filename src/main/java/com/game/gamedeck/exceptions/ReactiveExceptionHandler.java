@@ -0,0 +1,97 @@
+package com.game.gamedeck.exceptions;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link CustomExceptionHandler} responses, for the API served on WebFlux. Request errors the
+ * framework raises with their own status, such as an unreadable body, keep it.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler extends ResponseEntityExceptionHandler {
+
+    static final String ERRORS = "game.errors";
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @ExceptionHandler(Exception.class)
+    public final ResponseEntity<Object> handleAllExceptions(Exception ex, ServerHttpRequest request) {
+
+        countError(ex);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), ex.getMessage(),
+                describe(request), null);
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @ExceptionHandler(NotFoundException.class)
+    public final ResponseEntity<Object> handleNotFoundExceptions(NotFoundException ex, ServerHttpRequest request) {
+
+        countError(ex);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), ex.getMessage(),
+                describe(request), null);
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public final ResponseEntity<Object> handleConflictExceptions(ConflictException ex, ServerHttpRequest request) {
+
+        countError(ex);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), ex.getMessage(),
+                describe(request), null);
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.CONFLICT);
+    }
+
+    @Override
+    protected Mono<ResponseEntity<Object>> handleWebExchangeBindException(WebExchangeBindException ex,
+                                                                         HttpHeaders headers, HttpStatusCode status,
+                                                                         ServerWebExchange exchange) {
+
+        List<BeanValidationError> errors = ex.getBindingResult().getAllErrors()
+                .stream()
+                .map(BeanValidationError::new)
+                .collect(Collectors.toList());
+
+        ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), "Validation Failed.",
+                null, errors);
+
+        return Mono.just(new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST));
+    }
+
+    private String describe(ServerHttpRequest request) {
+        return "uri=" + request.getPath().value();
+    }
+
+    /**
+     * Counts the exceptions answered, by their class, in {@value #ERRORS}.
+     */
+    private void countError(Exception ex) {
+        meterRegistry.ifAvailable(registry -> Counter.builder(ERRORS)
+                .description("Exceptions answered by the API")
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(registry)
+                .increment());
+    }
+}
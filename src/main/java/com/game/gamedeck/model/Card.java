@@ -1,14 +1,24 @@
 package com.game.gamedeck.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Value;
 
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
+/**
+ * Immutable card as exposed by the API. The 52 distinct cards are shared through {@link CardEnum#toCard()}.
+ */
+@Value
 public class Card {
     private int value;
     private String suit;
     private String faceValue;
+
+    @JsonCreator
+    public Card(@JsonProperty("value") int value,
+                @JsonProperty("suit") String suit,
+                @JsonProperty("faceValue") String faceValue) {
+        this.value = value;
+        this.suit = suit;
+        this.faceValue = faceValue;
+    }
 }
@@ -2,6 +2,8 @@ package com.game.gamedeck.model;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public enum CardEnum {
@@ -71,9 +73,14 @@ public enum CardEnum {
     KING_DIAMONDS(13, "K", "DIAMONDS"),
     KING_CLUBS(13, "K", "CLUBS");
 
-    private int value;
-    private String suit;
-    private String faceValue;
+    private static final CardEnum[] VALUES = values();
+    private static final Map<Card, CardEnum> BY_CARD = Arrays.stream(VALUES)
+            .collect(Collectors.toMap(CardEnum::toCard, Function.identity()));
+
+    private final int value;
+    private final String suit;
+    private final String faceValue;
+    private final Card card;
 
     public int getValue() {
         return value;
@@ -91,11 +98,39 @@ public enum CardEnum {
         this.value = value;
         this.suit = suit;
         this.faceValue = faceValue;
+        this.card = new Card(value, suit, faceValue);
+    }
+
+    public byte getCode() {
+        return (byte) ordinal();
+    }
+
+    public Card toCard() {
+        return card;
+    }
+
+    public static CardEnum fromCode(int code) {
+        return VALUES[code];
+    }
+
+    public static CardEnum fromCard(String suit, String faceValue) {
+        return Arrays.stream(VALUES)
+                .filter(c -> c.getSuit().equals(suit) && c.getFaceValue().equals(faceValue))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown card " + faceValue + " of " + suit));
+    }
+
+    public static CardEnum fromCard(Card card) {
+        CardEnum cardEnum = BY_CARD.get(card);
+        if (cardEnum == null) {
+            throw new IllegalArgumentException("Unknown card " + card);
+        }
+        return cardEnum;
     }
 
     public static List<Card> createDeck() {
         List<Card> cards = Arrays.stream(CardEnum.values())
-                .map(c -> new Card(c.getValue(), c.getSuit(), c.getFaceValue()))
+                .map(CardEnum::toCard)
                 .collect(Collectors.toList());
         return cards;
     }
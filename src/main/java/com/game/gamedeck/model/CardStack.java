@@ -0,0 +1,160 @@
+package com.game.gamedeck.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact, ordered collection of cards, one byte per card holding the {@link CardEnum} ordinal.
+ * Used for both the game shoe and the players' hands; it is converted to the public {@link Card}
+ * shape only when building responses.
+ */
+public class CardStack {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private byte[] codes;
+    private int size;
+
+    public CardStack() {
+        this.codes = new byte[DEFAULT_CAPACITY];
+    }
+
+    private CardStack(byte[] codes, int size) {
+        this.codes = codes;
+        this.size = size;
+    }
+
+    public static CardStack fromCodes(byte[] codes) {
+        for (byte code : codes) {
+            CardEnum.fromCode(code);
+        }
+        return new CardStack(Arrays.copyOf(codes, Math.max(codes.length, DEFAULT_CAPACITY)), codes.length);
+    }
+
+    public static CardStack of(CardEnum... cards) {
+        CardStack stack = new CardStack(new byte[Math.max(cards.length, DEFAULT_CAPACITY)], 0);
+        for (CardEnum card : cards) {
+            stack.add(card);
+        }
+        return stack;
+    }
+
+    public static CardStack ofDecks(int numberOfDecks) {
+        CardEnum[] deck = CardEnum.values();
+        byte[] codes = new byte[numberOfDecks * deck.length];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = (byte) (i % deck.length);
+        }
+        return new CardStack(codes, codes.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public CardEnum get(int index) {
+        checkIndex(index);
+        return CardEnum.fromCode(codes[index]);
+    }
+
+    public void add(CardEnum card) {
+        ensureCapacity(size + 1);
+        codes[size++] = card.getCode();
+    }
+
+    public void addAll(CardStack cards) {
+        ensureCapacity(size + cards.size);
+        System.arraycopy(cards.codes, 0, codes, size, cards.size);
+        size += cards.size;
+    }
+
+    public CardEnum removeFirst() {
+        checkIndex(0);
+        CardEnum first = CardEnum.fromCode(codes[0]);
+        System.arraycopy(codes, 1, codes, 0, --size);
+        return first;
+    }
+
+    public void swap(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        byte card = codes[i];
+        codes[i] = codes[j];
+        codes[j] = card;
+    }
+
+    public CardStack copy() {
+        return new CardStack(Arrays.copyOf(codes, codes.length), size);
+    }
+
+    public byte[] toCodes() {
+        return Arrays.copyOf(codes, size);
+    }
+
+    public int[] countByCard() {
+        int[] counts = new int[CardEnum.values().length];
+        for (int i = 0; i < size; i++) {
+            counts[codes[i]]++;
+        }
+        return counts;
+    }
+
+    public int totalValue() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += CardEnum.fromCode(codes[i]).getValue();
+        }
+        return total;
+    }
+
+    public List<Card> toCards() {
+        List<Card> cards = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cards.add(CardEnum.fromCode(codes[i]).toCard());
+        }
+        return cards;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > codes.length) {
+            codes = Arrays.copyOf(codes, Math.max(capacity, codes.length * 2));
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CardStack)) {
+            return false;
+        }
+        CardStack other = (CardStack) o;
+        return Arrays.equals(toCodes(), other.toCodes());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toCodes());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("CardStack[");
+        for (int i = 0; i < size; i++) {
+            builder.append(i == 0 ? "" : ", ").append(CardEnum.fromCode(codes[i]));
+        }
+        return builder.append(']').toString();
+    }
+}
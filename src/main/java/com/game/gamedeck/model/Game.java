@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.ArrayList;
@@ -16,6 +17,57 @@ import java.util.List;
 public class Game {
     @Id
     private String id;
-    private List<Card> gameCards = new ArrayList<>();
+    private CardStack gameCards = new CardStack();
     private List<Player> players = new ArrayList<>();
+
+    /**
+     * Number of cards left in the shoe per {@link CardEnum} code, kept up to date by every write to
+     * the shoe so summaries don't have to walk it. Null on games stored before it existed.
+     */
+    private int[] cardCounts;
+
+    /**
+     * Number of cards from the top of the shoe left unordered by a shuffle on draw: each card dealt
+     * from them is drawn at random among them instead of being the top one. Null while the shoe is
+     * in order.
+     */
+    private Integer unorderedCards;
+
+    /**
+     * State of the generator drawing the unordered cards, started from {@link #shuffleSeed} when the
+     * shoe was left unordered and advanced by every card drawn, so the draws are reproducible from the
+     * seed. Null while the shoe is in order.
+     */
+    private Long drawState;
+
+    /**
+     * The shoe of games created with a virtual shoe, kept as a seeded permutation of whole decks in
+     * place of the cards in {@link #gameCards}, which stay empty in the store. Null when
+     * {@link #gameCards} hold the shoe.
+     */
+    private VirtualShoe virtualShoe;
+
+    /**
+     * The seed of the last shuffle of the shoe, which reproduces it from the shoe it was applied to.
+     * Null until the shoe is first shuffled.
+     */
+    private Long shuffleSeed;
+
+    /**
+     * Incremented by every write to the game, so read-modify-write paths can apply their change only
+     * if the game is still as they read it. Null on games stored before it existed.
+     */
+    @Version
+    private Long version;
+
+    public Game(String id, CardStack gameCards, List<Player> players) {
+        this(id, gameCards, players, null, null, null, null, null, null);
+    }
+
+    public Game copy() {
+        List<Player> playersCopy = new ArrayList<>(players.size());
+        players.forEach(player -> playersCopy.add(player.copy()));
+        return new Game(id, gameCards.copy(), playersCopy, cardCounts == null ? null : cardCounts.clone(),
+                unorderedCards, drawState, virtualShoe == null ? null : virtualShoe.copy(), shuffleSeed, version);
+    }
 }
@@ -0,0 +1,150 @@
+package com.game.gamedeck.model;
+
+import com.game.gamedeck.shared.utils.DeckUtils;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.TypeAlias;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One change to a game, as appended to the game's event log in the event-sourced persistence mode.
+ * A game is the result of applying its events in sequence order, the first one creating it. Each event
+ * only holds what its type needs; the other fields are left null and are not stored.
+ */
+@Document("game_event")
+@TypeAlias("event")
+@Data
+@NoArgsConstructor
+public class GameEvent {
+
+    public enum Type {
+        GAME_CREATED, PLAYER_ADDED, PLAYER_REMOVED, DECK_ADDED, CARDS_DEALT, CARDS_SHUFFLED, CARDS_REPLACED,
+        GAME_DELETED
+    }
+
+    @Id
+    private String id;
+    private String gameId;
+    private long sequence;
+    private Type type;
+
+    /**
+     * The players of a created game.
+     */
+    private List<String> players;
+
+    /**
+     * The player added or removed.
+     */
+    private String playerName;
+
+    /**
+     * The shoe of a created game, the cards of an added deck or the cards replacing the shoe.
+     */
+    private CardStack cards;
+
+    /**
+     * For each card dealt from the top of the shoe, the seats of the players receiving it.
+     */
+    private List<List<Integer>> seats;
+
+    /**
+     * The seed the shoe was shuffled with, see {@link DeckUtils#shuffleCards(CardStack, long)}.
+     */
+    private Long seed;
+
+    private GameEvent(Type type) {
+        this.type = type;
+    }
+
+    public static GameEvent gameCreated(List<String> players, CardStack cards) {
+        GameEvent event = new GameEvent(Type.GAME_CREATED);
+        event.setPlayers(players);
+        event.setCards(cards);
+        return event;
+    }
+
+    public static GameEvent playerAdded(String playerName) {
+        GameEvent event = new GameEvent(Type.PLAYER_ADDED);
+        event.setPlayerName(playerName);
+        return event;
+    }
+
+    public static GameEvent playerRemoved(String playerName) {
+        GameEvent event = new GameEvent(Type.PLAYER_REMOVED);
+        event.setPlayerName(playerName);
+        return event;
+    }
+
+    public static GameEvent deckAdded(CardStack cards) {
+        GameEvent event = new GameEvent(Type.DECK_ADDED);
+        event.setCards(cards);
+        return event;
+    }
+
+    public static GameEvent cardsDealt(List<List<Integer>> seats) {
+        GameEvent event = new GameEvent(Type.CARDS_DEALT);
+        event.setSeats(seats);
+        return event;
+    }
+
+    public static GameEvent cardsShuffled(long seed) {
+        GameEvent event = new GameEvent(Type.CARDS_SHUFFLED);
+        event.setSeed(seed);
+        return event;
+    }
+
+    public static GameEvent cardsReplaced(CardStack cards) {
+        GameEvent event = new GameEvent(Type.CARDS_REPLACED);
+        event.setCards(cards);
+        return event;
+    }
+
+    public static GameEvent gameDeleted() {
+        return new GameEvent(Type.GAME_DELETED);
+    }
+
+    /**
+     * Applies the event to the game as it was after the previous event, leaving the game at the
+     * event's sequence as its version. Card counters are not kept up to date.
+     */
+    public void applyTo(Game game) {
+        switch (type) {
+            case GAME_CREATED:
+                game.setId(gameId);
+                game.setGameCards(cards.copy());
+                game.setPlayers(new ArrayList<>());
+                players.forEach(name -> game.getPlayers().add(new Player(name)));
+                break;
+            case PLAYER_ADDED:
+                game.getPlayers().add(new Player(playerName));
+                break;
+            case PLAYER_REMOVED:
+                game.getPlayers().removeIf(player -> player.getName().equals(playerName));
+                break;
+            case DECK_ADDED:
+                game.getGameCards().addAll(cards);
+                break;
+            case CARDS_DEALT:
+                seats.forEach(seatsOfCard -> {
+                    CardEnum card = game.getGameCards().removeFirst();
+                    seatsOfCard.forEach(seat -> game.getPlayers().get(seat).addCard(card));
+                });
+                break;
+            case CARDS_SHUFFLED:
+                DeckUtils.shuffleCards(game.getGameCards(), seed);
+                game.setShuffleSeed(seed);
+                break;
+            case CARDS_REPLACED:
+                game.setGameCards(cards.copy());
+                break;
+            case GAME_DELETED:
+                break;
+        }
+        game.setVersion(sequence);
+    }
+}
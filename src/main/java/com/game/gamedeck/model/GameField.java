@@ -0,0 +1,42 @@
+package com.game.gamedeck.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The fields of a game a client can ask for alone, by their name in the game response, each with the
+ * paths of the game document it is read from.
+ */
+public enum GameField {
+    ID("id", "_id"),
+    GAME_CARDS("gameCards", "gameCards", "virtualShoe"),
+    PLAYERS("players", "players"),
+    PLAYER_NAMES("players.name", "players.name"),
+    PLAYER_CARDS("players.onHandCards", "players.onHandCards");
+
+    private final String name;
+    private final List<String> paths;
+
+    GameField(String name, String... paths) {
+        this.name = name;
+        this.paths = List.of(paths);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * The field with the given response name, or null if the game response has no such field.
+     */
+    public static GameField fromName(String name) {
+        return Arrays.stream(values())
+                .filter(field -> field.name.equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+}
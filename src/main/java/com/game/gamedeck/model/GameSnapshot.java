@@ -0,0 +1,24 @@
+package com.game.gamedeck.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.TypeAlias;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A game as it was after the event with the given sequence, so loading it only replays the later
+ * events. Every game has one from its creation on, so the snapshots also list the games.
+ */
+@Document("game_snapshot")
+@TypeAlias("snapshot")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GameSnapshot {
+    @Id
+    private String gameId;
+    private long sequence;
+    private Game game;
+}
@@ -4,17 +4,37 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Player {
     private String name;
-    private List<Card> onHandCards = new ArrayList<>();
+    private CardStack onHandCards = new CardStack();
+
+    /**
+     * Running sum of the values of the cards on hand and their number, updated with every card dealt.
+     * Null on players stored before they existed.
+     */
+    private Integer total;
+    private Integer numberOfCards;
 
     public Player(String name) {
-        this.name = name;
+        this(name, new CardStack());
+    }
+
+    public Player(String name, CardStack onHandCards) {
+        this(name, onHandCards, onHandCards.totalValue(), onHandCards.size());
+    }
+
+    public void addCard(CardEnum card) {
+        onHandCards.add(card);
+        if (total != null) {
+            total += card.getValue();
+        }
+        numberOfCards = onHandCards.size();
+    }
+
+    public Player copy() {
+        return new Player(name, onHandCards.copy(), total, numberOfCards);
     }
 }
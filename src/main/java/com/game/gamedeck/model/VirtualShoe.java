@@ -0,0 +1,123 @@
+package com.game.gamedeck.model;
+
+import com.game.gamedeck.shared.utils.DeckUtils;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A shoe of whole decks kept as a few numbers instead of its cards: the cards in it at any position
+ * are computed from the number of decks and the seed of the last shuffle, and a cursor tells how far
+ * it was dealt. Its size is the same however many decks it holds.
+ * <p>
+ * The top {@code shuffledDecks} decks are in the order of a permutation keyed by the seed, the decks
+ * added after the last shuffle follow in order. The cards dealt before the last shuffle are still in
+ * the permutation, so as many copies of each are skipped when the cursor reaches them.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VirtualShoe {
+
+    private static final int DECK_SIZE = CardEnum.values().length;
+
+    private int numberOfDecks;
+    private int shuffledDecks;
+    private long seed;
+    private int cursor;
+
+    /**
+     * Copies of each card, by {@link CardEnum} code, dealt since the shoe was created.
+     */
+    private int[] dealtCards = new int[DECK_SIZE];
+
+    /**
+     * Copies of each card, by {@link CardEnum} code, dealt before the last shuffle and not passed by
+     * the cursor yet.
+     */
+    private int[] cardsToSkip = new int[DECK_SIZE];
+
+    public static VirtualShoe ofDecks(int numberOfDecks) {
+        VirtualShoe shoe = new VirtualShoe();
+        shoe.setNumberOfDecks(numberOfDecks);
+        return shoe;
+    }
+
+    public int size() {
+        int size = numberOfDecks * DECK_SIZE;
+        for (int code = 0; code < DECK_SIZE; code++) {
+            size -= dealtCards[code];
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Takes the top card of the shoe.
+     */
+    public CardEnum deal() {
+        if (isEmpty()) {
+            throw new IndexOutOfBoundsException("Index: 0, Size: 0");
+        }
+        while (true) {
+            CardEnum card = cardAt(cursor++);
+            if (cardsToSkip[card.getCode()] > 0) {
+                cardsToSkip[card.getCode()]--;
+            } else {
+                dealtCards[card.getCode()]++;
+                return card;
+            }
+        }
+    }
+
+    /**
+     * Puts every card left in the shoe, including the decks added since, in the order of a new
+     * permutation keyed by the seed.
+     */
+    public void shuffle(long seed) {
+        this.seed = seed;
+        this.shuffledDecks = numberOfDecks;
+        this.cursor = 0;
+        this.cardsToSkip = dealtCards.clone();
+    }
+
+    /**
+     * Adds the given number of decks, in order, to the bottom of the shoe.
+     */
+    public void addDecks(int decks) {
+        numberOfDecks += decks;
+    }
+
+    public int[] countByCard() {
+        int[] counts = new int[DECK_SIZE];
+        for (int code = 0; code < DECK_SIZE; code++) {
+            counts[code] = numberOfDecks - dealtCards[code];
+        }
+        return counts;
+    }
+
+    /**
+     * The cards left in the shoe, top first.
+     */
+    public CardStack toCardStack() {
+        VirtualShoe dealing = copy();
+        CardStack cards = new CardStack();
+        while (!dealing.isEmpty()) {
+            cards.add(dealing.deal());
+        }
+        return cards;
+    }
+
+    public VirtualShoe copy() {
+        return new VirtualShoe(numberOfDecks, shuffledDecks, seed, cursor, dealtCards.clone(), cardsToSkip.clone());
+    }
+
+    private CardEnum cardAt(int position) {
+        int shuffledCards = shuffledDecks * DECK_SIZE;
+        int card = position < shuffledCards ? DeckUtils.permute(position, shuffledCards, seed) : position;
+        return CardEnum.fromCode((byte) (card % DECK_SIZE));
+    }
+}
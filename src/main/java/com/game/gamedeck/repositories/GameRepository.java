@@ -1,27 +1,107 @@
 package com.game.gamedeck.repositories;
 
-import com.game.gamedeck.model.Card;
+import com.game.gamedeck.model.CardStack;
 import com.game.gamedeck.model.CardsBySuit;
 import com.game.gamedeck.model.CardsBySuitAndValue;
 import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.GameField;
 import org.springframework.data.domain.Sort;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface GameRepository {
     Optional<Game> save(Game game);
     Optional<Game> delete(String gameId);
     Optional<Game> findById(String gameId);
-    List<Game> findAll();
+    List<Game> findPage(String afterId, int limit, boolean includeGameCards);
+    Stream<Game> streamAll(boolean includeGameCards);
     Optional<Game> findGameOnlyWithCards(String gameId);
+
+    /**
+     * The game with only the given fields read, and a page of games likewise. Stores holding games in
+     * process return them whole.
+     */
+    default Optional<Game> findGameOnlyWith(String gameId, Set<GameField> fields) {
+        return findById(gameId);
+    }
+
+    default List<Game> findPage(String afterId, int limit, Set<GameField> fields) {
+        return findPage(afterId, limit, fields.contains(GameField.GAME_CARDS));
+    }
+
+    /**
+     * The version of the game alone, a lookup cheap enough to run before every read to tell whether
+     * the game changed since a client last read it.
+     */
+    Optional<Long> findVersion(String gameId);
+
     Optional<Game> findGameOnlyWithPlayer(String gameId, String playerName);
     Optional<Game> findGameOnlyWithPlayers(String gameId);
+    Optional<Game> findGameOnlyWithPlayerTotals(String gameId);
     boolean isPlayerExists(String gameId, String playerName);
-    Optional<Game> updateGameCards(String gameId, List<Card> cards);
+    Optional<Game> updateGameCards(String gameId, Long version, CardStack cards);
+
+    /**
+     * Replaces the shoe with {@code shuffledCards}, the shoe at the given version shuffled with a generator
+     * seeded with {@code seed}. Stores keeping the shoe write the cards, an event log can keep the seed alone.
+     */
+    default Optional<Game> shuffleCards(String gameId, Long version, long seed, CardStack shuffledCards) {
+        return updateGameCards(gameId, version, shuffledCards);
+    }
+
+    /**
+     * Shuffles the shoe on draw: its cards are left where they are, and each card dealt from them is
+     * drawn among those left by a generator started from {@code seed}, recorded as the shuffle seed.
+     * Needs no read of the shoe, so no version either.
+     */
+    Optional<Game> markCardsUnordered(String gameId, long seed);
+
+    /**
+     * Adds the player in a single conditional write, unless the game already has a player of that
+     * name. Empty when there is no such game or the player is already in it.
+     */
     Optional<Game> addNewPlayer(String gameId, String playerName);
-    Optional<Game> addNewDeck(String gameId, List<Card> cards);
+
+    Optional<Game> addNewDeck(String gameId, CardStack cards);
     Optional<Game> removePlayer(String gameId, String playerName);
+    Optional<Game> dealTopCard(String gameId, String playerName);
+    Optional<Game> dealCardsToEachPlayer(String gameId, int cardsPerPlayer);
+    Optional<Game> dealCards(String gameId, Map<String, Integer> cardsByPlayer);
+
+    /*
+     * The same writes, returning the written game without its shoe unless includeGameCards, so the
+     * shoe is not read back. Stores holding games in process return it in any case.
+     */
+
+    default Optional<Game> addNewPlayer(String gameId, String playerName, boolean includeGameCards) {
+        return addNewPlayer(gameId, playerName);
+    }
+
+    default Optional<Game> addNewDeck(String gameId, CardStack cards, boolean includeGameCards) {
+        return addNewDeck(gameId, cards);
+    }
+
+    default Optional<Game> removePlayer(String gameId, String playerName, boolean includeGameCards) {
+        return removePlayer(gameId, playerName);
+    }
+
+    default Optional<Game> dealTopCard(String gameId, String playerName, boolean includeGameCards) {
+        return dealTopCard(gameId, playerName);
+    }
+
+    default Optional<Game> dealCardsToEachPlayer(String gameId, int cardsPerPlayer, boolean includeGameCards) {
+        return dealCardsToEachPlayer(gameId, cardsPerPlayer);
+    }
+
+    default Optional<Game> dealCards(String gameId, Map<String, Integer> cardsByPlayer, boolean includeGameCards) {
+        return dealCards(gameId, cardsByPlayer);
+    }
+
     List<CardsBySuit> countRemainingCardsBySuit(String gameId);
     List<CardsBySuitAndValue> countRemainingCardsSorted(String gameId, Sort sort);
+    long rebuildCardCounts();
 }
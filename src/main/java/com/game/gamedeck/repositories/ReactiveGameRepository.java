@@ -0,0 +1,92 @@
+package com.game.gamedeck.repositories;
+
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.CardsBySuit;
+import com.game.gamedeck.model.CardsBySuitAndValue;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.GameField;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non blocking counterpart of {@link GameRepository}, with the same operations. Operations that
+ * find nothing, or whose update does not apply, complete empty.
+ */
+public interface ReactiveGameRepository {
+    Mono<Game> save(Game game);
+    Mono<Game> delete(String gameId);
+    Mono<Game> findById(String gameId);
+    Flux<Game> findPage(String afterId, int limit, boolean includeGameCards);
+    Flux<Game> streamAll(boolean includeGameCards);
+    Mono<Game> findGameOnlyWithCards(String gameId);
+
+    default Mono<Game> findGameOnlyWith(String gameId, Set<GameField> fields) {
+        return findById(gameId);
+    }
+
+    default Flux<Game> findPage(String afterId, int limit, Set<GameField> fields) {
+        return findPage(afterId, limit, fields.contains(GameField.GAME_CARDS));
+    }
+
+    Mono<Long> findVersion(String gameId);
+    Mono<Game> findGameOnlyWithPlayer(String gameId, String playerName);
+    Mono<Game> findGameOnlyWithPlayers(String gameId);
+    Mono<Game> findGameOnlyWithPlayerTotals(String gameId);
+    Mono<Boolean> isPlayerExists(String gameId, String playerName);
+    Mono<Game> updateGameCards(String gameId, Long version, CardStack cards);
+
+    default Mono<Game> shuffleCards(String gameId, Long version, long seed, CardStack shuffledCards) {
+        return updateGameCards(gameId, version, shuffledCards);
+    }
+
+    Mono<Game> markCardsUnordered(String gameId, long seed);
+
+    /**
+     * Adds the player in a single conditional write, unless the game already has a player of that
+     * name. Empty when there is no such game or the player is already in it.
+     */
+    Mono<Game> addNewPlayer(String gameId, String playerName);
+
+    Mono<Game> addNewDeck(String gameId, CardStack cards);
+    Mono<Game> removePlayer(String gameId, String playerName);
+    Mono<Game> dealTopCard(String gameId, String playerName);
+    Mono<Game> dealCardsToEachPlayer(String gameId, int cardsPerPlayer);
+    Mono<Game> dealCards(String gameId, Map<String, Integer> cardsByPlayer);
+
+    /*
+     * The same writes, returning the written game without its shoe unless includeGameCards, so the
+     * shoe is not read back. Stores holding games in process return it in any case.
+     */
+
+    default Mono<Game> addNewPlayer(String gameId, String playerName, boolean includeGameCards) {
+        return addNewPlayer(gameId, playerName);
+    }
+
+    default Mono<Game> addNewDeck(String gameId, CardStack cards, boolean includeGameCards) {
+        return addNewDeck(gameId, cards);
+    }
+
+    default Mono<Game> removePlayer(String gameId, String playerName, boolean includeGameCards) {
+        return removePlayer(gameId, playerName);
+    }
+
+    default Mono<Game> dealTopCard(String gameId, String playerName, boolean includeGameCards) {
+        return dealTopCard(gameId, playerName);
+    }
+
+    default Mono<Game> dealCardsToEachPlayer(String gameId, int cardsPerPlayer, boolean includeGameCards) {
+        return dealCardsToEachPlayer(gameId, cardsPerPlayer);
+    }
+
+    default Mono<Game> dealCards(String gameId, Map<String, Integer> cardsByPlayer, boolean includeGameCards) {
+        return dealCards(gameId, cardsByPlayer);
+    }
+
+    Flux<CardsBySuit> countRemainingCardsBySuit(String gameId);
+    Flux<CardsBySuitAndValue> countRemainingCardsSorted(String gameId, Sort sort);
+    Mono<Long> rebuildCardCounts();
+}
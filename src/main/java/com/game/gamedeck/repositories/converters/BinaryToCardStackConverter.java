@@ -0,0 +1,15 @@
+package com.game.gamedeck.repositories.converters;
+
+import com.game.gamedeck.model.CardStack;
+import org.bson.types.Binary;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+@ReadingConverter
+public class BinaryToCardStackConverter implements Converter<Binary, CardStack> {
+
+    @Override
+    public CardStack convert(Binary binary) {
+        return CardStack.fromCodes(binary.getData());
+    }
+}
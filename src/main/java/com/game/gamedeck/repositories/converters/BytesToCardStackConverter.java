@@ -0,0 +1,14 @@
+package com.game.gamedeck.repositories.converters;
+
+import com.game.gamedeck.model.CardStack;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+@ReadingConverter
+public class BytesToCardStackConverter implements Converter<byte[], CardStack> {
+
+    @Override
+    public CardStack convert(byte[] codes) {
+        return CardStack.fromCodes(codes);
+    }
+}
@@ -0,0 +1,32 @@
+package com.game.gamedeck.repositories.converters;
+
+import com.game.gamedeck.model.CardEnum;
+import com.game.gamedeck.model.CardStack;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads card arrays holding {@code CardEnum} ordinals, as well as the legacy layout where every card
+ * was stored as a {@code {value, suit, faceValue}} sub-document.
+ */
+@ReadingConverter
+public class CardListToCardStackConverter implements Converter<List<?>, CardStack> {
+
+    @Override
+    public CardStack convert(List<?> cards) {
+        CardStack cardStack = new CardStack();
+        for (Object card : cards) {
+            if (card instanceof Number) {
+                cardStack.add(CardEnum.fromCode(((Number) card).intValue()));
+            } else {
+                Map<?, ?> legacyCard = (Map<?, ?>) card;
+                cardStack.add(CardEnum.fromCard((String) legacyCard.get("suit"),
+                        (String) legacyCard.get("faceValue")));
+            }
+        }
+        return cardStack;
+    }
+}
@@ -0,0 +1,26 @@
+package com.game.gamedeck.repositories.converters;
+
+import com.game.gamedeck.model.CardStack;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes card stacks as arrays of {@code CardEnum} ordinals, so they can still be changed
+ * server-side by array operators and update pipelines.
+ */
+@WritingConverter
+public class CardStackWriteConverter implements Converter<CardStack, List<Integer>> {
+
+    @Override
+    public List<Integer> convert(CardStack cards) {
+        byte[] codes = cards.toCodes();
+        List<Integer> ordinals = new ArrayList<>(codes.length);
+        for (byte code : codes) {
+            ordinals.add((int) code);
+        }
+        return ordinals;
+    }
+}
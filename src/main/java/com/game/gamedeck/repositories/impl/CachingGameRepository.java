@@ -0,0 +1,261 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.CardsBySuit;
+import com.game.gamedeck.model.CardsBySuitAndValue;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.GameField;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.repositories.GameRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache of whole games in front of another {@link GameRepository}.
+ * <p>
+ * Single game reads and their projections are served from the cached game, bounded by size
+ * (W-TinyLFU eviction) and by a time to live. Every mutation goes to the delegate first and then
+ * invalidates the game, so readers never get a copy older than the last local write; the time to
+ * live bounds how stale a game changed by another instance can be. Callers always receive copies,
+ * as services mutate the games they read. A conditional write that misses because the cached version
+ * was stale still invalidates the game, so the retry reads it from the delegate.
+ * <p>
+ * A missing game is loaded by the first reader outside of the cache's own locks, while concurrent
+ * readers wait on its future, so a load never pins the carrier of a virtual thread.
+ * <p>
+ * The cache statistics are published as the cache meters of the {@value #GAMES} cache.
+ */
+public class CachingGameRepository implements GameRepository {
+
+    static final String GAMES = "games";
+
+    private final GameRepository delegate;
+    private final AsyncCache<String, Game> games;
+
+    public CachingGameRepository(GameRepository delegate, long maximumSize, Duration expireAfterWrite,
+                                 MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.games = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, games.synchronous(), GAMES);
+    }
+
+    @Override
+    public Optional<Game> save(Game game) {
+        Optional<Game> savedGame = delegate.save(game);
+        savedGame.map(Game::getId).ifPresent(games.synchronous()::invalidate);
+        return savedGame;
+    }
+
+    @Override
+    public Optional<Game> delete(String gameId) {
+        return invalidating(gameId, delegate.delete(gameId));
+    }
+
+    @Override
+    public Optional<Game> findById(String gameId) {
+        return findCached(gameId).map(Game::copy);
+    }
+
+    @Override
+    public List<Game> findPage(String afterId, int limit, boolean includeGameCards) {
+        return delegate.findPage(afterId, limit, includeGameCards);
+    }
+
+    @Override
+    public List<Game> findPage(String afterId, int limit, Set<GameField> fields) {
+        return delegate.findPage(afterId, limit, fields);
+    }
+
+    @Override
+    public Stream<Game> streamAll(boolean includeGameCards) {
+        return delegate.streamAll(includeGameCards);
+    }
+
+    @Override
+    public Optional<Game> findGameOnlyWithCards(String gameId) {
+        return findCached(gameId).map(game -> {
+            Game projection = new Game();
+            projection.setGameCards(game.getGameCards().copy());
+            projection.setShuffleSeed(game.getShuffleSeed());
+            projection.setVersion(game.getVersion());
+            return projection;
+        });
+    }
+
+    /**
+     * The version as stored, not cached, so a game changed by another instance is seen at once. A cached
+     * read answered after it may be older than the version, which only costs the next poll a full response.
+     */
+    @Override
+    public Optional<Long> findVersion(String gameId) {
+        return delegate.findVersion(gameId);
+    }
+
+    @Override
+    public Optional<Game> findGameOnlyWithPlayer(String gameId, String playerName) {
+        return findCached(gameId).flatMap(game -> findPlayer(game, playerName)).map(player -> {
+            Game projection = new Game();
+            projection.getPlayers().add(player.copy());
+            return projection;
+        });
+    }
+
+    @Override
+    public Optional<Game> findGameOnlyWithPlayers(String gameId) {
+        return findCached(gameId).map(game -> {
+            Game projection = new Game();
+            game.getPlayers().forEach(player -> projection.getPlayers().add(player.copy()));
+            projection.setVersion(game.getVersion());
+            return projection;
+        });
+    }
+
+    @Override
+    public Optional<Game> findGameOnlyWithPlayerTotals(String gameId) {
+        return findCached(gameId).map(CachingGameRepository::withPlayerTotalsOnly);
+    }
+
+    @Override
+    public boolean isPlayerExists(String gameId, String playerName) {
+        return findCached(gameId).flatMap(game -> findPlayer(game, playerName)).isPresent();
+    }
+
+    @Override
+    public Optional<Game> updateGameCards(String gameId, Long version, CardStack cards) {
+        return invalidating(gameId, delegate.updateGameCards(gameId, version, cards));
+    }
+
+    @Override
+    public Optional<Game> shuffleCards(String gameId, Long version, long seed, CardStack shuffledCards) {
+        return invalidating(gameId, delegate.shuffleCards(gameId, version, seed, shuffledCards));
+    }
+
+    @Override
+    public Optional<Game> markCardsUnordered(String gameId, long seed) {
+        return invalidating(gameId, delegate.markCardsUnordered(gameId, seed));
+    }
+
+    @Override
+    public Optional<Game> addNewPlayer(String gameId, String playerName) {
+        return invalidating(gameId, delegate.addNewPlayer(gameId, playerName));
+    }
+
+    @Override
+    public Optional<Game> addNewPlayer(String gameId, String playerName, boolean includeGameCards) {
+        return invalidating(gameId, delegate.addNewPlayer(gameId, playerName, includeGameCards));
+    }
+
+    @Override
+    public Optional<Game> addNewDeck(String gameId, CardStack cards) {
+        return invalidating(gameId, delegate.addNewDeck(gameId, cards));
+    }
+
+    @Override
+    public Optional<Game> addNewDeck(String gameId, CardStack cards, boolean includeGameCards) {
+        return invalidating(gameId, delegate.addNewDeck(gameId, cards, includeGameCards));
+    }
+
+    @Override
+    public Optional<Game> removePlayer(String gameId, String playerName) {
+        return invalidating(gameId, delegate.removePlayer(gameId, playerName));
+    }
+
+    @Override
+    public Optional<Game> removePlayer(String gameId, String playerName, boolean includeGameCards) {
+        return invalidating(gameId, delegate.removePlayer(gameId, playerName, includeGameCards));
+    }
+
+    @Override
+    public Optional<Game> dealTopCard(String gameId, String playerName) {
+        return invalidating(gameId, delegate.dealTopCard(gameId, playerName));
+    }
+
+    @Override
+    public Optional<Game> dealTopCard(String gameId, String playerName, boolean includeGameCards) {
+        return invalidating(gameId, delegate.dealTopCard(gameId, playerName, includeGameCards));
+    }
+
+    @Override
+    public Optional<Game> dealCardsToEachPlayer(String gameId, int cardsPerPlayer) {
+        return invalidating(gameId, delegate.dealCardsToEachPlayer(gameId, cardsPerPlayer));
+    }
+
+    @Override
+    public Optional<Game> dealCardsToEachPlayer(String gameId, int cardsPerPlayer, boolean includeGameCards) {
+        return invalidating(gameId, delegate.dealCardsToEachPlayer(gameId, cardsPerPlayer, includeGameCards));
+    }
+
+    @Override
+    public Optional<Game> dealCards(String gameId, Map<String, Integer> cardsByPlayer) {
+        return invalidating(gameId, delegate.dealCards(gameId, cardsByPlayer));
+    }
+
+    @Override
+    public Optional<Game> dealCards(String gameId, Map<String, Integer> cardsByPlayer, boolean includeGameCards) {
+        return invalidating(gameId, delegate.dealCards(gameId, cardsByPlayer, includeGameCards));
+    }
+
+    @Override
+    public List<CardsBySuit> countRemainingCardsBySuit(String gameId) {
+        return CardCounts.bySuit(CardCounts.of(findCached(gameId).orElse(null)));
+    }
+
+    @Override
+    public List<CardsBySuitAndValue> countRemainingCardsSorted(String gameId, Sort sort) {
+        return CardCounts.sorted(CardCounts.of(findCached(gameId).orElse(null)), sort);
+    }
+
+    @Override
+    public long rebuildCardCounts() {
+        long rebuiltGames = delegate.rebuildCardCounts();
+        games.synchronous().invalidateAll();
+        return rebuiltGames;
+    }
+
+    private Optional<Game> findCached(String gameId) {
+        CompletableFuture<Game> load = new CompletableFuture<>();
+        CompletableFuture<Game> cachedGame = games.get(gameId, (id, executor) -> load);
+        if (cachedGame == load) {
+            try {
+                load.complete(delegate.findById(gameId).orElse(null));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return Optional.ofNullable(cachedGame.join());
+    }
+
+    private Optional<Game> invalidating(String gameId, Optional<Game> result) {
+        games.synchronous().invalidate(gameId);
+        return result;
+    }
+
+    static Game withPlayerTotalsOnly(Game game) {
+        Game projection = new Game();
+        game.getPlayers().forEach(player -> projection.getPlayers().add(
+                new Player(player.getName(), new CardStack(), player.getTotal(), player.getNumberOfCards())));
+        return projection;
+    }
+
+    private Optional<Player> findPlayer(Game game, String playerName) {
+        return game.getPlayers().stream()
+                .filter(player -> player.getName().equals(playerName))
+                .findFirst();
+    }
+}
@@ -0,0 +1,98 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardEnum;
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.CardsBySuit;
+import com.game.gamedeck.model.CardsBySuitAndValue;
+import com.game.gamedeck.model.Game;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summaries of the cards left in a shoe, built from its per card counters.
+ */
+class CardCounts {
+
+    private CardCounts() {
+    }
+
+    /**
+     * The counters of the game, counting its shoe when they were never stored, or all zeros when there is no game.
+     */
+    static int[] of(Game game) {
+        if (game == null) {
+            return new int[CardEnum.values().length];
+        }
+        if (game.getCardCounts() != null) {
+            return game.getCardCounts();
+        }
+        CardStack gameCards = game.getGameCards();
+        return gameCards == null ? new int[CardEnum.values().length] : gameCards.countByCard();
+    }
+
+    static List<CardsBySuit> bySuit(int[] counts) {
+        Map<String, Long> totalsBySuit = new LinkedHashMap<>();
+
+        for (CardEnum card : CardEnum.values()) {
+            if (counts[card.ordinal()] > 0) {
+                totalsBySuit.merge(card.getSuit(), (long) counts[card.ordinal()], Long::sum);
+            }
+        }
+
+        List<CardsBySuit> cardsBySuit = new ArrayList<>();
+        totalsBySuit.forEach((suit, total) -> {
+            CardsBySuit suitTotal = new CardsBySuit();
+            suitTotal.setSuit(suit);
+            suitTotal.setTotal(total);
+            cardsBySuit.add(suitTotal);
+        });
+        return cardsBySuit;
+    }
+
+    static List<CardsBySuitAndValue> sorted(int[] counts, Sort sort) {
+        List<CardsBySuitAndValue> cardsBySuitAndValue = new ArrayList<>();
+
+        for (CardEnum card : CardEnum.values()) {
+            if (counts[card.ordinal()] > 0) {
+                CardsBySuitAndValue cardTotal = new CardsBySuitAndValue();
+                cardTotal.setCard(card.toCard());
+                cardTotal.setTotal(counts[card.ordinal()]);
+                cardsBySuitAndValue.add(cardTotal);
+            }
+        }
+
+        cardsBySuitAndValue.sort(comparatorOf(sort));
+        return cardsBySuitAndValue;
+    }
+
+    private static Comparator<CardsBySuitAndValue> comparatorOf(Sort sort) {
+        Comparator<CardsBySuitAndValue> comparator = (first, second) -> 0;
+
+        for (Sort.Order order : sort) {
+            Comparator<CardsBySuitAndValue> byProperty;
+            switch (order.getProperty().replaceFirst("^card\\.", "")) {
+                case "total":
+                    byProperty = Comparator.comparingLong(CardsBySuitAndValue::getTotal);
+                    break;
+                case "suit":
+                    byProperty = Comparator.comparing(cardTotal -> cardTotal.getCard().getSuit());
+                    break;
+                case "value":
+                    byProperty = Comparator.comparingInt(cardTotal -> cardTotal.getCard().getValue());
+                    break;
+                case "faceValue":
+                    byProperty = Comparator.comparing(cardTotal -> cardTotal.getCard().getFaceValue());
+                    break;
+                default:
+                    continue;
+            }
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+}
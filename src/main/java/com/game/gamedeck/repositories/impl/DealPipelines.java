@@ -0,0 +1,349 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardEnum;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.SetOperation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Update pipelines moving cards from the top of the shoe into the players' hands, or adding cards to
+ * it, so a whole change to the shoe and its card counters is applied by the server in a single write.
+ * Games without counters keep them null until they are rebuilt. Every pipeline also increments the
+ * game version, starting games stored without one at 1.
+ * <p>
+ * Players are matched by name ignoring case as the server lower-cases it, by the deals and by the
+ * queries guarding them alike, so a deal that finds its players always has them to deal to.
+ * <p>
+ * Cards dealt from the unordered top of a shoe shuffled on draw are first drawn into the top
+ * positions by the generator stored on the game, so every deal still takes the top cards.
+ */
+class DealPipelines {
+
+    private static final String GAME_CARDS = "$gameCards";
+    private static final String PLAYERS = "$players";
+    private static final String PLAYER = "$$player";
+    private static final String CARD_COUNTS = "$cardCounts";
+    private static final String UNORDERED_CARDS = "$unorderedCards";
+    private static final String DRAW_STATE = "$drawState";
+    private static final String VIRTUAL_SHOE = "$virtualShoe";
+    private static final String DRAWING = "drawing";
+    private static final String SHOE = "$$value.shoe";
+    private static final String TOP = "$$this";
+    private static final String DRAWN = "$$drawn";
+    private static final String VERSION = "version";
+    private static final List<Integer> CARD_VALUES = Collections.unmodifiableList(Arrays.stream(CardEnum.values())
+            .map(CardEnum::getValue)
+            .collect(Collectors.toList()));
+
+    private DealPipelines() {
+    }
+
+    /**
+     * Deals the top card of the shoe to the player with the given name, ignoring case.
+     */
+    static AggregationUpdate dealTopCard(String playerName) {
+        Document topCard = new Document("$slice", Arrays.asList(GAME_CARDS, 1));
+        Document players = new Document("$map", new Document("input", PLAYERS)
+                .append("as", "player")
+                .append("in", new Document("$cond", Arrays.asList(
+                        new Document("$eq", Arrays.asList(
+                                lowerCase(PLAYER + ".name"), lowerCase(new Document("$literal", playerName)))),
+                        addToHand(topCard),
+                        PLAYER))));
+
+        return dealing(players, 1);
+    }
+
+    /**
+     * Deals {@code cardsPerPlayer} cards to every player, one card per player and round, in seat order.
+     * Seats are taken by position, so players sharing a name are still dealt their own cards.
+     */
+    static AggregationUpdate dealRoundRobin(int cardsPerPlayer) {
+        Document numberOfPlayers = new Document("$size", PLAYERS);
+        Document cardsOfSeat = new Document("$map", new Document("input",
+                new Document("$range", Arrays.asList(0, cardsPerPlayer)))
+                .append("as", "round")
+                .append("in", new Document("$arrayElemAt", Arrays.asList(GAME_CARDS,
+                        new Document("$add", Arrays.asList(
+                                new Document("$multiply", Arrays.asList("$$round", numberOfPlayers)),
+                                "$$seat"))))));
+        Document dealtSeat = new Document("$map", new Document("input",
+                new Document("$slice", Arrays.asList(PLAYERS, "$$seat", 1)))
+                .append("as", "player")
+                .append("in", addToHand(cardsOfSeat)));
+        Document players = new Document("$map", new Document("input",
+                new Document("$range", Arrays.asList(0, numberOfPlayers)))
+                .append("as", "seat")
+                .append("in", new Document("$arrayElemAt", Arrays.asList(dealtSeat, 0))));
+
+        return dealing(players, new Document("$multiply", Arrays.asList(cardsPerPlayer, numberOfPlayers)));
+    }
+
+    /**
+     * Deals the cards at the given shoe positions to the named players, matching names ignoring case.
+     * {@code positions.get(i)} holds the positions dealt to {@code playerNames.get(i)}.
+     */
+    static AggregationUpdate dealPositions(List<String> playerNames, List<List<Integer>> positions, int numberOfCards) {
+        Document seat = new Document("$indexOfArray", Arrays.asList(
+                lowerCase(playerNames), lowerCase(PLAYER + ".name")));
+        Document cardsOfSeat = new Document("$map", new Document("input",
+                new Document("$arrayElemAt", Arrays.asList(new Document("$literal", positions), seat)))
+                .append("as", "position")
+                .append("in", new Document("$arrayElemAt", Arrays.asList(GAME_CARDS, "$$position"))));
+        Document players = new Document("$map", new Document("input", PLAYERS)
+                .append("as", "player")
+                .append("in", new Document("$cond", Arrays.asList(
+                        new Document("$gte", Arrays.asList(seat, 0)),
+                        addToHand(cardsOfSeat),
+                        PLAYER))));
+
+        return dealing(players, numberOfCards);
+    }
+
+    /**
+     * Appends the given card codes to the bottom of the shoe.
+     */
+    static AggregationUpdate addCards(List<Integer> codes, int[] countsByCard) {
+        Document gameCards = new Document("$concatArrays", Arrays.asList(
+                new Document("$ifNull", Arrays.asList(GAME_CARDS, new ArrayList<>())),
+                new Document("$literal", codes)));
+        Document cardCounts = updatingCounts(new Document("$add", Arrays.asList(
+                new Document("$arrayElemAt", Arrays.asList(CARD_COUNTS, "$$code")),
+                new Document("$arrayElemAt", Arrays.asList(new Document("$literal", toList(countsByCard)), "$$code")))));
+
+        Document addToShoe = new Document("$set", new Document("gameCards", gameCards)
+                .append("cardCounts", cardCounts));
+        return versioned(AggregationUpdate.from(
+                Collections.<AggregationOperation>singletonList(context -> addToShoe)));
+    }
+
+    /**
+     * Leaves every card in the shoe unordered, to be drawn as it is dealt by the generator started
+     * from the seed, and records the seed.
+     */
+    static AggregationUpdate markUnordered(long seed) {
+        Document unorderedCards = new Document("$set", new Document("unorderedCards",
+                new Document("$size", new Document("$ifNull", Arrays.asList(GAME_CARDS, new ArrayList<>()))))
+                .append("drawState", GameDeals.firstDrawState(seed))
+                .append("shuffleSeed", seed));
+        return versioned(AggregationUpdate.from(
+                Collections.<AggregationOperation>singletonList(context -> unorderedCards)));
+    }
+
+    /**
+     * Recounts the card counters from the shoe, or from the decks and dealt cards of a virtual shoe,
+     * and the players' totals from their hands.
+     */
+    static AggregationUpdate rebuildCardCounts() {
+        Document virtualCount = new Document("$subtract", Arrays.asList(VIRTUAL_SHOE + ".numberOfDecks",
+                new Document("$arrayElemAt", Arrays.asList(VIRTUAL_SHOE + ".dealtCards", "$$code"))));
+        Document cardCounts = new Document("$map", new Document("input",
+                new Document("$range", Arrays.asList(0, CardEnum.values().length)))
+                .append("as", "code")
+                .append("in", new Document("$cond", Arrays.asList(VIRTUAL_SHOE, virtualCount,
+                        countOf("$$code", new Document("$ifNull", Arrays.asList(GAME_CARDS, new ArrayList<>())))))));
+        Document hand = new Document("$ifNull", Arrays.asList(PLAYER + ".onHandCards", new ArrayList<>()));
+        Document players = new Document("$map", new Document("input",
+                new Document("$ifNull", Arrays.asList(PLAYERS, new ArrayList<>())))
+                .append("as", "player")
+                .append("in", new Document("$mergeObjects", Arrays.asList(PLAYER,
+                        new Document("total", valueOf(hand))
+                                .append("numberOfCards", new Document("$size", hand))))));
+
+        Document recount = new Document("$set", new Document("cardCounts", cardCounts)
+                .append("players", players));
+        return versioned(AggregationUpdate.from(
+                Collections.<AggregationOperation>singletonList(context -> recount)));
+    }
+
+    /**
+     * Query expression holding when the shoe has at least the given number of cards.
+     */
+    static Document hasAtLeastCards(Object numberOfCards) {
+        return new Document("$gte", Arrays.asList(
+                new Document("$size", new Document("$ifNull", Arrays.asList(GAME_CARDS, new ArrayList<>()))),
+                numberOfCards));
+    }
+
+    /**
+     * Query expression holding when the game has a player of each of the given names, matched the
+     * same way the deals match them.
+     */
+    static Document hasPlayersNamed(List<String> playerNames) {
+        Document names = new Document("$map", new Document("input",
+                new Document("$ifNull", Arrays.asList(PLAYERS, new ArrayList<>())))
+                .append("as", "player")
+                .append("in", lowerCase(PLAYER + ".name")));
+        Document missingNames = new Document("$setDifference", Arrays.asList(lowerCase(playerNames), names));
+        return new Document("$eq", Arrays.asList(new Document("$size", missingNames), 0));
+    }
+
+    static Document numberOfPlayers() {
+        return new Document("$size", new Document("$ifNull", Arrays.asList(PLAYERS, new ArrayList<>())));
+    }
+
+    private static Document lowerCase(Object name) {
+        return new Document("$toLower", name);
+    }
+
+    private static Document lowerCase(List<String> names) {
+        return new Document("$map", new Document("input", new Document("$literal", names))
+                .append("as", "name")
+                .append("in", lowerCase("$$name")));
+    }
+
+    /**
+     * The player with the given cards appended to the hand and counted in the running total.
+     */
+    private static Document addToHand(Document cards) {
+        Document hand = new Document("$ifNull", Arrays.asList(PLAYER + ".onHandCards", new ArrayList<>()));
+        Document total = new Document("$add", Arrays.asList(
+                new Document("$ifNull", Arrays.asList(PLAYER + ".total", valueOf(hand))),
+                valueOf(cards)));
+        Document numberOfCards = new Document("$add", Arrays.asList(
+                new Document("$size", hand), new Document("$size", cards)));
+
+        return new Document("$mergeObjects", Arrays.asList(PLAYER,
+                new Document("onHandCards", new Document("$concatArrays", Arrays.asList(hand, cards)))
+                        .append("total", total)
+                        .append("numberOfCards", numberOfCards)));
+    }
+
+    /**
+     * The sum of the values of the given card codes.
+     */
+    private static Document valueOf(Object cards) {
+        return new Document("$sum", new Document("$map", new Document("input", cards)
+                .append("as", "card")
+                .append("in", new Document("$arrayElemAt", Arrays.asList(
+                        new Document("$literal", CARD_VALUES), "$$card")))));
+    }
+
+    /**
+     * The card counters less the cards about to be dealt from the top of the shoe.
+     */
+    private static Document countsAfterDealing(Object numberOfCards) {
+        Document dealtCards = new Document("$slice", Arrays.asList(GAME_CARDS, numberOfCards));
+        return updatingCounts(new Document("$subtract", Arrays.asList(
+                new Document("$arrayElemAt", Arrays.asList(CARD_COUNTS, "$$code")),
+                countOf("$$code", dealtCards))));
+    }
+
+    /**
+     * The card counters mapped code by code through the given expression, or null while there are no counters.
+     */
+    private static Document updatingCounts(Document countOfCode) {
+        Document cardCounts = new Document("$map", new Document("input",
+                new Document("$range", Arrays.asList(0, CardEnum.values().length)))
+                .append("as", "code")
+                .append("in", countOfCode));
+        return new Document("$cond", Arrays.asList(new Document("$isArray", CARD_COUNTS), cardCounts, null));
+    }
+
+    private static Document countOf(Object code, Object cards) {
+        return new Document("$size", new Document("$filter", new Document("input", cards)
+                .append("as", "card")
+                .append("cond", new Document("$eq", Arrays.asList("$$card", code)))));
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> list = new ArrayList<>(values.length);
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    /**
+     * The shoe with the given number of cards drawn among the unordered ones into the top positions,
+     * by a partial Fisher-Yates shuffle: each top position swaps with one up to the last unordered card,
+     * picked by the next state of the generator, just as {@link GameDeals} draws them in process. A
+     * swap only moves the two cards, keeping the slices of the shoe between them as they are. The
+     * result is a document holding the shoe and the last state of the generator.
+     */
+    private static Document drawingUnordered(Object numberOfCards) {
+        Document unorderedCards = new Document("$ifNull", Arrays.asList(UNORDERED_CARDS, 0));
+        Document draws = new Document("$range", Arrays.asList(0,
+                new Document("$min", Arrays.asList(numberOfCards, unorderedCards))));
+        Document firstState = new Document("$ifNull", Arrays.asList(DRAW_STATE, GameDeals.UNSEEDED_DRAW_STATE));
+        Document nextState = new Document("$mod", Arrays.asList(
+                new Document("$multiply", Arrays.asList("$$value.state", GameDeals.DRAW_MULTIPLIER)),
+                GameDeals.DRAW_MODULUS));
+        Document drawnPosition = new Document("$add", Arrays.asList(TOP, new Document("$mod", Arrays.asList(
+                "$$state", new Document("$subtract", Arrays.asList(unorderedCards, TOP))))));
+        Document cardsBetween = new Document("$slice", Arrays.asList(
+                new Document("$slice", Arrays.asList(SHOE, DRAWN)),
+                new Document("$subtract", Arrays.asList(new Document("$add", Arrays.asList(TOP, 1)), DRAWN))));
+        Document cardsBelow = new Document("$slice", Arrays.asList(SHOE, new Document("$subtract",
+                Arrays.asList(new Document("$add", Arrays.asList(DRAWN, 1)), new Document("$size", SHOE)))));
+        Document swapped = new Document("$cond", Arrays.asList(
+                new Document("$eq", Arrays.asList(DRAWN, TOP)),
+                SHOE,
+                new Document("$concatArrays", Arrays.asList(
+                        new Document("$slice", Arrays.asList(SHOE, TOP)),
+                        new Document("$slice", Arrays.asList(SHOE, DRAWN, 1)),
+                        cardsBetween,
+                        new Document("$slice", Arrays.asList(SHOE, TOP, 1)),
+                        cardsBelow))));
+        Document draw = new Document("$let", new Document("vars", new Document("drawn", drawnPosition))
+                .append("in", new Document("shoe", swapped).append("state", "$$state")));
+
+        return new Document("$reduce", new Document("input", draws)
+                .append("initialValue", new Document("shoe", GAME_CARDS).append("state", firstState))
+                .append("in", new Document("$let", new Document("vars", new Document("state", nextState))
+                        .append("in", draw))));
+    }
+
+    /**
+     * The unordered cards left once the given number is dealt, null once the last of them is.
+     */
+    private static Document unorderedAfterDealing(Object numberOfCards) {
+        return whileUnorderedAfterDealing(numberOfCards,
+                new Document("$subtract", Arrays.asList(UNORDERED_CARDS, numberOfCards)));
+    }
+
+    /**
+     * The given value while unordered cards are left once the given number is dealt, null otherwise.
+     */
+    private static Document whileUnorderedAfterDealing(Object numberOfCards, Object value) {
+        return new Document("$cond", Arrays.asList(
+                new Document("$gt", Arrays.asList(UNORDERED_CARDS, numberOfCards)), value, null));
+    }
+
+    private static AggregationUpdate dealing(Document players, Object numberOfCards) {
+        Document drawCards = new Document("$set", new Document(DRAWING, drawingUnordered(numberOfCards)));
+        Document takeDrawnCards = new Document("$set", new Document("gameCards", "$" + DRAWING + ".shoe"));
+        Document dealToPlayers = new Document("$set", new Document("players", players)
+                .append("cardCounts", countsAfterDealing(numberOfCards)));
+        Document removeDealtCards = new Document("$set", new Document("gameCards", new Document("$slice",
+                Arrays.asList(GAME_CARDS, numberOfCards, new Document("$max", Arrays.asList(
+                        new Document("$size", GAME_CARDS), 1)))))
+                .append("unorderedCards", unorderedAfterDealing(numberOfCards))
+                .append("drawState", whileUnorderedAfterDealing(numberOfCards, "$" + DRAWING + ".state")));
+
+        return versioned(AggregationUpdate.from(Arrays.<AggregationOperation>asList(
+                context -> drawCards,
+                context -> takeDrawnCards,
+                context -> dealToPlayers,
+                context -> removeDealtCards)).unset(DRAWING));
+    }
+
+    /**
+     * The pipeline followed by the version increment. It goes through {@link AggregationUpdate#set} so
+     * the template sees the version as modified and doesn't append its own increment, which would
+     * leave the version null on games stored without one.
+     */
+    private static AggregationUpdate versioned(AggregationUpdate update) {
+        AggregationExpression nextVersion = context -> new Document("$add", Arrays.asList(
+                new Document("$ifNull", Arrays.asList("$" + VERSION, 0)), 1));
+        return update.set(SetOperation.set(VERSION).toValue(nextVersion));
+    }
+}
@@ -0,0 +1,388 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.CardsBySuit;
+import com.game.gamedeck.model.CardsBySuitAndValue;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.GameEvent;
+import com.game.gamedeck.model.GameSnapshot;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.repositories.GameRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link GameRepository} keeping each game as an append-only log of {@link GameEvent}s instead of a
+ * document rewritten by every change: a deal appends the seats receiving the cards and a shuffle its
+ * seed. A game is loaded from its latest {@link GameSnapshot} and the events after it; a new snapshot
+ * is written every {@code game.event-sourcing.snapshot-every} events.
+ * <p>
+ * The event sequence is the game version. An event is appended at the version after the one it was
+ * decided on, and the unique index on game id and sequence turns a concurrent append into a
+ * conflict: conditional writes then find nothing, the others throw
+ * {@link OptimisticLockingFailureException} for the caller to decide again on the game as it is now.
+ */
+@Repository
+@Profile("event-sourced")
+public class EventSourcedGameRepository implements GameRepository {
+
+    private final MongoTemplate mongoTemplate;
+    private final int snapshotEvery;
+
+    public EventSourcedGameRepository(MongoTemplate mongoTemplate,
+                                      @Value("${game.event-sourcing.snapshot-every:50}") int snapshotEvery) {
+        this.mongoTemplate = mongoTemplate;
+        this.snapshotEvery = Math.max(1, snapshotEvery);
+    }
+
+    @PostConstruct
+    public void createIndexes() {
+        mongoTemplate.indexOps(GameEvent.class).ensureIndex(new Index()
+                .on("gameId", Sort.Direction.ASC)
+                .on("sequence", Sort.Direction.ASC)
+                .unique());
+    }
+
+    @Override
+    public Optional<Game> save(Game game) {
+        game.setId(game.getId() == null ? new ObjectId().toHexString() : game.getId());
+        GameEvent gameCreated = GameEvent.gameCreated(
+                game.getPlayers().stream().map(Player::getName).collect(Collectors.toList()), GameDeals.cardsOf(game));
+        gameCreated.setGameId(game.getId());
+        mongoTemplate.insert(gameCreated);
+
+        Game createdGame = new Game();
+        gameCreated.applyTo(createdGame);
+        mongoTemplate.insert(new GameSnapshot(game.getId(), gameCreated.getSequence(), createdGame));
+
+        createdGame.setCardCounts(createdGame.getGameCards().countByCard());
+        return Optional.of(createdGame);
+    }
+
+    @Override
+    public Optional<Game> delete(String gameId) {
+        Optional<Game> deletedGame = appendToCurrent(gameId, game -> Optional.of(GameEvent.gameDeleted()));
+        deletedGame.ifPresent(game -> mongoTemplate.remove(GameQueries.byId(gameId), GameSnapshot.class));
+        return deletedGame;
+    }
+
+    @Override
+    public Optional<Game> findById(String gameId) {
+        return load(gameId);
+    }
+
+    @Override
+    public List<Game> findPage(String afterId, int limit, boolean includeGameCards) {
+        Query snapshots = new Query().with(Sort.by("_id")).limit(limit);
+        if (afterId != null) {
+            snapshots.addCriteria(Criteria.where("_id").gt(afterId));
+        }
+        return mongoTemplate.find(snapshots, GameSnapshot.class).stream()
+                .map(this::replay)
+                .filter(Optional::isPresent)
+                .map(game -> withGameCardsUnless(includeGameCards, game.get()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Game> streamAll(boolean includeGameCards) {
+        return mongoTemplate.stream(new Query(), GameSnapshot.class)
+                .map(this::replay)
+                .filter(Optional::isPresent)
+                .map(game -> withGameCardsUnless(includeGameCards, game.get()));
+    }
+
+    @Override
+    public Optional<Game> findGameOnlyWithCards(String gameId) {
+        return load(gameId).map(game -> {
+            Game projection = new Game();
+            projection.setGameCards(game.getGameCards());
+            projection.setShuffleSeed(game.getShuffleSeed());
+            projection.setVersion(game.getVersion());
+            return projection;
+        });
+    }
+
+    /**
+     * The sequence of the last event of the game, read alone from the event log.
+     */
+    @Override
+    public Optional<Long> findVersion(String gameId) {
+        Query lastEvent = Query.query(Criteria.where("gameId").is(gameId))
+                .with(Sort.by(Sort.Direction.DESC, "sequence"))
+                .limit(1);
+        lastEvent.fields().include("sequence").include("type");
+        return Optional.ofNullable(mongoTemplate.findOne(lastEvent, GameEvent.class))
+                .filter(event -> event.getType() != GameEvent.Type.GAME_DELETED)
+                .map(GameEvent::getSequence);
+    }
+
+    @Override
+    public Optional<Game> findGameOnlyWithPlayer(String gameId, String playerName) {
+        return load(gameId).flatMap(game -> game.getPlayers().stream()
+                .filter(player -> player.getName().equals(playerName))
+                .findFirst()
+                .map(player -> {
+                    Game projection = new Game();
+                    projection.getPlayers().add(player);
+                    return projection;
+                }));
+    }
+
+    @Override
+    public Optional<Game> findGameOnlyWithPlayers(String gameId) {
+        return load(gameId).map(game -> {
+            Game projection = new Game();
+            projection.setPlayers(game.getPlayers());
+            projection.setVersion(game.getVersion());
+            return projection;
+        });
+    }
+
+    @Override
+    public Optional<Game> findGameOnlyWithPlayerTotals(String gameId) {
+        return load(gameId).map(CachingGameRepository::withPlayerTotalsOnly);
+    }
+
+    @Override
+    public boolean isPlayerExists(String gameId, String playerName) {
+        return findGameOnlyWithPlayer(gameId, playerName).isPresent();
+    }
+
+    @Override
+    public Optional<Game> updateGameCards(String gameId, Long version, CardStack cards) {
+        return appendAt(gameId, version, GameEvent.cardsReplaced(cards));
+    }
+
+    @Override
+    public Optional<Game> shuffleCards(String gameId, Long version, long seed, CardStack shuffledCards) {
+        return appendAt(gameId, version, GameEvent.cardsShuffled(seed));
+    }
+
+    /**
+     * Appends a shuffle with the seed instead, so a shuffle on draw reorders the whole shoe here, when
+     * the event is applied, rather than leaving it unordered for each deal to draw from. Dealt cards are
+     * as random either way, but their order is fixed by the seed at the shuffle, and the game never
+     * has unordered cards. Recording the shuffle takes a single small event already, and the deals
+     * after it can then be replayed from the top of the shoe.
+     */
+    @Override
+    public Optional<Game> markCardsUnordered(String gameId, long seed) {
+        return appendToCurrent(gameId, game -> Optional.of(GameEvent.cardsShuffled(seed)));
+    }
+
+    @Override
+    public Optional<Game> addNewPlayer(String gameId, String playerName) {
+        return appendToCurrent(gameId, game -> game.getPlayers().stream()
+                .noneMatch(player -> player.getName().equals(playerName))
+                ? Optional.of(GameEvent.playerAdded(playerName))
+                : Optional.empty());
+    }
+
+    @Override
+    public Optional<Game> addNewDeck(String gameId, CardStack cards) {
+        return appendToCurrent(gameId, game -> Optional.of(GameEvent.deckAdded(cards)));
+    }
+
+    @Override
+    public Optional<Game> removePlayer(String gameId, String playerName) {
+        return appendToCurrent(gameId, game -> game.getPlayers().stream()
+                .anyMatch(player -> player.getName().equals(playerName))
+                ? Optional.of(GameEvent.playerRemoved(playerName))
+                : Optional.empty());
+    }
+
+    @Override
+    public Optional<Game> dealTopCard(String gameId, String playerName) {
+        return appendToCurrent(gameId, game -> {
+            List<Integer> seats = seatsNamedIgnoringCase(game, playerName);
+            if (seats.isEmpty() || game.getGameCards().isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(GameEvent.cardsDealt(Collections.singletonList(seats)));
+        });
+    }
+
+    @Override
+    public Optional<Game> dealCardsToEachPlayer(String gameId, int cardsPerPlayer) {
+        return appendToCurrent(gameId, game -> {
+            int numberOfPlayers = game.getPlayers().size();
+            if (numberOfPlayers == 0 || game.getGameCards().size() < cardsPerPlayer * numberOfPlayers) {
+                return Optional.empty();
+            }
+            List<List<Integer>> seats = new ArrayList<>();
+            for (int round = 0; round < cardsPerPlayer; round++) {
+                IntStream.range(0, numberOfPlayers).forEach(seat -> seats.add(Collections.singletonList(seat)));
+            }
+            return Optional.of(GameEvent.cardsDealt(seats));
+        });
+    }
+
+    @Override
+    public Optional<Game> dealCards(String gameId, Map<String, Integer> cardsByPlayer) {
+        int numberOfCards = cardsByPlayer.values().stream().mapToInt(Integer::intValue).sum();
+        int rounds = cardsByPlayer.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+
+        return appendToCurrent(gameId, game -> {
+            List<List<Integer>> seatsByPlayer = new ArrayList<>();
+            for (String playerName : cardsByPlayer.keySet()) {
+                List<Integer> seats = seatsNamedIgnoringCase(game, playerName);
+                if (seats.isEmpty()) {
+                    return Optional.empty();
+                }
+                seatsByPlayer.add(seats);
+            }
+            if (game.getGameCards().size() < numberOfCards) {
+                return Optional.empty();
+            }
+            List<Integer> cardsOfPlayers = new ArrayList<>(cardsByPlayer.values());
+            List<List<Integer>> seats = new ArrayList<>();
+            for (int round = 0; round < rounds; round++) {
+                for (int i = 0; i < cardsOfPlayers.size(); i++) {
+                    if (cardsOfPlayers.get(i) > round) {
+                        seats.add(seatsByPlayer.get(i));
+                    }
+                }
+            }
+            return Optional.of(GameEvent.cardsDealt(seats));
+        });
+    }
+
+    @Override
+    public List<CardsBySuit> countRemainingCardsBySuit(String gameId) {
+        return CardCounts.bySuit(CardCounts.of(load(gameId).orElse(null)));
+    }
+
+    @Override
+    public List<CardsBySuitAndValue> countRemainingCardsSorted(String gameId, Sort sort) {
+        return CardCounts.sorted(CardCounts.of(load(gameId).orElse(null)), sort);
+    }
+
+    /**
+     * Card counters and player totals are derived while replaying, so there is nothing to rebuild.
+     */
+    @Override
+    public long rebuildCardCounts() {
+        return 0;
+    }
+
+    private Optional<Game> load(String gameId) {
+        GameSnapshot snapshot = gameId == null ? null : mongoTemplate.findById(gameId, GameSnapshot.class);
+        return snapshot == null ? Optional.empty() : replay(snapshot);
+    }
+
+    /**
+     * The game of the snapshot with the events after it applied, or nothing once it was deleted.
+     */
+    private Optional<Game> replay(GameSnapshot snapshot) {
+        Game game = snapshot.getGame();
+        Query laterEvents = Query.query(Criteria.where("gameId").is(snapshot.getGameId())
+                .and("sequence").gt(snapshot.getSequence()))
+                .with(Sort.by("sequence"));
+        for (GameEvent event : mongoTemplate.find(laterEvents, GameEvent.class)) {
+            if (event.getType() == GameEvent.Type.GAME_DELETED) {
+                return Optional.empty();
+            }
+            event.applyTo(game);
+        }
+        game.setCardCounts(game.getGameCards().countByCard());
+        return Optional.of(game);
+    }
+
+    /**
+     * Appends the event as long as the game is still at the given version.
+     */
+    private Optional<Game> appendAt(String gameId, Long version, GameEvent event) {
+        return load(gameId)
+                .filter(game -> Objects.equals(game.getVersion(), version))
+                .flatMap(game -> append(game, event));
+    }
+
+    /**
+     * Appends the event decided on the current game, or appends nothing when the game is missing or
+     * the decision is to leave it. Throws {@link OptimisticLockingFailureException} when another event
+     * got appended first, leaving the caller to decide again.
+     */
+    private Optional<Game> appendToCurrent(String gameId, Function<Game, Optional<GameEvent>> decision) {
+        Optional<Game> game = load(gameId);
+        if (!game.isPresent()) {
+            return Optional.empty();
+        }
+        Optional<GameEvent> event = decision.apply(game.get().copy());
+        if (!event.isPresent()) {
+            return Optional.empty();
+        }
+        Long version = game.get().getVersion();
+        return Optional.of(append(game.get(), event.get()).orElseThrow(() -> new OptimisticLockingFailureException(
+                "Game " + gameId + " changed since version " + version)));
+    }
+
+    /**
+     * Appends the event after the last one applied to the game, and returns the game with it applied,
+     * or nothing when another event took its sequence first.
+     */
+    private Optional<Game> append(Game game, GameEvent event) {
+        event.setGameId(game.getId());
+        event.setSequence(game.getVersion() + 1);
+        try {
+            mongoTemplate.insert(event);
+        } catch (DuplicateKeyException e) {
+            return Optional.empty();
+        }
+
+        event.applyTo(game);
+        game.setCardCounts(game.getGameCards().countByCard());
+        if (event.getSequence() % snapshotEvery == 0 && event.getType() != GameEvent.Type.GAME_DELETED) {
+            snapshot(game);
+        }
+        return Optional.of(game);
+    }
+
+    /**
+     * Moves the game snapshot forward to the game, unless a later one was written meanwhile.
+     */
+    private void snapshot(Game game) {
+        Game snapshotGame = game.copy();
+        snapshotGame.setCardCounts(null);
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(game.getId()).and("sequence").lt(game.getVersion())),
+                Update.update("sequence", game.getVersion()).set("game", snapshotGame),
+                GameSnapshot.class);
+    }
+
+    private Game withGameCardsUnless(boolean includeGameCards, Game game) {
+        if (!includeGameCards) {
+            game.setGameCards(new CardStack());
+        }
+        return game;
+    }
+
+    private List<Integer> seatsNamedIgnoringCase(Game game, String playerName) {
+        return IntStream.range(0, game.getPlayers().size())
+                .filter(seat -> game.getPlayers().get(seat).getName().equalsIgnoreCase(playerName))
+                .boxed()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,187 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardEnum;
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.model.VirtualShoe;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Changes to the shoe of a game applied in process, on the game itself, whether the shoe holds its
+ * cards or is virtual. Each change returns whether it applied; when it didn't, the game is untouched.
+ */
+class GameDeals {
+
+    /**
+     * The Lehmer generator drawing the unordered cards, multiplier 48271 modulo 2^31 - 1. Its products
+     * fit in a long, so an update pipeline draws the same cards as {@link #nextDrawState(long)}.
+     */
+    static final long DRAW_MULTIPLIER = 48271;
+    static final long DRAW_MODULUS = Integer.MAX_VALUE;
+
+    /**
+     * Where the draws of shoes left unordered before their draws were seeded carry on from.
+     */
+    static final long UNSEEDED_DRAW_STATE = 1;
+
+    private GameDeals() {
+    }
+
+    static boolean dealTopCard(Game game, String playerName) {
+        List<Player> players = playersNamedIgnoringCase(game, playerName);
+        if (players.isEmpty() || sizeOf(game) == 0) {
+            return false;
+        }
+        deal(takeTopCard(game), players);
+        return true;
+    }
+
+    static boolean dealCardsToEachPlayer(Game game, int cardsPerPlayer) {
+        List<Player> players = game.getPlayers();
+        if (players.isEmpty() || sizeOf(game) < cardsPerPlayer * players.size()) {
+            return false;
+        }
+        for (int round = 0; round < cardsPerPlayer; round++) {
+            players.forEach(player -> player.addCard(takeTopCard(game)));
+        }
+        return true;
+    }
+
+    static boolean dealCards(Game game, Map<String, Integer> cardsByPlayer) {
+        int numberOfCards = cardsByPlayer.values().stream().mapToInt(Integer::intValue).sum();
+        int rounds = cardsByPlayer.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+
+        Map<String, List<Player>> playersByName = new HashMap<>();
+        for (String playerName : cardsByPlayer.keySet()) {
+            List<Player> players = playersNamedIgnoringCase(game, playerName);
+            if (players.isEmpty()) {
+                return false;
+            }
+            playersByName.put(playerName, players);
+        }
+        if (sizeOf(game) < numberOfCards) {
+            return false;
+        }
+        for (int round = 0; round < rounds; round++) {
+            for (Map.Entry<String, Integer> cardsOfPlayer : cardsByPlayer.entrySet()) {
+                if (cardsOfPlayer.getValue() > round) {
+                    deal(takeTopCard(game), playersByName.get(cardsOfPlayer.getKey()));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the cards to the bottom of the shoe. A virtual shoe takes whole decks in order as they are,
+     * and turns into the cards it holds for anything else.
+     */
+    static void addCards(Game game, CardStack cards) {
+        VirtualShoe virtualShoe = game.getVirtualShoe();
+        int decks = cards.size() / CardEnum.values().length;
+        if (virtualShoe != null && cards.equals(CardStack.ofDecks(decks))) {
+            virtualShoe.addDecks(decks);
+        } else {
+            if (virtualShoe != null) {
+                game.setGameCards(virtualShoe.toCardStack());
+                game.setVirtualShoe(null);
+            }
+            game.getGameCards().addAll(cards);
+        }
+
+        int[] addedCounts = cards.countByCard();
+        for (int code = 0; code < addedCounts.length; code++) {
+            game.getCardCounts()[code] += addedCounts[code];
+        }
+    }
+
+    /**
+     * Shuffles a virtual shoe with the seed, or leaves the cards of any other shoe unordered, to be
+     * drawn as they are dealt by a generator started from the seed. Either way the seed is recorded
+     * as the game's shuffle seed.
+     */
+    static void markUnordered(Game game, long seed) {
+        if (game.getVirtualShoe() != null) {
+            game.getVirtualShoe().shuffle(seed);
+        } else {
+            game.setUnorderedCards(game.getGameCards().size());
+            game.setDrawState(firstDrawState(seed));
+        }
+        game.setShuffleSeed(seed);
+    }
+
+    /**
+     * The state the draws of a shoe left unordered with the given seed start from, in [1, 2^31 - 2].
+     */
+    static long firstDrawState(long seed) {
+        return 1 + Math.floorMod(seed, DRAW_MODULUS - 1);
+    }
+
+    static long nextDrawState(long drawState) {
+        return drawState * DRAW_MULTIPLIER % DRAW_MODULUS;
+    }
+
+    static int sizeOf(Game game) {
+        return game.getVirtualShoe() != null ? game.getVirtualShoe().size() : game.getGameCards().size();
+    }
+
+    /**
+     * A copy of the cards left in the shoe, top first.
+     */
+    static CardStack cardsOf(Game game) {
+        return game.getVirtualShoe() != null ? game.getVirtualShoe().toCardStack() : game.getGameCards().copy();
+    }
+
+    static int[] countByCard(Game game) {
+        return game.getVirtualShoe() != null ? game.getVirtualShoe().countByCard() : game.getGameCards().countByCard();
+    }
+
+    /**
+     * The game with the cards of its virtual shoe, if it has one, laid out in its game cards, as read
+     * by callers. Games with a virtual shoe are stored without them.
+     */
+    static Game withShoeCards(Game game) {
+        if (game != null && game.getVirtualShoe() != null) {
+            game.setGameCards(game.getVirtualShoe().toCardStack());
+        }
+        return game;
+    }
+
+    /**
+     * Removes the top card from the shoe, after swapping it with an unordered card drawn by the
+     * generator if the top of the shoe is unordered.
+     */
+    private static CardEnum takeTopCard(Game game) {
+        CardEnum card;
+        if (game.getVirtualShoe() != null) {
+            card = game.getVirtualShoe().deal();
+        } else {
+            Integer unorderedCards = game.getUnorderedCards();
+            if (unorderedCards != null) {
+                long drawState = nextDrawState(game.getDrawState() != null
+                        ? game.getDrawState() : UNSEEDED_DRAW_STATE);
+                game.getGameCards().swap(0, (int) (drawState % unorderedCards));
+                game.setUnorderedCards(unorderedCards > 1 ? unorderedCards - 1 : null);
+                game.setDrawState(unorderedCards > 1 ? drawState : null);
+            }
+            card = game.getGameCards().removeFirst();
+        }
+        game.getCardCounts()[card.getCode()]--;
+        return card;
+    }
+
+    private static void deal(CardEnum card, List<Player> players) {
+        players.forEach(player -> player.addCard(card));
+    }
+
+    private static List<Player> playersNamedIgnoringCase(Game game, String playerName) {
+        return game.getPlayers().stream()
+                .filter(player -> player.getName().equalsIgnoreCase(playerName))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,43 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.Game;
+import com.mongodb.MongoClientSettings;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the size of each game document saved whole, as encoded in BSON, in {@value #DOCUMENT_SIZE}.
+ * Saves are rare next to the partial updates of games, so encoding the document once more to measure
+ * it costs little; the partial updates and projected reads are not measured.
+ */
+@Component
+public class GameDocumentSizes extends AbstractMongoEventListener<Game> {
+
+    static final String DOCUMENT_SIZE = "game.document.size";
+
+    private static final Codec<Document> DOCUMENT_CODEC = MongoClientSettings.getDefaultCodecRegistry()
+            .get(Document.class);
+
+    private final DistributionSummary documentSizes;
+
+    public GameDocumentSizes(MeterRegistry meterRegistry) {
+        this.documentSizes = DistributionSummary.builder(DOCUMENT_SIZE)
+                .description("Size of the game documents saved")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Game> event) {
+        Document document = event.getDocument();
+        if (document != null) {
+            documentSizes.record(new RawBsonDocument(document, DOCUMENT_CODEC).getByteBuffer().remaining());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.GameField;
+import com.game.gamedeck.model.Player;
+import com.mongodb.BasicDBObject;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Queries and updates shared by the blocking and the reactive Mongo game repositories, so both
+ * read and change the game documents in exactly the same way.
+ */
+class GameQueries {
+
+    static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private GameQueries() {
+    }
+
+    static Query byId(String gameId) {
+        return Query.query(Criteria.where("_id").is(gameId));
+    }
+
+    /**
+     * The game, as long as no write changed it since it was read at the given version.
+     */
+    static Query byIdAndVersion(String gameId, Long version) {
+        return Query.query(Criteria.where("_id").is(gameId).and("version").is(version));
+    }
+
+    static Query page(String afterId, int limit, boolean includeGameCards) {
+        Query query = new Query().with(Sort.by("_id")).limit(limit);
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("_id").gt(ObjectId.isValid(afterId) ? new ObjectId(afterId) : afterId));
+        }
+        return excludeGameCardsUnless(includeGameCards, query);
+    }
+
+    static Query all(boolean includeGameCards) {
+        return excludeGameCardsUnless(includeGameCards, new Query());
+    }
+
+    static Query onlyWithPlayer(String gameId, String playerName) {
+        Criteria filterById = Criteria.where("_id").is(gameId);
+        Criteria filterByPlayersName = Criteria.where("players.name").is(playerName);
+
+        Query query = Query.query(filterById.andOperator(filterByPlayersName));
+        query.fields().include("players.$").exclude("_id");
+        return query;
+    }
+
+    static Query onlyWithCards(String gameId) {
+        return onlyWith(byId(gameId), "gameCards", "virtualShoe", "shuffleSeed", "version");
+    }
+
+    static Query onlyWithVersion(String gameId) {
+        return onlyWith(byId(gameId), "version");
+    }
+
+    static Query onlyWithPlayers(String gameId) {
+        return onlyWith(byId(gameId), "players", "version");
+    }
+
+    static Query onlyWithPlayerTotals(String gameId) {
+        return onlyWith(byId(gameId), "players.name", "players.total", "players.numberOfCards");
+    }
+
+    static Query onlyWithCardCounts(String gameId) {
+        return onlyWith(byId(gameId), "cardCounts");
+    }
+
+    static Query onlyWith(String gameId, Set<GameField> fields) {
+        return onlyWith(byId(gameId), paths(fields));
+    }
+
+    static Query page(String afterId, int limit, Set<GameField> fields) {
+        return onlyWith(page(afterId, limit, true), paths(fields));
+    }
+
+    /**
+     * Reads only the given paths of the game document, leaving out the id unless it is one of them. A
+     * path under another one is left to it, as Mongo rejects projecting both.
+     */
+    static Query onlyWith(Query query, String... paths) {
+        List<String> included = Arrays.asList(paths);
+        for (String path : paths) {
+            if (included.stream().noneMatch(other -> path.startsWith(other + "."))) {
+                query.fields().include(path);
+            }
+        }
+        if (!included.contains("_id")) {
+            query.fields().exclude("_id");
+        }
+        return query;
+    }
+
+    static Query withVirtualShoe(String gameId) {
+        return Query.query(Criteria.where("_id").is(gameId).and("virtualShoe").ne(null));
+    }
+
+    static Query withoutVirtualShoe(String gameId) {
+        return Query.query(Criteria.where("_id").is(gameId).and("virtualShoe").is(null));
+    }
+
+    static Query withPlayer(String gameId, String playerName) {
+        return Query.query(Criteria.where("_id").is(gameId).and("players.name").is(playerName));
+    }
+
+    /**
+     * The game, as long as it has no player of the given name yet.
+     */
+    static Query withoutPlayer(String gameId, String playerName) {
+        return Query.query(Criteria.where("_id").is(gameId).and("players.name").ne(playerName));
+    }
+
+    /**
+     * The game, as long as it has the player, matched as {@link DealPipelines#dealTopCard(String)} does,
+     * and a card left to deal.
+     */
+    static Query withTopCardFor(String gameId, String playerName) {
+        return Query.query(Criteria.where("_id").is(gameId)
+                .and("gameCards").exists(true).not().size(0)
+                .and("$expr").is(DealPipelines.hasPlayersNamed(List.of(playerName))));
+    }
+
+    /**
+     * The game, as long as it has players and enough cards to deal the given number to each.
+     */
+    static Query withCardsForEachPlayer(String gameId, int cardsPerPlayer) {
+        Document cardsToDeal = new Document("$multiply",
+                Arrays.asList(cardsPerPlayer, DealPipelines.numberOfPlayers()));
+        return Query.query(Criteria.where("_id").is(gameId)
+                .and("players").exists(true).not().size(0)
+                .and("$expr").is(DealPipelines.hasAtLeastCards(cardsToDeal)));
+    }
+
+    /**
+     * The game, as long as it has all the players, matched as {@link DealPipelines#dealPositions} does,
+     * and the given number of cards.
+     */
+    static Query withCardsForPlayers(String gameId, List<String> playerNames, int numberOfCards) {
+        return Query.query(Criteria.where("_id").is(gameId)
+                .and("$expr").is(new Document("$and", Arrays.asList(
+                        DealPipelines.hasPlayersNamed(playerNames), DealPipelines.hasAtLeastCards(numberOfCards)))));
+    }
+
+    /**
+     * The shoe positions dealt to each of the named players, one card per player and round, in the
+     * given order. The result holds one list of positions per player name.
+     */
+    static List<List<Integer>> dealPositions(List<String> playerNames, Map<String, Integer> cardsByPlayer) {
+        List<List<Integer>> positions = new ArrayList<>();
+        playerNames.forEach(playerName -> positions.add(new ArrayList<>()));
+
+        int numberOfCards = 0;
+        int rounds = cardsByPlayer.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        for (int round = 0; round < rounds; round++) {
+            for (int seat = 0; seat < playerNames.size(); seat++) {
+                if (cardsByPlayer.get(playerNames.get(seat)) > round) {
+                    positions.get(seat).add(numberOfCards++);
+                }
+            }
+        }
+        return positions;
+    }
+
+    static Update settingGameCards(CardStack cards) {
+        return Update.update("gameCards", cards)
+                .set("cardCounts", Arrays.stream(cards.countByCard()).boxed().collect(Collectors.toList()))
+                .unset("unorderedCards")
+                .unset("drawState")
+                .unset("virtualShoe");
+    }
+
+    static Update settingShuffledCards(CardStack cards, long seed) {
+        return settingGameCards(cards).set("shuffleSeed", seed);
+    }
+
+    /**
+     * Writes back the shoe, card counters and players of a game changed in process, and the seed of
+     * its last shuffle.
+     */
+    static Update settingShoe(Game game) {
+        return Update.update("gameCards", game.getGameCards())
+                .set("virtualShoe", game.getVirtualShoe())
+                .set("shuffleSeed", game.getShuffleSeed())
+                .set("cardCounts", Arrays.stream(game.getCardCounts()).boxed().collect(Collectors.toList()))
+                .set("players", game.getPlayers());
+    }
+
+    static Update addingPlayer(String playerName) {
+        return new Update().push("players", new Player(playerName));
+    }
+
+    static Update removingPlayer(String playerName) {
+        return new Update().pull("players", new BasicDBObject("name", playerName));
+    }
+
+    static Query excludeGameCardsUnless(boolean includeGameCards, Query query) {
+        if (!includeGameCards) {
+            query.fields().exclude("gameCards").exclude("virtualShoe");
+        }
+        return query;
+    }
+
+    private static String[] paths(Set<GameField> fields) {
+        return fields.stream().flatMap(field -> field.getPaths().stream()).toArray(String[]::new);
+    }
+}
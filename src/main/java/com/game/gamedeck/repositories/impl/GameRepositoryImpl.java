@@ -2,158 +2,278 @@ package com.game.gamedeck.repositories.impl;
 
 import com.game.gamedeck.model.*;
 import com.game.gamedeck.repositories.GameRepository;
-import com.mongodb.BasicDBObject;
+import com.game.gamedeck.repositories.converters.CardStackWriteConverter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.aggregation.Aggregation;
-import org.springframework.data.mongodb.core.aggregation.AggregationResults;
-import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-import java.util.Optional;
-
-import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
+@Profile("!in-memory & !event-sourced")
 public class GameRepositoryImpl implements GameRepository {
 
     public static final String GAME = "game";
     public static final String ID = "id";
-    private static final FindAndModifyOptions FIND_AND_MODIFY_OPTIONS_RETURN_TRUE = FindAndModifyOptions
-            .options().returnNew(true);
+    private static final CardStackWriteConverter CARD_STACK_WRITER = new CardStackWriteConverter();
 
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Value("${game.shoe.virtual:false}")
+    private boolean virtualShoes;
+
     @Override
     public Optional<Game> save(Game game) {
-        return Optional.ofNullable(mongoTemplate.save(game, GAME));
+        game.setCardCounts(GameDeals.countByCard(game));
+        return Optional.ofNullable(mongoTemplate.save(game, GAME)).map(GameDeals::withShoeCards);
     }
 
     @Override
     public Optional<Game> delete(String gameId) {
-        Query query = Query.query(Criteria.where("_id").is(gameId));
-        Game removedGame = mongoTemplate.findAndRemove(query, Game.class);
+        Game removedGame = mongoTemplate.findAndRemove(GameQueries.byId(gameId), Game.class);
         return Optional.ofNullable(removedGame);
     }
 
     @Override
     public Optional<Game> findById(String gameId) {
-        Game game = mongoTemplate
-                .findOne(Query.query(Criteria.where(ID).is(gameId)), Game.class);
-        return Optional.ofNullable(game);
+        Game game = mongoTemplate.findOne(GameQueries.byId(gameId), Game.class);
+        return Optional.ofNullable(game).map(GameDeals::withShoeCards);
     }
 
     @Override
-    public List<Game> findAll() {
-        return mongoTemplate.findAll(Game.class);
+    public List<Game> findPage(String afterId, int limit, boolean includeGameCards) {
+        return mongoTemplate.find(GameQueries.page(afterId, limit, includeGameCards), Game.class).stream()
+                .map(GameDeals::withShoeCards)
+                .collect(Collectors.toList());
     }
 
     @Override
-    public Optional<Game> findGameOnlyWithPlayer(String gameId, String playerName) {
-        Criteria filterById = Criteria.where("_id").is(gameId);
-        Criteria filterByPlayersName = Criteria.where("players.name").is(playerName);
+    public Stream<Game> streamAll(boolean includeGameCards) {
+        return mongoTemplate.stream(GameQueries.all(includeGameCards), Game.class)
+                .map(GameDeals::withShoeCards);
+    }
 
-        Query query = Query.query(filterById.andOperator(filterByPlayersName));
-        query.fields().include("players.$").exclude("_id");
+    @Override
+    public Optional<Long> findVersion(String gameId) {
+        Game game = mongoTemplate.findOne(GameQueries.onlyWithVersion(gameId), Game.class);
+        return Optional.ofNullable(game).map(Game::getVersion);
+    }
 
-        Game game = mongoTemplate.findOne(query, Game.class);
+    @Override
+    public Optional<Game> findGameOnlyWithPlayer(String gameId, String playerName) {
+        Game game = mongoTemplate.findOne(GameQueries.onlyWithPlayer(gameId, playerName), Game.class);
         return Optional.ofNullable(game);
     }
 
     @Override
     public Optional<Game> findGameOnlyWithCards(String gameId) {
-        Query query = Query.query(Criteria.where("_id").is(gameId));
-        query.fields().include("gameCards").exclude("_id");
+        Game game = mongoTemplate.findOne(GameQueries.onlyWithCards(gameId), Game.class);
+        return Optional.ofNullable(game).map(GameDeals::withShoeCards);
+    }
 
-        Game game = mongoTemplate.findOne(query, Game.class);
-        return Optional.ofNullable(game);
+    @Override
+    public Optional<Game> findGameOnlyWith(String gameId, Set<GameField> fields) {
+        Game game = mongoTemplate.findOne(GameQueries.onlyWith(gameId, fields), Game.class);
+        return Optional.ofNullable(game).map(GameDeals::withShoeCards);
+    }
+
+    @Override
+    public List<Game> findPage(String afterId, int limit, Set<GameField> fields) {
+        return mongoTemplate.find(GameQueries.page(afterId, limit, fields), Game.class).stream()
+                .map(GameDeals::withShoeCards)
+                .collect(Collectors.toList());
     }
 
     @Override
     public Optional<Game> findGameOnlyWithPlayers(String gameId) {
-        Query query = Query.query(Criteria.where("_id").is(gameId));
-        query.fields().include("players").exclude("_id");
+        Game game = mongoTemplate.findOne(GameQueries.onlyWithPlayers(gameId), Game.class);
+        return Optional.ofNullable(game);
+    }
 
-        Game game = mongoTemplate.findOne(query, Game.class);
+    @Override
+    public Optional<Game> findGameOnlyWithPlayerTotals(String gameId) {
+        Game game = mongoTemplate.findOne(GameQueries.onlyWithPlayerTotals(gameId), Game.class);
         return Optional.ofNullable(game);
     }
 
     @Override
     public boolean isPlayerExists(String gameId, String playerName) {
-        Query query = Query.query(Criteria.where("_id").is(gameId).and("players.name").is(playerName));
-        return mongoTemplate.exists(query, Game.class);
+        return mongoTemplate.exists(GameQueries.withPlayer(gameId, playerName), Game.class);
     }
 
-    public Optional<Game> updateGameCards(String gameId, List<Card> cards) {
-        Query query = Query.query(Criteria.where("_id").is(gameId));
-        Update update = Update.update("gameCards", cards);
+    public Optional<Game> updateGameCards(String gameId, Long version, CardStack cards) {
+        Game updatedGame = mongoTemplate.findAndModify(GameQueries.byIdAndVersion(gameId, version),
+                GameQueries.settingGameCards(cards), GameQueries.RETURN_NEW, Game.class);
+        return Optional.ofNullable(updatedGame);
+    }
 
-        Game updatedGame = mongoTemplate.findAndModify(query, update,
-                FIND_AND_MODIFY_OPTIONS_RETURN_TRUE, Game.class);
+    @Override
+    public Optional<Game> shuffleCards(String gameId, Long version, long seed, CardStack shuffledCards) {
+        Game updatedGame = mongoTemplate.findAndModify(GameQueries.byIdAndVersion(gameId, version),
+                GameQueries.settingShuffledCards(shuffledCards, seed), GameQueries.RETURN_NEW, Game.class);
         return Optional.ofNullable(updatedGame);
     }
 
+    @Override
+    public Optional<Game> markCardsUnordered(String gameId, long seed) {
+        return changingShoe(gameId, true, game -> {
+            GameDeals.markUnordered(game, seed);
+            return true;
+        }, query -> mongoTemplate.findAndModify(query.apply(GameQueries.withoutVirtualShoe(gameId)),
+                DealPipelines.markUnordered(seed), GameQueries.RETURN_NEW, Game.class));
+    }
+
     public Optional<Game> addNewPlayer(String gameId, String playerName) {
-        Query query = Query.query(Criteria.where("_id").is(gameId));
-        Update update = new Update().push("players", new Player(playerName));
+        return addNewPlayer(gameId, playerName, true);
+    }
 
-        Game updatedGame =  mongoTemplate.findAndModify(query, update,
-                FIND_AND_MODIFY_OPTIONS_RETURN_TRUE, Game.class);
+    @Override
+    public Optional<Game> addNewPlayer(String gameId, String playerName, boolean includeGameCards) {
+        Game updatedGame = mongoTemplate.findAndModify(
+                GameQueries.excludeGameCardsUnless(includeGameCards, GameQueries.withoutPlayer(gameId, playerName)),
+                GameQueries.addingPlayer(playerName), GameQueries.RETURN_NEW, Game.class);
 
-        return Optional.ofNullable(updatedGame);
+        return Optional.ofNullable(updatedGame).map(GameDeals::withShoeCards);
     }
 
     public Optional<Game> removePlayer(String gameId, String playerName) {
-        Query query = Query.query(Criteria.where("_id").is(gameId).and("players.name").is(playerName));
-        Update update = new Update().pull("players", new BasicDBObject("name", playerName));
+        return removePlayer(gameId, playerName, true);
+    }
 
-        Game updatedGame = mongoTemplate.findAndModify(query, update,
-                FIND_AND_MODIFY_OPTIONS_RETURN_TRUE, Game.class);
-        return Optional.ofNullable(updatedGame);
+    @Override
+    public Optional<Game> removePlayer(String gameId, String playerName, boolean includeGameCards) {
+        Game updatedGame = mongoTemplate.findAndModify(
+                GameQueries.excludeGameCardsUnless(includeGameCards, GameQueries.withPlayer(gameId, playerName)),
+                GameQueries.removingPlayer(playerName), GameQueries.RETURN_NEW, Game.class);
+        return Optional.ofNullable(updatedGame).map(GameDeals::withShoeCards);
     }
 
     @Override
-    public Optional<Game> addNewDeck(String gameId, List<Card> cards) {
-        Query query = Query.query(Criteria.where("_id").is(gameId));
-        Update update = new Update().push("gameCards").each(cards);
+    public Optional<Game> addNewDeck(String gameId, CardStack cards) {
+        return addNewDeck(gameId, cards, true);
+    }
 
-        Game updatedGame = mongoTemplate.findAndModify(query, update,
-                FIND_AND_MODIFY_OPTIONS_RETURN_TRUE, Game.class);
-        return Optional.ofNullable(updatedGame);
+    @Override
+    public Optional<Game> addNewDeck(String gameId, CardStack cards, boolean includeGameCards) {
+        AggregationUpdate update = DealPipelines.addCards(CARD_STACK_WRITER.convert(cards), cards.countByCard());
+
+        return changingShoe(gameId, includeGameCards, game -> {
+            GameDeals.addCards(game, cards);
+            return true;
+        }, query -> mongoTemplate.findAndModify(query.apply(GameQueries.withoutVirtualShoe(gameId)), update,
+                GameQueries.RETURN_NEW, Game.class));
     }
 
-    public List<CardsBySuit> countRemainingCardsBySuit(String gameId) {
-        Aggregation agg = newAggregation(
-                match(Criteria.where("_id").is(gameId)),
-                unwind("gameCards"),
-                group("gameCards.suit").count().as("total"),
-                project("total").and("suit").previousOperation()
-        );
+    @Override
+    public Optional<Game> dealTopCard(String gameId, String playerName) {
+        return dealTopCard(gameId, playerName, true);
+    }
 
-        AggregationResults<CardsBySuit> groupResults = mongoTemplate
-                .aggregate(agg, Game.class, CardsBySuit.class);
-        return groupResults.getMappedResults();
+    @Override
+    public Optional<Game> dealTopCard(String gameId, String playerName, boolean includeGameCards) {
+        return changingShoe(gameId, includeGameCards, game -> GameDeals.dealTopCard(game, playerName),
+                query -> mongoTemplate.findAndModify(query.apply(GameQueries.withTopCardFor(gameId, playerName)),
+                        DealPipelines.dealTopCard(playerName), GameQueries.RETURN_NEW, Game.class));
     }
 
+    @Override
+    public Optional<Game> dealCardsToEachPlayer(String gameId, int cardsPerPlayer) {
+        return dealCardsToEachPlayer(gameId, cardsPerPlayer, true);
+    }
+
+    @Override
+    public Optional<Game> dealCardsToEachPlayer(String gameId, int cardsPerPlayer, boolean includeGameCards) {
+        return changingShoe(gameId, includeGameCards, game -> GameDeals.dealCardsToEachPlayer(game, cardsPerPlayer),
+                query -> mongoTemplate.findAndModify(
+                        query.apply(GameQueries.withCardsForEachPlayer(gameId, cardsPerPlayer)),
+                        DealPipelines.dealRoundRobin(cardsPerPlayer), GameQueries.RETURN_NEW, Game.class));
+    }
+
+    @Override
+    public Optional<Game> dealCards(String gameId, Map<String, Integer> cardsByPlayer) {
+        return dealCards(gameId, cardsByPlayer, true);
+    }
+
+    @Override
+    public Optional<Game> dealCards(String gameId, Map<String, Integer> cardsByPlayer, boolean includeGameCards) {
+        List<String> playerNames = new ArrayList<>(cardsByPlayer.keySet());
+        List<List<Integer>> positions = GameQueries.dealPositions(playerNames, cardsByPlayer);
+        int numberOfCards = cardsByPlayer.values().stream().mapToInt(Integer::intValue).sum();
+
+        return changingShoe(gameId, includeGameCards, game -> GameDeals.dealCards(game, cardsByPlayer),
+                query -> mongoTemplate.findAndModify(
+                        query.apply(GameQueries.withCardsForPlayers(gameId, playerNames, numberOfCards)),
+                        DealPipelines.dealPositions(playerNames, positions, numberOfCards),
+                        GameQueries.RETURN_NEW, Game.class));
+    }
+
+    @Override
+    public List<CardsBySuit> countRemainingCardsBySuit(String gameId) {
+        return CardCounts.bySuit(findCardCounts(gameId));
+    }
+
+    @Override
     public List<CardsBySuitAndValue> countRemainingCardsSorted(String gameId, Sort sort) {
+        return CardCounts.sorted(findCardCounts(gameId), sort);
+    }
 
-        Aggregation agg = newAggregation(
-                match(Criteria.where("_id").is(gameId)),
-                unwind("gameCards"),
-                group("gameCards.suit","gameCards.value", "gameCards.faceValue").count().as("total"),
-                project("total", "suit", "value", "faceValue").and("card").previousOperation(),
-                sort(sort)
-        );
+    @Override
+    public long rebuildCardCounts() {
+        return mongoTemplate.updateMulti(new Query(), DealPipelines.rebuildCardCounts(), Game.class)
+                .getModifiedCount();
+    }
 
-        AggregationResults<CardsBySuitAndValue> groupResults = mongoTemplate
-                .aggregate(agg, Game.class, CardsBySuitAndValue.class);
+    /**
+     * Applies the change in process to a game with a virtual shoe, and writes it back as long as the
+     * game is still at the version read, throwing {@link OptimisticLockingFailureException} otherwise
+     * for the caller to retry. Other games get the pipeline, which changes them in a single write. With
+     * virtual shoes the game is looked up first, without them only once the pipeline found nothing to
+     * change. Both writes read back the game through the projection applied to their query, leaving out
+     * the shoe unless includeGameCards.
+     */
+    private Optional<Game> changingShoe(String gameId, boolean includeGameCards, Predicate<Game> change,
+                                        Function<UnaryOperator<Query>, Game> pipeline) {
+        UnaryOperator<Query> projection = query -> GameQueries.excludeGameCardsUnless(includeGameCards, query);
+        if (!virtualShoes) {
+            Game updatedGame = pipeline.apply(projection);
+            if (updatedGame != null) {
+                return Optional.of(updatedGame);
+            }
+        }
+        Game game = mongoTemplate.findOne(GameQueries.withVirtualShoe(gameId), Game.class);
+        if (game == null) {
+            return virtualShoes ? Optional.ofNullable(pipeline.apply(projection)) : Optional.empty();
+        }
+        Long version = game.getVersion();
+        if (!change.test(game)) {
+            return Optional.empty();
+        }
+        Game updatedGame = mongoTemplate.findAndModify(
+                projection.apply(GameQueries.byIdAndVersion(gameId, version)),
+                GameQueries.settingShoe(game), GameQueries.RETURN_NEW, Game.class);
+        if (updatedGame == null) {
+            throw new OptimisticLockingFailureException("Game " + gameId + " changed since version " + version);
+        }
+        return Optional.of(GameDeals.withShoeCards(updatedGame));
+    }
 
-        return groupResults.getMappedResults();
+    private int[] findCardCounts(String gameId) {
+        Game game = mongoTemplate.findOne(GameQueries.onlyWithCardCounts(gameId), Game.class);
+        if (game != null && game.getCardCounts() == null) {
+            game = findGameOnlyWithCards(gameId).orElse(null);
+        }
+        return CardCounts.of(game);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,293 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.CardsBySuit;
+import com.game.gamedeck.model.CardsBySuitAndValue;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.repositories.GameRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Non durable {@link GameRepository} keeping the games in memory, for tables that don't need Mongo.
+ * <p>
+ * Each game is guarded by one of a fixed set of lock stripes picked from its id, so operations on
+ * the same game are serialized while operations on different games only contend when their ids
+ * share a stripe. Games are copied in and out, so callers never share state with the store.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryGameRepository implements GameRepository {
+
+    private final ConcurrentNavigableMap<String, Game> games = new ConcurrentSkipListMap<>();
+    private final ReentrantLock[] locks;
+
+    public InMemoryGameRepository(@Value("${game.in-memory.lock-stripes:64}") int lockStripes) {
+        int stripes = Integer.highestOneBit(Math.max(1, lockStripes - 1)) << 1;
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Optional<Game> save(Game game) {
+        if (game.getId() == null) {
+            game.setId(new ObjectId().toHexString());
+        }
+        if (game.getVersion() == null) {
+            game.setVersion(0L);
+        }
+        ReentrantLock lock = lockOf(game.getId());
+        lock.lock();
+        try {
+            Game storedGame = game.copy();
+            storedGame.setCardCounts(GameDeals.countByCard(storedGame));
+            games.put(game.getId(), storedGame);
+            return Optional.of(GameDeals.withShoeCards(storedGame.copy()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Game> delete(String gameId) {
+        ReentrantLock lock = lockOf(gameId);
+        lock.lock();
+        try {
+            return Optional.ofNullable(games.remove(gameId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Game> findById(String gameId) {
+        return withGame(gameId, game -> Optional.of(GameDeals.withShoeCards(game.copy())));
+    }
+
+    @Override
+    public List<Game> findPage(String afterId, int limit, boolean includeGameCards) {
+        NavigableSet<String> gameIds = afterId == null ? games.keySet() : games.keySet().tailSet(afterId, false);
+        return gameIds.stream()
+                .map(gameId -> findProjection(gameId, includeGameCards))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Game> streamAll(boolean includeGameCards) {
+        return games.keySet().stream()
+                .map(gameId -> findProjection(gameId, includeGameCards))
+                .filter(Optional::isPresent)
+                .map(Optional::get);
+    }
+
+    @Override
+    public Optional<Game> findGameOnlyWithCards(String gameId) {
+        return withGame(gameId, game -> {
+            Game projection = new Game();
+            projection.setGameCards(GameDeals.cardsOf(game));
+            projection.setShuffleSeed(game.getShuffleSeed());
+            projection.setVersion(game.getVersion());
+            return Optional.of(projection);
+        });
+    }
+
+    @Override
+    public Optional<Long> findVersion(String gameId) {
+        return withGame(gameId, game -> Optional.ofNullable(game.getVersion()));
+    }
+
+    @Override
+    public Optional<Game> findGameOnlyWithPlayer(String gameId, String playerName) {
+        return withGame(gameId, game -> game.getPlayers().stream()
+                .filter(player -> player.getName().equals(playerName))
+                .findFirst()
+                .map(player -> {
+                    Game projection = new Game();
+                    projection.getPlayers().add(player.copy());
+                    return projection;
+                }));
+    }
+
+    @Override
+    public Optional<Game> findGameOnlyWithPlayers(String gameId) {
+        return withGame(gameId, game -> {
+            Game projection = new Game();
+            game.getPlayers().forEach(player -> projection.getPlayers().add(player.copy()));
+            projection.setVersion(game.getVersion());
+            return Optional.of(projection);
+        });
+    }
+
+    @Override
+    public Optional<Game> findGameOnlyWithPlayerTotals(String gameId) {
+        return withGame(gameId, game -> Optional.of(CachingGameRepository.withPlayerTotalsOnly(game)));
+    }
+
+    @Override
+    public boolean isPlayerExists(String gameId, String playerName) {
+        return withGame(gameId, game -> game.getPlayers().stream()
+                .filter(player -> player.getName().equals(playerName))
+                .findFirst())
+                .isPresent();
+    }
+
+    @Override
+    public Optional<Game> updateGameCards(String gameId, Long version, CardStack cards) {
+        return updateGame(gameId, game -> Objects.equals(game.getVersion(), version) && replaceCards(game, cards));
+    }
+
+    @Override
+    public Optional<Game> shuffleCards(String gameId, Long version, long seed, CardStack shuffledCards) {
+        return updateGame(gameId, game -> {
+            if (!Objects.equals(game.getVersion(), version)) {
+                return false;
+            }
+            game.setShuffleSeed(seed);
+            return replaceCards(game, shuffledCards);
+        });
+    }
+
+    @Override
+    public Optional<Game> markCardsUnordered(String gameId, long seed) {
+        return updateGame(gameId, game -> {
+            GameDeals.markUnordered(game, seed);
+            return true;
+        });
+    }
+
+    @Override
+    public Optional<Game> addNewPlayer(String gameId, String playerName) {
+        return updateGame(gameId, game -> game.getPlayers().stream()
+                .noneMatch(player -> player.getName().equals(playerName))
+                && game.getPlayers().add(new Player(playerName)));
+    }
+
+    @Override
+    public Optional<Game> addNewDeck(String gameId, CardStack cards) {
+        return updateGame(gameId, game -> {
+            GameDeals.addCards(game, cards);
+            return true;
+        });
+    }
+
+    @Override
+    public Optional<Game> removePlayer(String gameId, String playerName) {
+        return updateGame(gameId, game -> game.getPlayers()
+                .removeIf(player -> player.getName().equals(playerName)));
+    }
+
+    @Override
+    public Optional<Game> dealTopCard(String gameId, String playerName) {
+        return updateGame(gameId, game -> GameDeals.dealTopCard(game, playerName));
+    }
+
+    @Override
+    public Optional<Game> dealCardsToEachPlayer(String gameId, int cardsPerPlayer) {
+        return updateGame(gameId, game -> GameDeals.dealCardsToEachPlayer(game, cardsPerPlayer));
+    }
+
+    @Override
+    public Optional<Game> dealCards(String gameId, Map<String, Integer> cardsByPlayer) {
+        return updateGame(gameId, game -> GameDeals.dealCards(game, cardsByPlayer));
+    }
+
+    @Override
+    public List<CardsBySuit> countRemainingCardsBySuit(String gameId) {
+        return CardCounts.bySuit(findCardCounts(gameId));
+    }
+
+    @Override
+    public List<CardsBySuitAndValue> countRemainingCardsSorted(String gameId, Sort sort) {
+        return CardCounts.sorted(findCardCounts(gameId), sort);
+    }
+
+    @Override
+    public long rebuildCardCounts() {
+        return games.keySet().stream()
+                .filter(gameId -> updateGame(gameId, game -> {
+                    game.setCardCounts(GameDeals.countByCard(game));
+                    game.getPlayers().forEach(player -> {
+                        player.setTotal(player.getOnHandCards().totalValue());
+                        player.setNumberOfCards(player.getOnHandCards().size());
+                    });
+                    return true;
+                }).isPresent())
+                .count();
+    }
+
+    private int[] findCardCounts(String gameId) {
+        return withGame(gameId, game -> Optional.of(CardCounts.of(game).clone()))
+                .orElseGet(() -> CardCounts.of(null));
+    }
+
+    private Optional<Game> findProjection(String gameId, boolean includeGameCards) {
+        return withGame(gameId, game -> {
+            Game projection = new Game();
+            projection.setId(game.getId());
+            projection.setGameCards(includeGameCards ? GameDeals.cardsOf(game) : new CardStack());
+            game.getPlayers().forEach(player -> projection.getPlayers().add(player.copy()));
+            return Optional.of(projection);
+        });
+    }
+
+    private <T> Optional<T> withGame(String gameId, Function<Game, Optional<T>> action) {
+        ReentrantLock lock = lockOf(gameId);
+        lock.lock();
+        try {
+            Game game = gameId == null ? null : games.get(gameId);
+            return game == null ? Optional.empty() : action.apply(game);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the update to the stored game, counting it in the game version, and returns a copy of
+     * the result, or nothing when the game is missing or the update declined to change it.
+     */
+    private Optional<Game> updateGame(String gameId, Predicate<Game> update) {
+        return withGame(gameId, game -> {
+            if (!update.test(game)) {
+                return Optional.empty();
+            }
+            game.setVersion(game.getVersion() == null ? 1 : game.getVersion() + 1);
+            return Optional.of(GameDeals.withShoeCards(game.copy()));
+        });
+    }
+
+    private boolean replaceCards(Game game, CardStack cards) {
+        game.setGameCards(cards.copy());
+        game.setCardCounts(cards.countByCard());
+        game.setUnorderedCards(null);
+        game.setDrawState(null);
+        game.setVirtualShoe(null);
+        return true;
+    }
+
+    private ReentrantLock lockOf(String gameId) {
+        int hash = gameId == null ? 0 : gameId.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (locks.length - 1)];
+    }
+}
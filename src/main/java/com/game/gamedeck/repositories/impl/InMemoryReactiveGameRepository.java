@@ -0,0 +1,148 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.CardsBySuit;
+import com.game.gamedeck.model.CardsBySuitAndValue;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.repositories.ReactiveGameRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * {@link ReactiveGameRepository} over the {@link InMemoryGameRepository}. Its operations only hold a
+ * game lock for as long as it takes to change the game in memory, so they run on the subscribing thread.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryReactiveGameRepository implements ReactiveGameRepository {
+
+    @Autowired
+    private InMemoryGameRepository repository;
+
+    @Override
+    public Mono<Game> save(Game game) {
+        return deferred(() -> repository.save(game));
+    }
+
+    @Override
+    public Mono<Game> delete(String gameId) {
+        return deferred(() -> repository.delete(gameId));
+    }
+
+    @Override
+    public Mono<Game> findById(String gameId) {
+        return deferred(() -> repository.findById(gameId));
+    }
+
+    @Override
+    public Flux<Game> findPage(String afterId, int limit, boolean includeGameCards) {
+        return Flux.defer(() -> Flux.fromIterable(repository.findPage(afterId, limit, includeGameCards)));
+    }
+
+    @Override
+    public Flux<Game> streamAll(boolean includeGameCards) {
+        return Flux.fromStream(() -> repository.streamAll(includeGameCards));
+    }
+
+    @Override
+    public Mono<Game> findGameOnlyWithCards(String gameId) {
+        return deferred(() -> repository.findGameOnlyWithCards(gameId));
+    }
+
+    @Override
+    public Mono<Long> findVersion(String gameId) {
+        return deferred(() -> repository.findVersion(gameId));
+    }
+
+    @Override
+    public Mono<Game> findGameOnlyWithPlayer(String gameId, String playerName) {
+        return deferred(() -> repository.findGameOnlyWithPlayer(gameId, playerName));
+    }
+
+    @Override
+    public Mono<Game> findGameOnlyWithPlayers(String gameId) {
+        return deferred(() -> repository.findGameOnlyWithPlayers(gameId));
+    }
+
+    @Override
+    public Mono<Game> findGameOnlyWithPlayerTotals(String gameId) {
+        return deferred(() -> repository.findGameOnlyWithPlayerTotals(gameId));
+    }
+
+    @Override
+    public Mono<Boolean> isPlayerExists(String gameId, String playerName) {
+        return Mono.fromSupplier(() -> repository.isPlayerExists(gameId, playerName));
+    }
+
+    @Override
+    public Mono<Game> updateGameCards(String gameId, Long version, CardStack cards) {
+        return deferred(() -> repository.updateGameCards(gameId, version, cards));
+    }
+
+    @Override
+    public Mono<Game> shuffleCards(String gameId, Long version, long seed, CardStack shuffledCards) {
+        return deferred(() -> repository.shuffleCards(gameId, version, seed, shuffledCards));
+    }
+
+    @Override
+    public Mono<Game> markCardsUnordered(String gameId, long seed) {
+        return deferred(() -> repository.markCardsUnordered(gameId, seed));
+    }
+
+    @Override
+    public Mono<Game> addNewPlayer(String gameId, String playerName) {
+        return deferred(() -> repository.addNewPlayer(gameId, playerName));
+    }
+
+    @Override
+    public Mono<Game> addNewDeck(String gameId, CardStack cards) {
+        return deferred(() -> repository.addNewDeck(gameId, cards));
+    }
+
+    @Override
+    public Mono<Game> removePlayer(String gameId, String playerName) {
+        return deferred(() -> repository.removePlayer(gameId, playerName));
+    }
+
+    @Override
+    public Mono<Game> dealTopCard(String gameId, String playerName) {
+        return deferred(() -> repository.dealTopCard(gameId, playerName));
+    }
+
+    @Override
+    public Mono<Game> dealCardsToEachPlayer(String gameId, int cardsPerPlayer) {
+        return deferred(() -> repository.dealCardsToEachPlayer(gameId, cardsPerPlayer));
+    }
+
+    @Override
+    public Mono<Game> dealCards(String gameId, Map<String, Integer> cardsByPlayer) {
+        return deferred(() -> repository.dealCards(gameId, cardsByPlayer));
+    }
+
+    @Override
+    public Flux<CardsBySuit> countRemainingCardsBySuit(String gameId) {
+        return Flux.defer(() -> Flux.fromIterable(repository.countRemainingCardsBySuit(gameId)));
+    }
+
+    @Override
+    public Flux<CardsBySuitAndValue> countRemainingCardsSorted(String gameId, Sort sort) {
+        return Flux.defer(() -> Flux.fromIterable(repository.countRemainingCardsSorted(gameId, sort)));
+    }
+
+    @Override
+    public Mono<Long> rebuildCardCounts() {
+        return Mono.fromSupplier(repository::rebuildCardCounts);
+    }
+
+    private <T> Mono<T> deferred(Supplier<Optional<T>> operation) {
+        return Mono.defer(() -> Mono.justOrEmpty(operation.get()));
+    }
+}
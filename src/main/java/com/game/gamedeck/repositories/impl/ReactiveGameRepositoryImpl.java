@@ -0,0 +1,279 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.*;
+import com.game.gamedeck.repositories.ReactiveGameRepository;
+import com.game.gamedeck.repositories.converters.CardStackWriteConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * {@link ReactiveGameRepository} on the reactive Mongo driver, issuing the same queries and update
+ * pipelines as {@link GameRepositoryImpl} without holding a thread while Mongo answers.
+ */
+@Repository
+@Profile("!in-memory & !event-sourced")
+public class ReactiveGameRepositoryImpl implements ReactiveGameRepository {
+
+    private static final CardStackWriteConverter CARD_STACK_WRITER = new CardStackWriteConverter();
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Value("${game.shoe.virtual:false}")
+    private boolean virtualShoes;
+
+    @Override
+    public Mono<Game> save(Game game) {
+        game.setCardCounts(GameDeals.countByCard(game));
+        return mongoTemplate.save(game, GameRepositoryImpl.GAME).map(GameDeals::withShoeCards);
+    }
+
+    @Override
+    public Mono<Game> delete(String gameId) {
+        return mongoTemplate.findAndRemove(GameQueries.byId(gameId), Game.class);
+    }
+
+    @Override
+    public Mono<Game> findById(String gameId) {
+        return mongoTemplate.findOne(GameQueries.byId(gameId), Game.class).map(GameDeals::withShoeCards);
+    }
+
+    @Override
+    public Flux<Game> findPage(String afterId, int limit, boolean includeGameCards) {
+        return mongoTemplate.find(GameQueries.page(afterId, limit, includeGameCards), Game.class)
+                .map(GameDeals::withShoeCards);
+    }
+
+    @Override
+    public Flux<Game> streamAll(boolean includeGameCards) {
+        return mongoTemplate.find(GameQueries.all(includeGameCards), Game.class).map(GameDeals::withShoeCards);
+    }
+
+    @Override
+    public Mono<Game> findGameOnlyWithCards(String gameId) {
+        return mongoTemplate.findOne(GameQueries.onlyWithCards(gameId), Game.class).map(GameDeals::withShoeCards);
+    }
+
+    @Override
+    public Mono<Long> findVersion(String gameId) {
+        return mongoTemplate.findOne(GameQueries.onlyWithVersion(gameId), Game.class)
+                .flatMap(game -> Mono.justOrEmpty(game.getVersion()));
+    }
+
+    @Override
+    public Mono<Game> findGameOnlyWithPlayer(String gameId, String playerName) {
+        return mongoTemplate.findOne(GameQueries.onlyWithPlayer(gameId, playerName), Game.class);
+    }
+
+    @Override
+    public Mono<Game> findGameOnlyWith(String gameId, Set<GameField> fields) {
+        return mongoTemplate.findOne(GameQueries.onlyWith(gameId, fields), Game.class).map(GameDeals::withShoeCards);
+    }
+
+    @Override
+    public Flux<Game> findPage(String afterId, int limit, Set<GameField> fields) {
+        return mongoTemplate.find(GameQueries.page(afterId, limit, fields), Game.class)
+                .map(GameDeals::withShoeCards);
+    }
+
+    @Override
+    public Mono<Game> findGameOnlyWithPlayers(String gameId) {
+        return mongoTemplate.findOne(GameQueries.onlyWithPlayers(gameId), Game.class);
+    }
+
+    @Override
+    public Mono<Game> findGameOnlyWithPlayerTotals(String gameId) {
+        return mongoTemplate.findOne(GameQueries.onlyWithPlayerTotals(gameId), Game.class);
+    }
+
+    @Override
+    public Mono<Boolean> isPlayerExists(String gameId, String playerName) {
+        return mongoTemplate.exists(GameQueries.withPlayer(gameId, playerName), Game.class);
+    }
+
+    @Override
+    public Mono<Game> updateGameCards(String gameId, Long version, CardStack cards) {
+        return mongoTemplate.findAndModify(GameQueries.byIdAndVersion(gameId, version),
+                GameQueries.settingGameCards(cards), GameQueries.RETURN_NEW, Game.class);
+    }
+
+    @Override
+    public Mono<Game> shuffleCards(String gameId, Long version, long seed, CardStack shuffledCards) {
+        return mongoTemplate.findAndModify(GameQueries.byIdAndVersion(gameId, version),
+                GameQueries.settingShuffledCards(shuffledCards, seed), GameQueries.RETURN_NEW, Game.class);
+    }
+
+    @Override
+    public Mono<Game> markCardsUnordered(String gameId, long seed) {
+        return changingShoe(gameId, true, game -> {
+            GameDeals.markUnordered(game, seed);
+            return true;
+        }, query -> mongoTemplate.findAndModify(query.apply(GameQueries.withoutVirtualShoe(gameId)),
+                DealPipelines.markUnordered(seed), GameQueries.RETURN_NEW, Game.class));
+    }
+
+    @Override
+    public Mono<Game> addNewPlayer(String gameId, String playerName) {
+        return addNewPlayer(gameId, playerName, true);
+    }
+
+    @Override
+    public Mono<Game> addNewPlayer(String gameId, String playerName, boolean includeGameCards) {
+        return mongoTemplate.findAndModify(
+                        GameQueries.excludeGameCardsUnless(includeGameCards,
+                                GameQueries.withoutPlayer(gameId, playerName)),
+                        GameQueries.addingPlayer(playerName), GameQueries.RETURN_NEW, Game.class)
+                .map(GameDeals::withShoeCards);
+    }
+
+    @Override
+    public Mono<Game> addNewDeck(String gameId, CardStack cards) {
+        return addNewDeck(gameId, cards, true);
+    }
+
+    @Override
+    public Mono<Game> addNewDeck(String gameId, CardStack cards, boolean includeGameCards) {
+        return changingShoe(gameId, includeGameCards, game -> {
+            GameDeals.addCards(game, cards);
+            return true;
+        }, query -> mongoTemplate.findAndModify(query.apply(GameQueries.withoutVirtualShoe(gameId)),
+                DealPipelines.addCards(CARD_STACK_WRITER.convert(cards), cards.countByCard()),
+                GameQueries.RETURN_NEW, Game.class));
+    }
+
+    @Override
+    public Mono<Game> removePlayer(String gameId, String playerName) {
+        return removePlayer(gameId, playerName, true);
+    }
+
+    @Override
+    public Mono<Game> removePlayer(String gameId, String playerName, boolean includeGameCards) {
+        return mongoTemplate.findAndModify(
+                        GameQueries.excludeGameCardsUnless(includeGameCards,
+                                GameQueries.withPlayer(gameId, playerName)),
+                        GameQueries.removingPlayer(playerName), GameQueries.RETURN_NEW, Game.class)
+                .map(GameDeals::withShoeCards);
+    }
+
+    @Override
+    public Mono<Game> dealTopCard(String gameId, String playerName) {
+        return dealTopCard(gameId, playerName, true);
+    }
+
+    @Override
+    public Mono<Game> dealTopCard(String gameId, String playerName, boolean includeGameCards) {
+        return changingShoe(gameId, includeGameCards, game -> GameDeals.dealTopCard(game, playerName),
+                query -> mongoTemplate.findAndModify(query.apply(GameQueries.withTopCardFor(gameId, playerName)),
+                        DealPipelines.dealTopCard(playerName), GameQueries.RETURN_NEW, Game.class));
+    }
+
+    @Override
+    public Mono<Game> dealCardsToEachPlayer(String gameId, int cardsPerPlayer) {
+        return dealCardsToEachPlayer(gameId, cardsPerPlayer, true);
+    }
+
+    @Override
+    public Mono<Game> dealCardsToEachPlayer(String gameId, int cardsPerPlayer, boolean includeGameCards) {
+        return changingShoe(gameId, includeGameCards, game -> GameDeals.dealCardsToEachPlayer(game, cardsPerPlayer),
+                query -> mongoTemplate.findAndModify(
+                        query.apply(GameQueries.withCardsForEachPlayer(gameId, cardsPerPlayer)),
+                        DealPipelines.dealRoundRobin(cardsPerPlayer), GameQueries.RETURN_NEW, Game.class));
+    }
+
+    @Override
+    public Mono<Game> dealCards(String gameId, Map<String, Integer> cardsByPlayer) {
+        return dealCards(gameId, cardsByPlayer, true);
+    }
+
+    @Override
+    public Mono<Game> dealCards(String gameId, Map<String, Integer> cardsByPlayer, boolean includeGameCards) {
+        List<String> playerNames = new ArrayList<>(cardsByPlayer.keySet());
+        List<List<Integer>> positions = GameQueries.dealPositions(playerNames, cardsByPlayer);
+        int numberOfCards = cardsByPlayer.values().stream().mapToInt(Integer::intValue).sum();
+
+        return changingShoe(gameId, includeGameCards, game -> GameDeals.dealCards(game, cardsByPlayer),
+                query -> mongoTemplate.findAndModify(
+                        query.apply(GameQueries.withCardsForPlayers(gameId, playerNames, numberOfCards)),
+                        DealPipelines.dealPositions(playerNames, positions, numberOfCards),
+                        GameQueries.RETURN_NEW, Game.class));
+    }
+
+    @Override
+    public Flux<CardsBySuit> countRemainingCardsBySuit(String gameId) {
+        return findCardCounts(gameId).flatMapIterable(CardCounts::bySuit);
+    }
+
+    @Override
+    public Flux<CardsBySuitAndValue> countRemainingCardsSorted(String gameId, Sort sort) {
+        return findCardCounts(gameId).flatMapIterable(counts -> CardCounts.sorted(counts, sort));
+    }
+
+    @Override
+    public Mono<Long> rebuildCardCounts() {
+        return mongoTemplate.updateMulti(new Query(), DealPipelines.rebuildCardCounts(), Game.class)
+                .map(result -> result.getModifiedCount());
+    }
+
+    /**
+     * Same as in {@link GameRepositoryImpl}: a game with a virtual shoe is changed in process and
+     * written back conditioned on its version, failing with {@link OptimisticLockingFailureException}
+     * when it changed meanwhile, any other game by the pipeline, both read back without the shoe
+     * unless includeGameCards.
+     */
+    private Mono<Game> changingShoe(String gameId, boolean includeGameCards, Predicate<Game> change,
+                                    Function<UnaryOperator<Query>, Mono<Game>> pipeline) {
+        UnaryOperator<Query> projection = query -> GameQueries.excludeGameCardsUnless(includeGameCards, query);
+        if (virtualShoes) {
+            return changingVirtualShoe(gameId, projection, change, () -> pipeline.apply(projection));
+        }
+        return Mono.defer(() -> pipeline.apply(projection))
+                .switchIfEmpty(Mono.defer(() -> changingVirtualShoe(gameId, projection, change, Mono::empty)));
+    }
+
+    private Mono<Game> changingVirtualShoe(String gameId, UnaryOperator<Query> projection, Predicate<Game> change,
+                                           Supplier<Mono<Game>> pipeline) {
+        return mongoTemplate.findOne(GameQueries.withVirtualShoe(gameId), Game.class)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(found -> {
+                    if (found.isEmpty()) {
+                        return pipeline.get();
+                    }
+                    Game game = found.get();
+                    Long version = game.getVersion();
+                    if (!change.test(game)) {
+                        return Mono.empty();
+                    }
+                    return mongoTemplate.findAndModify(projection.apply(GameQueries.byIdAndVersion(gameId, version)),
+                                    GameQueries.settingShoe(game), GameQueries.RETURN_NEW, Game.class)
+                            .map(GameDeals::withShoeCards)
+                            .switchIfEmpty(Mono.error(() -> new OptimisticLockingFailureException(
+                                    "Game " + gameId + " changed since version " + version)));
+                });
+    }
+
+    private Mono<int[]> findCardCounts(String gameId) {
+        return mongoTemplate.findOne(GameQueries.onlyWithCardCounts(gameId), Game.class)
+                .flatMap(game -> game.getCardCounts() != null ? Mono.just(game) : findGameOnlyWithCards(gameId))
+                .map(CardCounts::of)
+                .defaultIfEmpty(CardCounts.of(null));
+    }
+}
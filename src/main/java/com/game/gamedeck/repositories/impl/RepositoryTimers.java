@@ -0,0 +1,105 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.repositories.GameRepository;
+import com.game.gamedeck.repositories.ReactiveGameRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every operation of the game repository beans, blocking and reactive, in {@value #TIMER},
+ * tagged with the operation and the repository class, so a cache in front of a store is timed apart
+ * from it. A reactive operation is timed from subscription to termination, and an operation returning
+ * a stream only until the stream is returned.
+ * <p>
+ * Each operation of each repository class registers its timer on its first call, and from then on
+ * only reads the clock twice per call.
+ */
+public class RepositoryTimers extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    static final String TIMER = "game.repository";
+
+    public RepositoryTimers(ObjectProvider<MeterRegistry> meterRegistry) {
+        StaticMethodMatcherPointcut repositoryOperations = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return isRepositoryOperation(method);
+            }
+        };
+        repositoryOperations.setClassFilter(RepositoryTimers::isRepository);
+        this.advisor = new DefaultPointcutAdvisor(repositoryOperations, new TimingInterceptor(meterRegistry));
+        setProxyTargetClass(true);
+        setBeforeExistingAdvisors(true);
+    }
+
+    private static boolean isRepository(Class<?> type) {
+        return GameRepository.class.isAssignableFrom(type) || ReactiveGameRepository.class.isAssignableFrom(type);
+    }
+
+    private static boolean isRepositoryOperation(Method method) {
+        return method.getDeclaringClass() != Object.class
+                && (ClassUtils.hasMethod(GameRepository.class, method.getName(), method.getParameterTypes())
+                || ClassUtils.hasMethod(ReactiveGameRepository.class, method.getName(), method.getParameterTypes()));
+    }
+
+    private static class TimingInterceptor implements MethodInterceptor {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+        private final ClassValue<ConcurrentHashMap<Method, Timer>> timers = new ClassValue<>() {
+            @Override
+            protected ConcurrentHashMap<Method, Timer> computeValue(Class<?> repositoryClass) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+        TimingInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Class<?> repositoryClass = ClassUtils.getUserClass(invocation.getThis());
+            Timer timer = timers.get(repositoryClass).computeIfAbsent(invocation.getMethod(),
+                    method -> Timer.builder(TIMER)
+                            .description("Time game repository operations take")
+                            .tag("operation", method.getName())
+                            .tag("repository", repositoryClass.getSimpleName())
+                            .register(meterRegistry.getObject()));
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invocation.proceed();
+            } catch (Throwable ex) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw ex;
+            }
+            if (result instanceof Mono<?> mono) {
+                return Mono.defer(() -> {
+                    long subscribed = System.nanoTime();
+                    return mono.doFinally(signal -> timer.record(System.nanoTime() - subscribed, TimeUnit.NANOSECONDS));
+                });
+            }
+            if (result instanceof Flux<?> flux) {
+                return Flux.defer(() -> {
+                    long subscribed = System.nanoTime();
+                    return flux.doFinally(signal -> timer.record(System.nanoTime() - subscribed, TimeUnit.NANOSECONDS));
+                });
+            }
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        }
+    }
+}
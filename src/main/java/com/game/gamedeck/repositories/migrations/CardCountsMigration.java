@@ -0,0 +1,33 @@
+package com.game.gamedeck.repositories.migrations;
+
+import com.game.gamedeck.repositories.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recounts the remaining card counters of every game from its shoe, and the players' running totals
+ * from their hands, for games stored before the counters existed or whose counters need repairing. Runs after {@link CompactCardsMigration}, as
+ * only compact shoes can be counted. Enable with {@code game.migration.card-counts=true}.
+ */
+@Component
+@Order(2)
+@ConditionalOnProperty(name = "game.migration.card-counts", havingValue = "true")
+public class CardCountsMigration implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CardCountsMigration.class);
+
+    @Autowired
+    private GameRepository repository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long rebuilt = repository.rebuildCardCounts();
+        LOGGER.info("Rebuilt the card counters of {} games.", rebuilt);
+    }
+}
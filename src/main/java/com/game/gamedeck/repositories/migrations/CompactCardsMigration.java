@@ -0,0 +1,58 @@
+package com.game.gamedeck.repositories.migrations;
+
+import com.game.gamedeck.model.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Rewrites {@code game} documents still holding cards as {@code {value, suit, faceValue}} sub-documents
+ * or as BinData into arrays of card ordinals. Legacy documents are readable without it, but cards can only
+ * be dealt server-side once they are arrays of ordinals. Enable with {@code game.migration.compact-cards=true}.
+ * A game written to while it is being migrated is left as it is, for the next run.
+ */
+@Component
+@Order(1)
+@ConditionalOnProperty(name = "game.migration.compact-cards", havingValue = "true")
+public class CompactCardsMigration implements ApplicationRunner {
+
+    private static final int BSON_TYPE_OBJECT = 3;
+    private static final int BSON_TYPE_BINARY = 5;
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompactCardsMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query legacyGames = Query.query(new Criteria().orOperator(
+                Criteria.where("gameCards").type(BSON_TYPE_OBJECT),
+                Criteria.where("gameCards").type(BSON_TYPE_BINARY),
+                Criteria.where("players.onHandCards").type(BSON_TYPE_OBJECT),
+                Criteria.where("players.onHandCards").type(BSON_TYPE_BINARY)));
+
+        long migrated = 0;
+        try (Stream<Game> games = mongoTemplate.stream(legacyGames, Game.class)) {
+            Iterator<Game> iterator = games.iterator();
+            while (iterator.hasNext()) {
+                Game game = iterator.next();
+                Update compactCards = Update.update("gameCards", game.getGameCards()).set("players", game.getPlayers());
+                migrated += mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(game.getId())
+                        .and("version").is(game.getVersion())), compactCards, Game.class).getModifiedCount();
+            }
+        }
+        LOGGER.info("Migrated {} game documents to the compact card encoding.", migrated);
+    }
+}
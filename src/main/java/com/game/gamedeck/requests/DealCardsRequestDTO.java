@@ -0,0 +1,16 @@
+package com.game.gamedeck.requests;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class DealCardsRequestDTO {
+    @Min(1)
+    private Integer cardsPerPlayer;
+
+    private Map<String, @NotNull @Min(1) Integer> cardsByPlayer = new LinkedHashMap<>();
+}
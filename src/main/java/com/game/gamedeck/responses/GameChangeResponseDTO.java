@@ -0,0 +1,26 @@
+package com.game.gamedeck.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.game.gamedeck.shared.constants.GameChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A change to a game, as pushed to the subscribers of the game: what changed, the players it was
+ * about, and the version and number of cards left of the game after it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GameChangeResponseDTO {
+    private String id;
+    private GameChangeType change;
+    private List<String> players = new ArrayList<>();
+    private Long version;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer cardsLeft;
+}
@@ -1,7 +1,7 @@
 package com.game.gamedeck.responses;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.game.gamedeck.model.Card;
-import com.game.gamedeck.model.Player;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,8 +13,26 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 public class GameResponseDTO {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String id;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<Card> gameCards = new ArrayList<>();
-    private List<Player> players = new ArrayList<>();
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<PlayerResponseDTO> players = new ArrayList<>();
+
+    /**
+     * Set on delta responses only, which leave out the game cards and the players the request did not
+     * change.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer cardsLeft;
+
+    public GameResponseDTO(String id, List<Card> gameCards, List<PlayerResponseDTO> players) {
+        this.id = id;
+        this.gameCards = gameCards;
+        this.players = players;
+    }
 }
 
@@ -0,0 +1,37 @@
+package com.game.gamedeck.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.game.gamedeck.model.Card;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlayerResponseDTO {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String name;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Card> onHandCards = new ArrayList<>();
+
+    /**
+     * Set on delta responses only: the cards the request dealt to the player, and the player's total.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Card> dealtCards;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer total;
+
+    public PlayerResponseDTO(String name) {
+        this.name = name;
+    }
+
+    public PlayerResponseDTO(String name, List<Card> onHandCards) {
+        this.name = name;
+        this.onHandCards = onHandCards;
+    }
+}
@@ -6,4 +6,5 @@ import lombok.Data;
 public class PlayerTotalResponseDTO {
     private String player;
     private Integer total;
+    private Integer numberOfCards;
 }
@@ -5,26 +5,73 @@ import com.game.gamedeck.model.CardsBySuit;
 import com.game.gamedeck.model.CardsBySuitAndValue;
 import com.game.gamedeck.requests.AddPlayerRequestDTO;
 import com.game.gamedeck.requests.CreateGameRequestDTO;
+import com.game.gamedeck.requests.DealCardsRequestDTO;
 import com.game.gamedeck.responses.GameResponseDTO;
 import com.game.gamedeck.responses.OperationStatus;
 import com.game.gamedeck.responses.PlayerTotalResponseDTO;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface GameService {
     GameResponseDTO createGame(CreateGameRequestDTO createGameRequestDTO);
     OperationStatus deleteGame(String gameId);
-    GameResponseDTO dealCards(String gameId, String playerName);
-    GameResponseDTO addPlayer(String gameId, AddPlayerRequestDTO addPlayerRequestDTO);
-    GameResponseDTO removePlayer(String gameId, String playerName);
-    GameResponseDTO addDeck(String gameId);
-    GameResponseDTO shuffleCards(String gameId);
-    List<GameResponseDTO> getAllGames();
+    GameResponseDTO dealCards(String gameId, String playerName, boolean delta);
+    GameResponseDTO dealCards(String gameId, DealCardsRequestDTO dealCardsRequestDTO, boolean delta);
+    GameResponseDTO addPlayer(String gameId, AddPlayerRequestDTO addPlayerRequestDTO, boolean delta);
+    GameResponseDTO removePlayer(String gameId, String playerName, boolean delta);
+    GameResponseDTO addDeck(String gameId, boolean delta);
+    GameResponseDTO shuffleCards(String gameId, boolean delta);
+    GameResponseDTO getGame(String gameId, List<String> fields);
+    List<GameResponseDTO> getGames(String afterId, Integer limit, boolean includeGameCards, List<String> fields);
+    Stream<GameResponseDTO> streamGames(boolean includeGameCards);
+    Flux<ServerSentEvent<byte[]>> streamGameChanges(String gameId);
+    Optional<Long> getGameVersion(String gameId);
     List<Card> getPlayerCards(String gameId, String playerName);
     List<PlayerTotalResponseDTO> getPlayersTotals(String gameId);
     Map<String, Long> getCardsLeftBySuitUsingCollectors(String gameId);
     List<CardsBySuit> getCountRemainingCardsBySuit(String gameId);
     List<CardsBySuitAndValue> getCountRemainingCardsSorted(String gameId, Sort sort);
+
+    /**
+     * The games whole, or only with the game cards left out unless includeGameCards. With fields, only
+     * the named fields are read and answered, see GameField.
+     */
+    default List<GameResponseDTO> getGames(String afterId, Integer limit, boolean includeGameCards) {
+        return getGames(afterId, limit, includeGameCards, null);
+    }
+
+    /*
+     * The writes answering the whole game. With delta they answer only what the write changed, see
+     * GameResponseMapper#toGameDelta.
+     */
+
+    default GameResponseDTO dealCards(String gameId, String playerName) {
+        return dealCards(gameId, playerName, false);
+    }
+
+    default GameResponseDTO dealCards(String gameId, DealCardsRequestDTO dealCardsRequestDTO) {
+        return dealCards(gameId, dealCardsRequestDTO, false);
+    }
+
+    default GameResponseDTO addPlayer(String gameId, AddPlayerRequestDTO addPlayerRequestDTO) {
+        return addPlayer(gameId, addPlayerRequestDTO, false);
+    }
+
+    default GameResponseDTO removePlayer(String gameId, String playerName) {
+        return removePlayer(gameId, playerName, false);
+    }
+
+    default GameResponseDTO addDeck(String gameId) {
+        return addDeck(gameId, false);
+    }
+
+    default GameResponseDTO shuffleCards(String gameId) {
+        return shuffleCards(gameId, false);
+    }
 }
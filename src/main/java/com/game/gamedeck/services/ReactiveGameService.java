@@ -0,0 +1,73 @@
+package com.game.gamedeck.services;
+
+import com.game.gamedeck.model.Card;
+import com.game.gamedeck.model.CardsBySuit;
+import com.game.gamedeck.model.CardsBySuitAndValue;
+import com.game.gamedeck.requests.AddPlayerRequestDTO;
+import com.game.gamedeck.requests.CreateGameRequestDTO;
+import com.game.gamedeck.requests.DealCardsRequestDTO;
+import com.game.gamedeck.responses.GameResponseDTO;
+import com.game.gamedeck.responses.OperationStatus;
+import com.game.gamedeck.responses.PlayerTotalResponseDTO;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non blocking counterpart of {@link GameService}, failing with the same exceptions.
+ */
+public interface ReactiveGameService {
+    Mono<GameResponseDTO> createGame(CreateGameRequestDTO createGameRequestDTO);
+    Mono<OperationStatus> deleteGame(String gameId);
+    Mono<GameResponseDTO> dealCards(String gameId, String playerName, boolean delta);
+    Mono<GameResponseDTO> dealCards(String gameId, DealCardsRequestDTO dealCardsRequestDTO, boolean delta);
+    Mono<GameResponseDTO> addPlayer(String gameId, AddPlayerRequestDTO addPlayerRequestDTO, boolean delta);
+    Mono<GameResponseDTO> removePlayer(String gameId, String playerName, boolean delta);
+    Mono<GameResponseDTO> addDeck(String gameId, boolean delta);
+    Mono<GameResponseDTO> shuffleCards(String gameId, boolean delta);
+    Mono<GameResponseDTO> getGame(String gameId, List<String> fields);
+    Flux<GameResponseDTO> getGames(String afterId, Integer limit, boolean includeGameCards, List<String> fields);
+    Flux<GameResponseDTO> streamGames(boolean includeGameCards);
+    Flux<ServerSentEvent<byte[]>> streamGameChanges(String gameId);
+    Mono<Long> getGameVersion(String gameId);
+    Flux<Card> getPlayerCards(String gameId, String playerName);
+    Flux<PlayerTotalResponseDTO> getPlayersTotals(String gameId);
+    Flux<CardsBySuit> getCountRemainingCardsBySuit(String gameId);
+    Flux<CardsBySuitAndValue> getCountRemainingCardsSorted(String gameId, Sort sort);
+
+    default Flux<GameResponseDTO> getGames(String afterId, Integer limit, boolean includeGameCards) {
+        return getGames(afterId, limit, includeGameCards, null);
+    }
+
+    /*
+     * The writes answering the whole game. With delta they answer only what the write changed, see
+     * GameResponseMapper#toGameDelta.
+     */
+
+    default Mono<GameResponseDTO> dealCards(String gameId, String playerName) {
+        return dealCards(gameId, playerName, false);
+    }
+
+    default Mono<GameResponseDTO> dealCards(String gameId, DealCardsRequestDTO dealCardsRequestDTO) {
+        return dealCards(gameId, dealCardsRequestDTO, false);
+    }
+
+    default Mono<GameResponseDTO> addPlayer(String gameId, AddPlayerRequestDTO addPlayerRequestDTO) {
+        return addPlayer(gameId, addPlayerRequestDTO, false);
+    }
+
+    default Mono<GameResponseDTO> removePlayer(String gameId, String playerName) {
+        return removePlayer(gameId, playerName, false);
+    }
+
+    default Mono<GameResponseDTO> addDeck(String gameId) {
+        return addDeck(gameId, false);
+    }
+
+    default Mono<GameResponseDTO> shuffleCards(String gameId) {
+        return shuffleCards(gameId, false);
+    }
+}
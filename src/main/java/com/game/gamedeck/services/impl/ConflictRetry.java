@@ -0,0 +1,144 @@
+package com.game.gamedeck.services.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries read-modify-write operations whose conditional write found the game changed since it was
+ * read, with a randomized exponential backoff between attempts, each attempt reading the game again.
+ * Every conflict is counted in {@value #CONFLICTS}, tagged with the operation and whether it was
+ * retried or the attempts ran out.
+ */
+@Component
+public class ConflictRetry {
+
+    static final String CONFLICTS = "game.write.conflicts";
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final MeterRegistry meterRegistry;
+
+    public ConflictRetry(@Value("${game.write.max-attempts:5}") int maxAttempts,
+                         @Value("${game.write.initial-backoff:5ms}") Duration initialBackoff,
+                         @Value("${game.write.max-backoff:100ms}") Duration maxBackoff,
+                         MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the attempt until it returns a result, or returns nothing once every attempt conflicted.
+     */
+    public <T> Optional<T> execute(String operation, Supplier<Optional<T>> attempt) {
+        for (int attempts = 1; ; attempts++) {
+            Optional<T> result = attempt.get();
+            if (result.isPresent()) {
+                return result;
+            }
+            if (attempts >= maxAttempts) {
+                conflicts(operation, "exhausted").increment();
+                return Optional.empty();
+            }
+            conflicts(operation, "retried").increment();
+            sleep(backoff(attempts));
+        }
+    }
+
+    /**
+     * Subscribes to the attempt again while it completes empty, and completes empty once every attempt
+     * conflicted. The attempt must read the game anew on each subscription.
+     */
+    public <T> Mono<T> execute(String operation, Mono<T> attempt) {
+        return attempt
+                .switchIfEmpty(Mono.error(WriteConflict::new))
+                .retryWhen(Retry.backoff(maxAttempts - 1, initialBackoff)
+                        .maxBackoff(maxBackoff)
+                        .filter(WriteConflict.class::isInstance)
+                        .doBeforeRetry(signal -> conflicts(operation, "retried").increment())
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .onErrorResume(WriteConflict.class, conflict -> {
+                    conflicts(operation, "exhausted").increment();
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Runs the write again while it throws {@link OptimisticLockingFailureException}, and throws the
+     * supplied exception once every attempt conflicted. Meant for writes whose empty result already
+     * means the change doesn't apply to the game, so a conflict can't be told by an empty result.
+     */
+    public <T> T retryingConflicts(String operation, Supplier<T> write, Supplier<? extends RuntimeException> exhausted) {
+        for (int attempts = 1; ; attempts++) {
+            try {
+                return write.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempts >= maxAttempts) {
+                    conflicts(operation, "exhausted").increment();
+                    throw exhausted.get();
+                }
+                conflicts(operation, "retried").increment();
+                sleep(backoff(attempts));
+            }
+        }
+    }
+
+    /**
+     * Subscribes to the write again while it fails with {@link OptimisticLockingFailureException}, and
+     * fails with the supplied exception once every attempt conflicted. The write must read the game
+     * anew on each subscription.
+     */
+    public <T> Mono<T> retryingConflicts(String operation, Mono<T> write, Supplier<? extends Throwable> exhausted) {
+        return write.retryWhen(Retry.backoff(maxAttempts - 1, initialBackoff)
+                .maxBackoff(maxBackoff)
+                .filter(OptimisticLockingFailureException.class::isInstance)
+                .doBeforeRetry(signal -> conflicts(operation, "retried").increment())
+                .onRetryExhaustedThrow((spec, signal) -> {
+                    conflicts(operation, "exhausted").increment();
+                    return exhausted.get();
+                }));
+    }
+
+    private Counter conflicts(String operation, String outcome) {
+        return Counter.builder(CONFLICTS)
+                .description("Conditional game writes that found the game changed since it was read")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A random delay up to the initial backoff doubled for each attempt made, capped at the maximum.
+     */
+    private Duration backoff(int attempts) {
+        long ceiling = Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() << Math.min(attempts - 1, 30));
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    private void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class WriteConflict extends RuntimeException {
+        private WriteConflict() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.game.gamedeck.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.shared.constants.GameChangeType;
+import com.game.gamedeck.shared.mappers.GameResponseMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pushes the changes of each game to the subscribers of the game, within this instance. A change is
+ * only serialized when the game has subscribers, once, and the same event is handed to all of them.
+ * Each subscriber buffers up to game.changes.buffer-size changes not sent yet; a subscriber falling
+ * further behind is dropped, which ends its stream, and may subscribe again.
+ * <p>
+ * Changes are published once the write is done, so two writes of the same game may get here in the
+ * other order. A change whose game version is not past the last one sent is stale and dropped, which
+ * keeps the event ids of a stream increasing.
+ */
+@Component
+public class GameChangeBroadcaster {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GameResponseMapper gameResponseMapper;
+
+    @Value("${game.changes.buffer-size:64}")
+    private int bufferSize;
+
+    private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
+
+    public Flux<ServerSentEvent<byte[]>> subscribe(String gameId) {
+        return Flux.defer(() -> {
+            Channel channel = channels.compute(gameId, (id, open) -> (open == null ? new Channel() : open).join());
+            return channel.sink.asFlux()
+                    .onBackpressureBuffer(bufferSize)
+                    .onErrorResume(Exceptions::isOverflow, overflow -> Flux.empty())
+                    .doFinally(signal -> channels.computeIfPresent(gameId, (id, open) -> open.leave()));
+        });
+    }
+
+    public void publish(GameChangeType change, Game game, Collection<String> playerNames) {
+        Channel channel = channels.get(game.getId());
+        if (channel == null) {
+            return;
+        }
+        byte[] data;
+        try {
+            data = objectMapper.writeValueAsBytes(gameResponseMapper.toGameChange(change, game, playerNames));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        ServerSentEvent<byte[]> event = ServerSentEvent.builder(data)
+                .id(String.valueOf(game.getVersion()))
+                .event(change.name())
+                .build();
+        synchronized (channel) {
+            if (game.getVersion() != null) {
+                if (game.getVersion() <= channel.lastVersion) {
+                    return;
+                }
+                channel.lastVersion = game.getVersion();
+            }
+            channel.sink.tryEmitNext(event);
+        }
+    }
+
+    /**
+     * The subscribers of a game, counted so the channel is dropped with the last of them. Only changed
+     * within the compute functions of the map, which run one at a time for the same game. The version
+     * of the last change sent is only read and changed while holding the channel.
+     */
+    private static class Channel {
+
+        private final Sinks.Many<ServerSentEvent<byte[]>> sink = Sinks.many().multicast().directBestEffort();
+        private int subscribers;
+        private long lastVersion = Long.MIN_VALUE;
+
+        Channel join() {
+            subscribers++;
+            return this;
+        }
+
+        Channel leave() {
+            return --subscribers == 0 ? null : this;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.game.gamedeck.services.impl;
+
+import com.game.gamedeck.model.Game;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs the mutating commands of each game one at a time, in arrival order, while commands of
+ * different games run in parallel. Each game with queued commands gets an actor, a mailbox drained
+ * by one virtual thread, which goes away as soon as its mailbox is empty.
+ * <p>
+ * While the actor lives it can hold the game as last written by one of its commands, so the next
+ * command can start from it instead of reading the game again. The held game is only a shortcut:
+ * writes stay conditional on the game version, so a game changed elsewhere, e.g. by another
+ * instance, still fails the write and the command reads it again.
+ * <p>
+ * The number of queued commands and the time they wait for their turn are published as
+ * {@value #QUEUED} and {@value #WAIT}. With {@code game.commands.serialized=false} commands run
+ * straight on the calling thread, with nothing held.
+ */
+@Component
+public class GameCommandExecutor implements DisposableBean {
+
+    static final String QUEUED = "game.commands.queued";
+    static final String WAIT = "game.commands.wait";
+
+    private final boolean serialized;
+    private final ConcurrentHashMap<String, GameActor> actors = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("game-actor-", 0).factory());
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Timer waitTimer;
+
+    public GameCommandExecutor(@Value("${game.commands.serialized:true}") boolean serialized,
+                               MeterRegistry meterRegistry) {
+        this.serialized = serialized;
+        this.waitTimer = Timer.builder(WAIT)
+                .description("Time game commands wait behind earlier commands of the same game")
+                .register(meterRegistry);
+        Gauge.builder(QUEUED, queued, AtomicInteger::get)
+                .description("Game commands waiting for their turn")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the command in its turn among the commands of the game, and returns its result or throws
+     * its exception on the calling thread. The command sees the locale of the calling thread, so the
+     * messages it builds are in the language of the request.
+     */
+    public <T> T execute(String gameId, Function<HeldGame, T> command) {
+        if (!serialized || gameId == null) {
+            return command.apply(new HeldGame());
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+        long enqueuedAt = System.nanoTime();
+        queued.incrementAndGet();
+        actors.compute(gameId, (id, actor) -> {
+            GameActor gameActor = actor == null ? new GameActor(id) : actor;
+            gameActor.mailbox.add(heldGame -> {
+                queued.decrementAndGet();
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                LocaleContextHolder.setLocaleContext(localeContext);
+                try {
+                    result.complete(command.apply(heldGame));
+                } catch (RuntimeException | Error e) {
+                    heldGame.game = null;
+                    result.completeExceptionally(e);
+                } finally {
+                    LocaleContextHolder.resetLocaleContext();
+                }
+            });
+            if (actor == null) {
+                executor.execute(gameActor);
+            }
+            return gameActor;
+        });
+
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * The game as last written by a command of the same actor, if any.
+     */
+    public static class HeldGame {
+
+        private Game game;
+
+        /**
+         * Hands the held game over to the caller, who may change it freely; nothing is held afterwards.
+         */
+        public Optional<Game> take() {
+            Optional<Game> heldGame = Optional.ofNullable(game);
+            game = null;
+            return heldGame;
+        }
+
+        /**
+         * Holds a copy of the game written by the command, when there is one, for the next command.
+         * The command's caller keeps the game it returns to itself.
+         */
+        public Optional<Game> hold(Optional<Game> writtenGame) {
+            writtenGame.ifPresent(updatedGame -> game = updatedGame.copy());
+            return writtenGame;
+        }
+
+        /**
+         * Same as {@link #hold(Optional)} for a game written back whole. A game written back without its
+         * shoe is not held, and neither is the game held before it anymore.
+         */
+        public Optional<Game> hold(Optional<Game> writtenGame, boolean wholeGame) {
+            if (wholeGame) {
+                return hold(writtenGame);
+            }
+            game = null;
+            return writtenGame;
+        }
+    }
+
+    private class GameActor implements Runnable {
+
+        private final String gameId;
+        private final Queue<Consumer<HeldGame>> mailbox = new ConcurrentLinkedQueue<>();
+        private final HeldGame heldGame = new HeldGame();
+
+        private GameActor(String gameId) {
+            this.gameId = gameId;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Consumer<HeldGame> command = mailbox.poll();
+                if (command == null) {
+                    if (actors.compute(gameId, (id, actor) -> mailbox.isEmpty() ? null : actor) == null) {
+                        return;
+                    }
+                    continue;
+                }
+                command.accept(heldGame);
+            }
+        }
+    }
+}
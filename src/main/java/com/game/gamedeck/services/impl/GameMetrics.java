@@ -0,0 +1,43 @@
+package com.game.gamedeck.services.impl;
+
+import com.game.gamedeck.model.Game;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Records the shape of the games as the services create and change them: the cards left in the
+ * shoe in {@value #SHOE_CARDS} and the players in {@value #PLAYERS}, from the game each write
+ * returns, so recording reads nothing more.
+ */
+@Component
+public class GameMetrics {
+
+    static final String SHOE_CARDS = "game.shoe.cards";
+    static final String PLAYERS = "game.players";
+
+    private final DistributionSummary shoeCards;
+    private final DistributionSummary players;
+
+    public GameMetrics(MeterRegistry meterRegistry) {
+        this.shoeCards = DistributionSummary.builder(SHOE_CARDS)
+                .description("Cards left in the shoe of the games written")
+                .baseUnit("cards")
+                .register(meterRegistry);
+        this.players = DistributionSummary.builder(PLAYERS)
+                .description("Players of the games written")
+                .baseUnit("players")
+                .register(meterRegistry);
+    }
+
+    public void record(Game game) {
+        if (game.getCardCounts() != null) {
+            shoeCards.record(Arrays.stream(game.getCardCounts()).sum());
+        }
+        if (game.getPlayers() != null) {
+            players.record(game.getPlayers().size());
+        }
+    }
+}
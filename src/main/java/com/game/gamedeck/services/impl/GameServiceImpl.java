@@ -1,32 +1,37 @@
 package com.game.gamedeck.services.impl;
 
+import com.game.gamedeck.exceptions.ConflictException;
 import com.game.gamedeck.exceptions.GameException;
 import com.game.gamedeck.exceptions.NotFoundException;
 import com.game.gamedeck.model.*;
 import com.game.gamedeck.repositories.GameRepository;
 import com.game.gamedeck.requests.AddPlayerRequestDTO;
 import com.game.gamedeck.requests.CreateGameRequestDTO;
+import com.game.gamedeck.requests.DealCardsRequestDTO;
 import com.game.gamedeck.responses.GameResponseDTO;
 import com.game.gamedeck.responses.OperationStatus;
 import com.game.gamedeck.responses.PlayerTotalResponseDTO;
 import com.game.gamedeck.services.GameService;
 import com.game.gamedeck.shared.constants.AppErrorConstants;
+import com.game.gamedeck.shared.constants.GameChangeType;
 import com.game.gamedeck.shared.constants.GameConstants;
 import com.game.gamedeck.shared.constants.RequestOperationName;
 import com.game.gamedeck.shared.constants.RequestOperationStatus;
-import com.game.gamedeck.shared.utils.DeckUtils;
-import org.modelmapper.ModelMapper;
+import com.game.gamedeck.shared.mappers.GameResponseMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
 
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class GameServiceImpl implements GameService {
@@ -40,30 +45,91 @@ public class GameServiceImpl implements GameService {
     private MessageSource messageSource;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private GameResponseMapper gameResponseMapper;
+
+    @Autowired
+    private ConflictRetry conflictRetry;
+
+    @Autowired
+    private ShuffleEngine shuffleEngine;
+
+    @Autowired
+    private GameChangeBroadcaster gameChanges;
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    @Autowired
+    private GameCommandExecutor gameCommands;
+
+    @Value("${game.shuffle.on-draw:false}")
+    private boolean shuffleOnDraw;
+
+    @Value("${game.shoe.virtual:false}")
+    private boolean virtualShoes;
 
     @Override
-    public List<GameResponseDTO> getAllGames() {
-        return repository.findAll().stream()
-                .map(game -> modelMapper.map(game, GameResponseDTO.class))
+    public GameResponseDTO getGame(String gameId, List<String> fields) {
+        requiredNonEmpty(gameId, GameConstants.GAME_ID);
+        Set<GameField> gameFields = gameFields(fields);
+
+        return (gameFields == null ? repository.findById(gameId) : repository.findGameOnlyWith(gameId, gameFields))
+                .map(game -> gameFields == null ? gameResponseMapper.toGameResponse(game)
+                        : gameResponseMapper.toGameResponse(game, gameFields))
+                .orElseThrow(() -> new NotFoundException(buildErrorMessage(
+                        AppErrorConstants.ERROR_GAME_NOT_FOUND, NO_PARAMS)));
+    }
+
+    @Override
+    public List<GameResponseDTO> getGames(String afterId, Integer limit, boolean includeGameCards,
+                                          List<String> fields) {
+        int pageSize = limit == null ? GameConstants.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(limit, GameConstants.MAX_PAGE_SIZE));
+        Set<GameField> gameFields = gameFields(fields);
+
+        if (gameFields != null) {
+            return repository.findPage(afterId, pageSize, gameFields).stream()
+                    .map(game -> gameResponseMapper.toGameResponse(game, gameFields))
+                    .collect(Collectors.toList());
+        }
+        return repository.findPage(afterId, pageSize, includeGameCards).stream()
+                .map(game -> toGameResponse(game, includeGameCards))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Stream<GameResponseDTO> streamGames(boolean includeGameCards) {
+        return repository.streamAll(includeGameCards)
+                .map(game -> toGameResponse(game, includeGameCards));
+    }
+
+    @Override
+    public Flux<ServerSentEvent<byte[]>> streamGameChanges(String gameId) {
+        repository.findVersion(gameId)
+                .orElseThrow(() -> new NotFoundException(buildErrorMessage(
+                        AppErrorConstants.ERROR_GAME_NOT_FOUND, NO_PARAMS)));
+        return gameChanges.subscribe(gameId);
+    }
+
     @Override
     public GameResponseDTO createGame(CreateGameRequestDTO createGameRequestDTO) {
         Game game = new Game();
         addPlayersToGame(createGameRequestDTO.getPlayers(), game);
         addCardsToGameDeck(createGameRequestDTO.getNumberOfDecks(), game);
 
-        return repository.save(game)
-                .map(savedGame -> modelMapper.map(savedGame, GameResponseDTO.class))
-                .get();
+        Game savedGame = repository.save(game).get();
+        gameMetrics.record(savedGame);
+        return gameResponseMapper.toGameResponse(savedGame);
     }
 
     @Override
     public OperationStatus deleteGame(String gameId) {
         requiredNonEmpty(gameId, GameConstants.GAME_ID);
-        repository.delete(gameId)
+        gameCommands.execute(gameId, heldGame -> {
+            heldGame.take();
+            return conflictRetry.retryingConflicts("delete-game", () -> repository.delete(gameId),
+                    this::concurrentUpdate);
+        })
             .orElseThrow(() -> new NotFoundException(buildErrorMessage(
                 AppErrorConstants.ERROR_GAME_NOT_FOUND, NO_PARAMS)));
 
@@ -71,23 +137,50 @@ public class GameServiceImpl implements GameService {
     }
 
     @Override
-    public GameResponseDTO dealCards(String gameId, String playerName) {
+    public GameResponseDTO dealCards(String gameId, String playerName, boolean delta) {
         requiredNonEmpty(gameId, GameConstants.GAME_ID);
         requiredNonEmpty(playerName, GameConstants.PLAYER_NAME);
 
-        Game game = findGameById(gameId);
-        validatePlayer(game.getPlayers(), playerName);
-        pickCardAndAddToPlayer(game, playerName);
+        Game updatedGame = gameCommands.execute(gameId, heldGame -> heldGame.hold(
+                conflictRetry.retryingConflicts("deal-cards", () -> delta
+                        ? repository.dealTopCard(gameId, playerName, false)
+                        : repository.dealTopCard(gameId, playerName), this::concurrentUpdate), !delta))
+                .orElseThrow(() -> dealCardsFailure(gameId, playerName));
 
-        return repository.save(game)
-                .map(savedGame -> modelMapper.map(savedGame, GameResponseDTO.class))
-                .get();
+        return changed(GameChangeType.CARDS_DEALT, updatedGame, delta, Map.of(playerName, 1));
+    }
+
+    @Override
+    public GameResponseDTO dealCards(String gameId, DealCardsRequestDTO dealCardsRequestDTO, boolean delta) {
+        requiredNonEmpty(gameId, GameConstants.GAME_ID);
+
+        Integer cardsPerPlayer = dealCardsRequestDTO.getCardsPerPlayer();
+        Map<String, Integer> cardsByPlayer = mergeCardsByPlayer(dealCardsRequestDTO.getCardsByPlayer());
+        if ((cardsPerPlayer == null) == cardsByPlayer.isEmpty()) {
+            throw new GameException(buildErrorMessage(AppErrorConstants.ERROR_DEAL_CARDS_MODE, NO_PARAMS));
+        }
+
+        Game updatedGame = gameCommands.execute(gameId, heldGame -> heldGame.hold(
+                conflictRetry.retryingConflicts("deal-cards", () -> cardsPerPlayer != null
+                        ? (delta ? repository.dealCardsToEachPlayer(gameId, cardsPerPlayer, false)
+                                : repository.dealCardsToEachPlayer(gameId, cardsPerPlayer))
+                        : (delta ? repository.dealCards(gameId, cardsByPlayer, false)
+                                : repository.dealCards(gameId, cardsByPlayer)), this::concurrentUpdate), !delta))
+                .orElseThrow(() -> dealCardsFailure(gameId, cardsPerPlayer, cardsByPlayer));
+
+        return changed(GameChangeType.CARDS_DEALT, updatedGame, delta, cardsPerPlayer != null
+                ? updatedGame.getPlayers().stream()
+                        .collect(Collectors.toMap(Player::getName, player -> cardsPerPlayer, (first, second) -> first))
+                : cardsByPlayer);
     }
 
     @Override
     public List<PlayerTotalResponseDTO> getPlayersTotals(String gameId) {
 
-        List<Player> players = getGamePrayers(gameId);
+        List<Player> players = getGamePlayersTotals(gameId);
+        if (players.stream().anyMatch(player -> player.getTotal() == null)) {
+            players = getGamePrayers(gameId);
+        }
 
         return players.stream()
                 .map(this::getTotalsCardsForEachPlayer)
@@ -96,15 +189,27 @@ public class GameServiceImpl implements GameService {
     }
 
     @Override
-    public GameResponseDTO shuffleCards(String gameId) {
-        List<Card> gameCards = getGameCards(gameId);
-        DeckUtils.shuffleCards(gameCards);
+    public GameResponseDTO shuffleCards(String gameId, boolean delta) {
+        if (shuffleOnDraw || virtualShoes) {
+            Game markedGame = gameCommands.execute(gameId, heldGame -> {
+                long seed = shuffleEngine.nextSeed(heldGame.take().orElse(null));
+                return heldGame.hold(conflictRetry.retryingConflicts("shuffle-cards",
+                        () -> repository.markCardsUnordered(gameId, seed), this::concurrentUpdate));
+            })
+                    .orElseThrow(() -> new NotFoundException(buildErrorMessage(
+                            AppErrorConstants.ERROR_GAME_NOT_FOUND, NO_PARAMS)));
+            return changed(GameChangeType.CARDS_SHUFFLED, markedGame, delta, Map.of());
+        }
 
-        Game savedGame = repository.updateGameCards(gameId, gameCards)
-                .orElseThrow(() -> new NotFoundException(buildErrorMessage(
-                        AppErrorConstants.ERROR_GAME_NOT_FOUND, NO_PARAMS)));
+        Game savedGame = gameCommands.execute(gameId, heldGame -> heldGame.hold(
+                conflictRetry.execute("shuffle-cards", () -> {
+                    Game game = heldGame.take().orElseGet(() -> findGameOnlyWithCards(gameId));
+                    long seed = shuffleEngine.shuffle(game);
+                    return repository.shuffleCards(gameId, game.getVersion(), seed, game.getGameCards());
+                })))
+                .orElseThrow(this::concurrentUpdate);
 
-        return modelMapper.map(savedGame, GameResponseDTO.class);
+        return changed(GameChangeType.CARDS_SHUFFLED, savedGame, delta, Map.of());
     }
 
     @Override
@@ -114,7 +219,7 @@ public class GameServiceImpl implements GameService {
 
     @Override
     public Map<String, Long> getCardsLeftBySuitUsingCollectors(String gameId) {
-        return getGameCards(gameId).stream()
+        return getGameCards(gameId).toCards().stream()
                 .collect(Collectors.groupingBy(Card::getSuit, Collectors.counting()));
     }
 
@@ -125,7 +230,7 @@ public class GameServiceImpl implements GameService {
         Comparator<Card> sortByValueDesc = Comparator.comparing(Card::getValue).reversed();
         Comparator<Card> sortBySuitAndValueDesc = sortBySuit.thenComparing(sortByValueDesc);
 
-        List<Card> gameCards = getGameCards(gameId);
+        List<Card> gameCards = getGameCards(gameId).toCards();
 
         return gameCards.stream()
             .collect(Collectors.groupingBy(Function.identity(),
@@ -138,66 +243,84 @@ public class GameServiceImpl implements GameService {
         return repository.countRemainingCardsSorted(gameId, sort);
     }
 
+    @Override
+    public Optional<Long> getGameVersion(String gameId) {
+        return repository.findVersion(gameId);
+    }
+
     @Override
     public List<Card> getPlayerCards(String gameId, String playerName) {
         return repository.findGameOnlyWithPlayer(gameId, playerName)
                 .orElseThrow(() -> new NotFoundException(buildErrorMessage(
                         AppErrorConstants.ERROR_PLAYER_NOT_FOUND, NO_PARAMS)))
-                .getPlayers().get(0).getOnHandCards();
+                .getPlayers().get(0).getOnHandCards().toCards();
     }
 
     @Override
-    public GameResponseDTO addPlayer(String gameId, AddPlayerRequestDTO addPlayerRequestDTO) {
+    public GameResponseDTO addPlayer(String gameId, AddPlayerRequestDTO addPlayerRequestDTO, boolean delta) {
         requiredNonEmpty(gameId, GameConstants.GAME_ID);
 
         String playerName = addPlayerRequestDTO.getPlayerName();
-        validateExistentPlayerInGame(gameId, playerName);
 
-        return repository.addNewPlayer(gameId, playerName)
-                .map(updatedGame -> modelMapper.map(updatedGame, GameResponseDTO.class))
-                .get();
+        Game updatedGame = gameCommands.execute(gameId, heldGame -> heldGame.hold(
+                conflictRetry.retryingConflicts("add-player", () -> delta
+                        ? repository.addNewPlayer(gameId, playerName, false)
+                        : repository.addNewPlayer(gameId, playerName), this::concurrentUpdate), !delta))
+                .orElseThrow(() -> addPlayerFailure(gameId, playerName));
+
+        return changed(GameChangeType.PLAYER_ADDED, updatedGame, delta, Map.of(playerName, 0));
     }
 
     @Override
-    public GameResponseDTO removePlayer(String gameId, String playerName) {
+    public GameResponseDTO removePlayer(String gameId, String playerName, boolean delta) {
         requiredNonEmpty(gameId, GameConstants.GAME_ID);
         requiredNonEmpty(playerName, GameConstants.PLAYER_NAME);
 
-        Game updatedGame = repository.removePlayer(gameId, playerName)
+        Game updatedGame = gameCommands.execute(gameId, heldGame -> heldGame.hold(
+                conflictRetry.retryingConflicts("remove-player", () -> delta
+                        ? repository.removePlayer(gameId, playerName, false)
+                        : repository.removePlayer(gameId, playerName), this::concurrentUpdate), !delta))
                 .orElseThrow(() -> new NotFoundException(buildErrorMessage(
                         AppErrorConstants.ERROR_GAME_NOT_FOUND, NO_PARAMS)));
 
-        return modelMapper.map(updatedGame, GameResponseDTO.class);
+        return changed(GameChangeType.PLAYER_REMOVED, updatedGame, delta, Map.of(playerName, 0));
     }
 
     @Override
-    public GameResponseDTO addDeck(String gameId) {
-        Game updatedGame = repository.addNewDeck(gameId, CardEnum.createDeck())
+    public GameResponseDTO addDeck(String gameId, boolean delta) {
+        CardStack deck = CardStack.ofDecks(1);
+        Game updatedGame = gameCommands.execute(gameId, heldGame -> heldGame.hold(
+                conflictRetry.retryingConflicts("add-deck", () -> delta
+                        ? repository.addNewDeck(gameId, deck, false)
+                        : repository.addNewDeck(gameId, deck), this::concurrentUpdate), !delta))
                 .orElseThrow(() -> new NotFoundException(buildErrorMessage(
                         AppErrorConstants.ERROR_GAME_NOT_FOUND, NO_PARAMS)));
 
-        return modelMapper.map(updatedGame, GameResponseDTO.class);
+        return changed(GameChangeType.DECK_ADDED, updatedGame, delta, Map.of());
     }
 
-    private int calculatePlayerCards(List<Card> onHandCards) {
-        return onHandCards.stream().mapToInt(card -> card.getValue()).sum();
+    /**
+     * Publishes the change a write made to the subscribers of the game, naming the players it dealt
+     * to, added or removed, and maps the written game to the response.
+     */
+    private GameResponseDTO changed(GameChangeType change, Game game, boolean delta,
+                                    Map<String, Integer> dealtCardsByPlayer) {
+        gameMetrics.record(game);
+        gameChanges.publish(change, game, dealtCardsByPlayer.keySet());
+        return delta ? gameResponseMapper.toGameDelta(game, dealtCardsByPlayer)
+                : gameResponseMapper.toGameResponse(game);
     }
 
-    private void pickCardAndAddToPlayer(Game game, String playerName) {
-        validateAvailableCards(game);
-
-        Card pickedCard = game.getGameCards().remove(0);
-
-        List<Player> players = game.getPlayers().stream()
-            .map(player -> {
-                if (player.getName().equalsIgnoreCase(playerName)) {
-                    player.getOnHandCards().add(pickedCard);
-                    return player;
-                }
-                return player;
-            }).collect(Collectors.toList());
+    private GameResponseDTO toGameResponse(Game game, boolean includeGameCards) {
+        GameResponseDTO gameResponseDTO = gameResponseMapper.toGameResponse(game);
+        if (!includeGameCards) {
+            gameResponseDTO.setGameCards(null);
+        }
+        return gameResponseDTO;
+    }
 
-        game.setPlayers(players);
+    int calculatePlayerCards(CardStack onHandCards) {
+        return onHandCards.totalValue();
     }
 
     private void addPlayersToGame(List<String> playerNames, Game game) {
@@ -208,34 +331,36 @@ public class GameServiceImpl implements GameService {
     }
 
     private void addCardsToGameDeck(int numberOfDecks, Game game) {
-
-        List<Card> gameCards = new ArrayList<>();
-
-        for (int i = 0; i < numberOfDecks; i++) {
-            gameCards.addAll(CardEnum.createDeck());
+        if (virtualShoes) {
+            game.setGameCards(new CardStack());
+            game.setVirtualShoe(VirtualShoe.ofDecks(numberOfDecks));
+        } else {
+            game.setGameCards(CardStack.ofDecks(numberOfDecks));
         }
-
-        game.setGameCards(gameCards);
     }
 
     private void requiredNonEmpty(String fieldValue, String fieldName) {
-        if (StringUtils.isEmpty(fieldValue)) {
+        if (!StringUtils.hasLength(fieldValue)) {
             throw new GameException(buildErrorMessage(
                 AppErrorConstants.ERROR_FIELD_CANNOT_BE_EMPTY,
                     new Object[]{ fieldName }));
         }
     }
 
-    private PlayerTotalResponseDTO createPlayerTotal(String playerName, int total) {
+    private PlayerTotalResponseDTO createPlayerTotal(String playerName, int total, int numberOfCards) {
         PlayerTotalResponseDTO playerTotalResponseDTO = new PlayerTotalResponseDTO();
         playerTotalResponseDTO.setPlayer(playerName);
         playerTotalResponseDTO.setTotal(total);
+        playerTotalResponseDTO.setNumberOfCards(numberOfCards);
         return playerTotalResponseDTO;
     }
 
     private PlayerTotalResponseDTO getTotalsCardsForEachPlayer(Player player) {
-        int total = calculatePlayerCards(player.getOnHandCards());
-        return createPlayerTotal(player.getName(), total);
+        if (player.getTotal() == null) {
+            return createPlayerTotal(player.getName(), calculatePlayerCards(player.getOnHandCards()),
+                    player.getOnHandCards().size());
+        }
+        return createPlayerTotal(player.getName(), player.getTotal(), player.getNumberOfCards());
     }
 
     private Game findGameById(String gameId) {
@@ -245,12 +370,82 @@ public class GameServiceImpl implements GameService {
     }
 
     private void validateAvailableCards(Game game) {
-        if (CollectionUtils.isEmpty(game.getGameCards())) {
+        if (game.getGameCards().isEmpty()) {
             throw new GameException(buildErrorMessage(
                 AppErrorConstants.ERROR_NO_MORE_CARDS_AVAILABLE, NO_PARAMS));
         }
     }
 
+    private RuntimeException dealCardsFailure(String gameId, String playerName) {
+        Game game = findGameById(gameId);
+        validatePlayer(game.getPlayers(), playerName);
+        validateAvailableCards(game);
+        return new GameException(buildErrorMessage(
+                AppErrorConstants.ERROR_NO_MORE_CARDS_AVAILABLE, NO_PARAMS));
+    }
+
+    private RuntimeException dealCardsFailure(String gameId, Integer cardsPerPlayer,
+                                              Map<String, Integer> cardsByPlayer) {
+        Game game = findGameById(gameId);
+        cardsByPlayer.keySet().forEach(playerName -> validatePlayer(game.getPlayers(), playerName));
+        if (cardsPerPlayer != null && game.getPlayers().isEmpty()) {
+            return new GameException(buildErrorMessage(AppErrorConstants.ERROR_ADD_PLAYER_TO_GAME, NO_PARAMS));
+        }
+
+        int numberOfCards = cardsPerPlayer != null
+                ? cardsPerPlayer * game.getPlayers().size()
+                : cardsByPlayer.values().stream().mapToInt(Integer::intValue).sum();
+        return new GameException(buildErrorMessage(
+                AppErrorConstants.ERROR_NOT_ENOUGH_CARDS_AVAILABLE, new Object[]{ numberOfCards }));
+    }
+
+    /**
+     * Tells apart the two reasons the conditional write adding a player can fail, looking up only the
+     * version of the game.
+     */
+    private RuntimeException addPlayerFailure(String gameId, String playerName) {
+        if (!repository.findVersion(gameId).isPresent()) {
+            return new NotFoundException(buildErrorMessage(AppErrorConstants.ERROR_GAME_NOT_FOUND, NO_PARAMS));
+        }
+        return new GameException(buildErrorMessage(
+                AppErrorConstants.ERROR_USER_ALREADY_EXISTS, new Object[]{ playerName }));
+    }
+
+    /**
+     * Sums the cards asked for each player in request order, merging the names equal ignoring case, as
+     * players are matched, under the first spelling given.
+     */
+    private Map<String, Integer> mergeCardsByPlayer(Map<String, Integer> cardsByPlayer) {
+        Map<String, Integer> merged = new LinkedHashMap<>();
+        Map<String, String> spellings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (cardsByPlayer != null) {
+            cardsByPlayer.forEach((playerName, numberOfCards) -> {
+                requiredNonEmpty(playerName, GameConstants.PLAYER_NAME);
+                merged.merge(spellings.computeIfAbsent(playerName, Function.identity()), numberOfCards, Integer::sum);
+            });
+        }
+        return merged;
+    }
+
+    /**
+     * The game fields of the given names, or null to answer whole games when no names are given.
+     */
+    private Set<GameField> gameFields(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        Set<GameField> gameFields = EnumSet.noneOf(GameField.class);
+        for (String field : fields) {
+            GameField gameField = GameField.fromName(field.trim());
+            if (gameField == null) {
+                throw new GameException(buildErrorMessage(
+                        AppErrorConstants.ERROR_UNKNOWN_FIELD, new Object[]{ field }));
+            }
+            gameFields.add(gameField);
+        }
+        return gameFields;
+    }
+
     private String buildErrorMessage(String errorBundleKey, Object[] params) {
         return messageSource.getMessage(errorBundleKey, params,
             LocaleContextHolder.getLocale());
@@ -263,32 +458,39 @@ public class GameServiceImpl implements GameService {
         }
     }
 
-    private void validateExistentPlayerInGame(String gameId, String playerName) {
-
-        boolean isPlayerAlreadyInGame = repository.isPlayerExists(gameId, playerName);
-
-        if (isPlayerAlreadyInGame) {
-            throw new GameException(buildErrorMessage(
-                    AppErrorConstants.ERROR_USER_ALREADY_EXISTS, new Object[]{ playerName }));
-        }
-    }
-
     private boolean isExistentPlayer(List<Player> players, String playerName) {
         return players.stream()
                 .anyMatch(p -> p.getName().equalsIgnoreCase(playerName));
     }
 
     private List<Player> getGamePrayers(String gameId) {
+        return findGameOnlyWithPlayers(gameId).getPlayers();
+    }
+
+    private Game findGameOnlyWithPlayers(String gameId) {
         return repository.findGameOnlyWithPlayers(gameId)
+                .orElseThrow(() -> new NotFoundException(buildErrorMessage(
+                        AppErrorConstants.ERROR_GAME_NOT_FOUND, NO_PARAMS)));
+    }
+
+    private List<Player> getGamePlayersTotals(String gameId) {
+        return repository.findGameOnlyWithPlayerTotals(gameId)
                 .orElseThrow(() -> new NotFoundException(buildErrorMessage(
                         AppErrorConstants.ERROR_GAME_NOT_FOUND, NO_PARAMS)))
                 .getPlayers();
     }
 
-    private List<Card> getGameCards(String gameId) {
+    private CardStack getGameCards(String gameId) {
+        return findGameOnlyWithCards(gameId).getGameCards();
+    }
+
+    private Game findGameOnlyWithCards(String gameId) {
         return repository.findGameOnlyWithCards(gameId)
                 .orElseThrow(() -> new NotFoundException(buildErrorMessage(
-                        AppErrorConstants.ERROR_GAME_NOT_FOUND, NO_PARAMS)))
-                .getGameCards();
+                        AppErrorConstants.ERROR_GAME_NOT_FOUND, NO_PARAMS)));
+    }
+
+    private ConflictException concurrentUpdate() {
+        return new ConflictException(buildErrorMessage(AppErrorConstants.ERROR_CONCURRENT_UPDATE, NO_PARAMS));
     }
 }
\ No newline at end of file
@@ -0,0 +1,433 @@
+package com.game.gamedeck.services.impl;
+
+import com.game.gamedeck.exceptions.ConflictException;
+import com.game.gamedeck.exceptions.GameException;
+import com.game.gamedeck.exceptions.NotFoundException;
+import com.game.gamedeck.model.*;
+import com.game.gamedeck.repositories.ReactiveGameRepository;
+import com.game.gamedeck.requests.AddPlayerRequestDTO;
+import com.game.gamedeck.requests.CreateGameRequestDTO;
+import com.game.gamedeck.requests.DealCardsRequestDTO;
+import com.game.gamedeck.responses.GameResponseDTO;
+import com.game.gamedeck.responses.OperationStatus;
+import com.game.gamedeck.responses.PlayerTotalResponseDTO;
+import com.game.gamedeck.services.ReactiveGameService;
+import com.game.gamedeck.shared.constants.AppErrorConstants;
+import com.game.gamedeck.shared.constants.GameChangeType;
+import com.game.gamedeck.shared.constants.GameConstants;
+import com.game.gamedeck.shared.constants.RequestOperationName;
+import com.game.gamedeck.shared.constants.RequestOperationStatus;
+import com.game.gamedeck.shared.mappers.GameResponseMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ReactiveGameService} on the {@link ReactiveGameRepository}. Error messages are resolved in
+ * the locale of the request, read from the subscriber context when the call is subscribed to, as
+ * WebFlux leaves {@code LocaleContextHolder} empty and they may be built on whichever thread the
+ * repository completes on.
+ */
+@Service
+public class ReactiveGameServiceImpl implements ReactiveGameService {
+
+    private static final Object[] NO_PARAMS = null;
+
+    @Autowired
+    private ReactiveGameRepository repository;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Autowired
+    private GameResponseMapper gameResponseMapper;
+
+    @Autowired
+    private ConflictRetry conflictRetry;
+
+    @Autowired
+    private ShuffleEngine shuffleEngine;
+
+    @Autowired
+    private GameChangeBroadcaster gameChanges;
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    @Value("${game.shuffle.on-draw:false}")
+    private boolean shuffleOnDraw;
+
+    @Value("${game.shoe.virtual:false}")
+    private boolean virtualShoes;
+
+    @Override
+    public Mono<GameResponseDTO> createGame(CreateGameRequestDTO createGameRequestDTO) {
+        Game game = new Game();
+        game.setPlayers(createGameRequestDTO.getPlayers().stream()
+                .map(Player::new)
+                .collect(Collectors.toList()));
+        if (virtualShoes) {
+            game.setGameCards(new CardStack());
+            game.setVirtualShoe(VirtualShoe.ofDecks(createGameRequestDTO.getNumberOfDecks()));
+        } else {
+            game.setGameCards(CardStack.ofDecks(createGameRequestDTO.getNumberOfDecks()));
+        }
+
+        return repository.save(game)
+                .doOnNext(gameMetrics::record)
+                .map(gameResponseMapper::toGameResponse);
+    }
+
+    @Override
+    public Mono<OperationStatus> deleteGame(String gameId) {
+        return inLocale(locale -> requiredNonEmpty(gameId, GameConstants.GAME_ID, locale)
+                .then(conflictRetry.retryingConflicts("delete-game", repository.delete(gameId),
+                        () -> conflict(locale)))
+                .switchIfEmpty(gameNotFound(locale))
+                .map(deletedGame -> new OperationStatus(RequestOperationStatus.SUCCESS, RequestOperationName.DELETE)));
+    }
+
+    @Override
+    public Mono<GameResponseDTO> dealCards(String gameId, String playerName, boolean delta) {
+        return inLocale(locale -> requiredNonEmpty(gameId, GameConstants.GAME_ID, locale)
+                .then(requiredNonEmpty(playerName, GameConstants.PLAYER_NAME, locale))
+                .then(conflictRetry.retryingConflicts("deal-cards",
+                        repository.dealTopCard(gameId, playerName, !delta), () -> conflict(locale)))
+                .switchIfEmpty(Mono.defer(() -> dealCardsFailure(gameId, playerName, locale)))
+                .map(game -> changed(GameChangeType.CARDS_DEALT, game, delta, Map.of(playerName, 1))));
+    }
+
+    @Override
+    public Mono<GameResponseDTO> dealCards(String gameId, DealCardsRequestDTO dealCardsRequestDTO, boolean delta) {
+        return inLocale(locale -> requiredNonEmpty(gameId, GameConstants.GAME_ID, locale)
+                .then(Mono.fromCallable(() -> mergeCardsByPlayer(dealCardsRequestDTO.getCardsByPlayer(), locale)))
+                .flatMap(cardsByPlayer -> {
+                    Integer cardsPerPlayer = dealCardsRequestDTO.getCardsPerPlayer();
+                    if ((cardsPerPlayer == null) == cardsByPlayer.isEmpty()) {
+                        return Mono.error(new GameException(buildErrorMessage(
+                                AppErrorConstants.ERROR_DEAL_CARDS_MODE, NO_PARAMS, locale)));
+                    }
+                    return conflictRetry.retryingConflicts("deal-cards", cardsPerPlayer != null
+                                    ? repository.dealCardsToEachPlayer(gameId, cardsPerPlayer, !delta)
+                                    : repository.dealCards(gameId, cardsByPlayer, !delta), () -> conflict(locale))
+                            .switchIfEmpty(Mono.defer(() ->
+                                    dealCardsFailure(gameId, cardsPerPlayer, cardsByPlayer, locale)))
+                            .map(game -> changed(GameChangeType.CARDS_DEALT, game, delta, cardsPerPlayer != null
+                                    ? game.getPlayers().stream().collect(Collectors.toMap(
+                                            Player::getName, player -> cardsPerPlayer, (first, second) -> first))
+                                    : cardsByPlayer));
+                }));
+    }
+
+    @Override
+    public Mono<GameResponseDTO> addPlayer(String gameId, AddPlayerRequestDTO addPlayerRequestDTO, boolean delta) {
+        return inLocale(locale -> {
+            String playerName = addPlayerRequestDTO.getPlayerName();
+
+            return requiredNonEmpty(gameId, GameConstants.GAME_ID, locale)
+                    .then(conflictRetry.retryingConflicts("add-player",
+                            repository.addNewPlayer(gameId, playerName, !delta), () -> conflict(locale)))
+                    .switchIfEmpty(Mono.defer(() -> addPlayerFailure(gameId, playerName, locale)))
+                    .map(game -> changed(GameChangeType.PLAYER_ADDED, game, delta, Map.of(playerName, 0)));
+        });
+    }
+
+    @Override
+    public Mono<GameResponseDTO> removePlayer(String gameId, String playerName, boolean delta) {
+        return inLocale(locale -> requiredNonEmpty(gameId, GameConstants.GAME_ID, locale)
+                .then(requiredNonEmpty(playerName, GameConstants.PLAYER_NAME, locale))
+                .then(conflictRetry.retryingConflicts("remove-player",
+                        repository.removePlayer(gameId, playerName, !delta), () -> conflict(locale)))
+                .switchIfEmpty(gameNotFound(locale))
+                .map(game -> changed(GameChangeType.PLAYER_REMOVED, game, delta, Map.of(playerName, 0))));
+    }
+
+    @Override
+    public Mono<GameResponseDTO> addDeck(String gameId, boolean delta) {
+        return inLocale(locale -> conflictRetry.retryingConflicts("add-deck",
+                        repository.addNewDeck(gameId, CardStack.ofDecks(1), !delta), () -> conflict(locale))
+                .switchIfEmpty(gameNotFound(locale))
+                .map(game -> changed(GameChangeType.DECK_ADDED, game, delta, Map.of())));
+    }
+
+    @Override
+    public Mono<GameResponseDTO> shuffleCards(String gameId, boolean delta) {
+        return inLocale(locale -> {
+            if (shuffleOnDraw || virtualShoes) {
+                return conflictRetry.retryingConflicts("shuffle-cards",
+                                repository.markCardsUnordered(gameId, shuffleEngine.nextSeed(null)),
+                                () -> conflict(locale))
+                        .switchIfEmpty(gameNotFound(locale))
+                        .map(game -> changed(GameChangeType.CARDS_SHUFFLED, game, delta, Map.of()));
+            }
+
+            Mono<Game> shuffle = repository.findGameOnlyWithCards(gameId)
+                    .switchIfEmpty(gameNotFound(locale))
+                    .flatMap(game -> {
+                        long seed = shuffleEngine.shuffle(game);
+                        return repository.shuffleCards(gameId, game.getVersion(), seed, game.getGameCards());
+                    });
+
+            return conflictRetry.execute("shuffle-cards", shuffle)
+                    .switchIfEmpty(concurrentUpdate(locale))
+                    .map(game -> changed(GameChangeType.CARDS_SHUFFLED, game, delta, Map.of()));
+        });
+    }
+
+    @Override
+    public Mono<GameResponseDTO> getGame(String gameId, List<String> fields) {
+        return inLocale(locale -> {
+            if (fields == null || fields.isEmpty()) {
+                return requiredNonEmpty(gameId, GameConstants.GAME_ID, locale)
+                        .then(repository.findById(gameId))
+                        .switchIfEmpty(gameNotFound(locale))
+                        .map(gameResponseMapper::toGameResponse);
+            }
+            return requiredNonEmpty(gameId, GameConstants.GAME_ID, locale)
+                    .then(Mono.fromCallable(() -> gameFields(fields, locale)))
+                    .flatMap(gameFields -> repository.findGameOnlyWith(gameId, gameFields)
+                            .switchIfEmpty(gameNotFound(locale))
+                            .map(game -> gameResponseMapper.toGameResponse(game, gameFields)));
+        });
+    }
+
+    @Override
+    public Flux<GameResponseDTO> getGames(String afterId, Integer limit, boolean includeGameCards,
+                                          List<String> fields) {
+        int pageSize = limit == null ? GameConstants.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(limit, GameConstants.MAX_PAGE_SIZE));
+
+        if (fields == null || fields.isEmpty()) {
+            return repository.findPage(afterId, pageSize, includeGameCards)
+                    .map(game -> toGameResponse(game, includeGameCards));
+        }
+        return inLocaleMany(locale -> Mono.fromCallable(() -> gameFields(fields, locale))
+                .flatMapMany(gameFields -> repository.findPage(afterId, pageSize, gameFields)
+                        .map(game -> gameResponseMapper.toGameResponse(game, gameFields))));
+    }
+
+    @Override
+    public Flux<GameResponseDTO> streamGames(boolean includeGameCards) {
+        return repository.streamAll(includeGameCards)
+                .map(game -> toGameResponse(game, includeGameCards));
+    }
+
+    @Override
+    public Flux<ServerSentEvent<byte[]>> streamGameChanges(String gameId) {
+        return inLocaleMany(locale -> repository.findVersion(gameId)
+                .switchIfEmpty(gameNotFound(locale))
+                .flatMapMany(version -> gameChanges.subscribe(gameId)));
+    }
+
+    @Override
+    public Mono<Long> getGameVersion(String gameId) {
+        return repository.findVersion(gameId);
+    }
+
+    @Override
+    public Flux<Card> getPlayerCards(String gameId, String playerName) {
+        return inLocaleMany(locale -> repository.findGameOnlyWithPlayer(gameId, playerName)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException(buildErrorMessage(
+                        AppErrorConstants.ERROR_PLAYER_NOT_FOUND, NO_PARAMS, locale))))
+                .flatMapIterable(game -> game.getPlayers().get(0).getOnHandCards().toCards()));
+    }
+
+    @Override
+    public Flux<PlayerTotalResponseDTO> getPlayersTotals(String gameId) {
+        return inLocaleMany(locale -> repository.findGameOnlyWithPlayerTotals(gameId)
+                .flatMap(game -> game.getPlayers().stream().anyMatch(player -> player.getTotal() == null)
+                        ? repository.findGameOnlyWithPlayers(gameId)
+                        : Mono.just(game))
+                .switchIfEmpty(gameNotFound(locale))
+                .flatMapIterable(game -> game.getPlayers().stream()
+                        .map(this::getTotalsCardsForEachPlayer)
+                        .sorted(Comparator.comparing(PlayerTotalResponseDTO::getTotal).reversed())
+                        .collect(Collectors.toList())));
+    }
+
+    @Override
+    public Flux<CardsBySuit> getCountRemainingCardsBySuit(String gameId) {
+        return repository.countRemainingCardsBySuit(gameId);
+    }
+
+    @Override
+    public Flux<CardsBySuitAndValue> getCountRemainingCardsSorted(String gameId, Sort sort) {
+        return repository.countRemainingCardsSorted(gameId, sort);
+    }
+
+    private GameResponseDTO toGameResponse(Game game, boolean includeGameCards) {
+        GameResponseDTO gameResponseDTO = gameResponseMapper.toGameResponse(game);
+        if (!includeGameCards) {
+            gameResponseDTO.setGameCards(null);
+        }
+        return gameResponseDTO;
+    }
+
+    /**
+     * Same as in {@link GameServiceImpl}: publishes the change, then maps the written game.
+     */
+    private GameResponseDTO changed(GameChangeType change, Game game, boolean delta,
+                                    Map<String, Integer> dealtCardsByPlayer) {
+        gameMetrics.record(game);
+        gameChanges.publish(change, game, dealtCardsByPlayer.keySet());
+        return delta ? gameResponseMapper.toGameDelta(game, dealtCardsByPlayer)
+                : gameResponseMapper.toGameResponse(game);
+    }
+
+    private PlayerTotalResponseDTO getTotalsCardsForEachPlayer(Player player) {
+        PlayerTotalResponseDTO playerTotalResponseDTO = new PlayerTotalResponseDTO();
+        playerTotalResponseDTO.setPlayer(player.getName());
+        if (player.getTotal() == null) {
+            playerTotalResponseDTO.setTotal(player.getOnHandCards().totalValue());
+            playerTotalResponseDTO.setNumberOfCards(player.getOnHandCards().size());
+        } else {
+            playerTotalResponseDTO.setTotal(player.getTotal());
+            playerTotalResponseDTO.setNumberOfCards(player.getNumberOfCards());
+        }
+        return playerTotalResponseDTO;
+    }
+
+    /**
+     * Tells apart the two reasons the conditional write adding a player can fail, looking up only the
+     * version of the game.
+     */
+    private Mono<Game> addPlayerFailure(String gameId, String playerName, Locale locale) {
+        return repository.findVersion(gameId)
+                .switchIfEmpty(gameNotFound(locale))
+                .flatMap(version -> Mono.error(new GameException(buildErrorMessage(
+                        AppErrorConstants.ERROR_USER_ALREADY_EXISTS, new Object[]{ playerName }, locale))));
+    }
+
+    /**
+     * Explains why a deal to a player did not apply, checked against the game as it is now.
+     */
+    private Mono<Game> dealCardsFailure(String gameId, String playerName, Locale locale) {
+        return repository.findById(gameId)
+                .switchIfEmpty(gameNotFound(locale))
+                .flatMap(game -> {
+                    if (!isExistentPlayer(game.getPlayers(), playerName)) {
+                        return Mono.error(new NotFoundException(buildErrorMessage(
+                                AppErrorConstants.ERROR_PLAYER_NOT_FOUND, NO_PARAMS, locale)));
+                    }
+                    return Mono.error(new GameException(buildErrorMessage(
+                            AppErrorConstants.ERROR_NO_MORE_CARDS_AVAILABLE, NO_PARAMS, locale)));
+                });
+    }
+
+    /**
+     * Explains why a deal to many players did not apply, checked against the game as it is now.
+     */
+    private Mono<Game> dealCardsFailure(String gameId, Integer cardsPerPlayer,
+                                        Map<String, Integer> cardsByPlayer, Locale locale) {
+        return repository.findById(gameId)
+                .switchIfEmpty(gameNotFound(locale))
+                .flatMap(game -> {
+                    if (!cardsByPlayer.keySet().stream()
+                            .allMatch(playerName -> isExistentPlayer(game.getPlayers(), playerName))) {
+                        return Mono.error(new NotFoundException(buildErrorMessage(
+                                AppErrorConstants.ERROR_PLAYER_NOT_FOUND, NO_PARAMS, locale)));
+                    }
+                    if (cardsPerPlayer != null && game.getPlayers().isEmpty()) {
+                        return Mono.error(new GameException(buildErrorMessage(
+                                AppErrorConstants.ERROR_ADD_PLAYER_TO_GAME, NO_PARAMS, locale)));
+                    }
+
+                    int numberOfCards = cardsPerPlayer != null
+                            ? cardsPerPlayer * game.getPlayers().size()
+                            : cardsByPlayer.values().stream().mapToInt(Integer::intValue).sum();
+                    return Mono.error(new GameException(buildErrorMessage(
+                            AppErrorConstants.ERROR_NOT_ENOUGH_CARDS_AVAILABLE, new Object[]{ numberOfCards }, locale)));
+                });
+    }
+
+    /**
+     * Sums the cards asked for each player in request order, merging the names equal ignoring case, as
+     * players are matched, under the first spelling given.
+     */
+    private Map<String, Integer> mergeCardsByPlayer(Map<String, Integer> cardsByPlayer, Locale locale) {
+        Map<String, Integer> merged = new LinkedHashMap<>();
+        Map<String, String> spellings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (cardsByPlayer != null) {
+            cardsByPlayer.forEach((playerName, numberOfCards) -> {
+                if (!StringUtils.hasLength(playerName)) {
+                    throw fieldCannotBeEmpty(GameConstants.PLAYER_NAME, locale);
+                }
+                merged.merge(spellings.computeIfAbsent(playerName, Function.identity()), numberOfCards, Integer::sum);
+            });
+        }
+        return merged;
+    }
+
+    private boolean isExistentPlayer(List<Player> players, String playerName) {
+        return players.stream()
+                .anyMatch(p -> p.getName().equalsIgnoreCase(playerName));
+    }
+
+    private Mono<Void> requiredNonEmpty(String fieldValue, String fieldName, Locale locale) {
+        return !StringUtils.hasLength(fieldValue)
+                ? Mono.error(fieldCannotBeEmpty(fieldName, locale))
+                : Mono.empty();
+    }
+
+    private Set<GameField> gameFields(List<String> fields, Locale locale) {
+        Set<GameField> gameFields = EnumSet.noneOf(GameField.class);
+        for (String field : fields) {
+            GameField gameField = GameField.fromName(field.trim());
+            if (gameField == null) {
+                throw new GameException(buildErrorMessage(
+                        AppErrorConstants.ERROR_UNKNOWN_FIELD, new Object[]{ field }, locale));
+            }
+            gameFields.add(gameField);
+        }
+        return gameFields;
+    }
+
+    private GameException fieldCannotBeEmpty(String fieldName, Locale locale) {
+        return new GameException(buildErrorMessage(
+                AppErrorConstants.ERROR_FIELD_CANNOT_BE_EMPTY, new Object[]{ fieldName }, locale));
+    }
+
+    /**
+     * The call made with the locale of the request, which {@code ReactiveWebConfig} puts in the
+     * subscriber context under {@code Locale.class}, or with the default locale outside of a request.
+     */
+    private <T> Mono<T> inLocale(Function<Locale, Mono<T>> call) {
+        return Mono.deferContextual(context -> call.apply(locale(context)));
+    }
+
+    private <T> Flux<T> inLocaleMany(Function<Locale, Flux<T>> call) {
+        return Flux.deferContextual(context -> call.apply(locale(context)));
+    }
+
+    private static Locale locale(ContextView context) {
+        return context.<Locale>getOrEmpty(Locale.class).orElseGet(Locale::getDefault);
+    }
+
+    private <T> Mono<T> gameNotFound(Locale locale) {
+        return Mono.error(() -> new NotFoundException(buildErrorMessage(
+                AppErrorConstants.ERROR_GAME_NOT_FOUND, NO_PARAMS, locale)));
+    }
+
+    private <T> Mono<T> concurrentUpdate(Locale locale) {
+        return Mono.error(() -> conflict(locale));
+    }
+
+    private ConflictException conflict(Locale locale) {
+        return new ConflictException(buildErrorMessage(AppErrorConstants.ERROR_CONCURRENT_UPDATE, NO_PARAMS, locale));
+    }
+
+    private String buildErrorMessage(String errorBundleKey, Object[] params, Locale locale) {
+        return messageSource.getMessage(errorBundleKey, params, locale);
+    }
+}
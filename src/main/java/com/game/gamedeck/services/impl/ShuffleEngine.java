@@ -0,0 +1,108 @@
+package com.game.gamedeck.services.impl;
+
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.shared.utils.DeckUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shuffles the shoe of a game with a seed drawn from the configured {@link Source}, and records the
+ * seed on the game, so the shuffle can be reproduced from the shoe it was applied to. Whatever the
+ * source, the shuffle itself is {@link DeckUtils#shuffleCards(com.game.gamedeck.model.CardStack, long)}.
+ */
+@Component
+public class ShuffleEngine {
+
+    public enum Source {
+
+        /**
+         * Seeds from the generator of the calling thread, shared with nothing else.
+         */
+        THREAD_LOCAL,
+
+        /**
+         * Seeds each game from its own {@link SplittableRandom}, seeded with the game's last shuffle
+         * seed, so the shuffles of a game are a reproducible sequence.
+         */
+        SPLITTABLE,
+
+        /**
+         * Seeds from a pool of {@link SecureRandom}, each filling a batch of seeds at once.
+         */
+        SECURE
+    }
+
+    private static final int SEEDS_PER_BATCH = 64;
+
+    private final Source source;
+    private final SecureSeeds[] securePool;
+
+    public ShuffleEngine(@Value("${game.shuffle.random:thread-local}") Source source) {
+        this.source = source;
+        int poolSize = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        this.securePool = new SecureSeeds[source == Source.SECURE ? poolSize : 0];
+        for (int i = 0; i < securePool.length; i++) {
+            securePool[i] = new SecureSeeds();
+        }
+    }
+
+    /**
+     * Shuffles the shoe of the game in place, recording the seed it was shuffled with on the game.
+     */
+    public long shuffle(Game game) {
+        long seed = nextSeed(game);
+        DeckUtils.shuffleCards(game.getGameCards(), seed);
+        game.setShuffleSeed(seed);
+        return seed;
+    }
+
+    /**
+     * The seed of the next shuffle of the game, as for a first shuffle when the game, or its last
+     * shuffle seed, isn't known.
+     */
+    public long nextSeed(Game game) {
+        switch (source) {
+            case SPLITTABLE:
+                return game == null || game.getShuffleSeed() == null ? ThreadLocalRandom.current().nextLong()
+                        : new SplittableRandom(game.getShuffleSeed()).split().nextLong();
+            case SECURE:
+                return securePool[(int) Thread.currentThread().threadId() & (securePool.length - 1)].next();
+            default:
+                return ThreadLocalRandom.current().nextLong();
+        }
+    }
+
+    /**
+     * One {@link SecureRandom} of the pool, drawing the entropy for {@value #SEEDS_PER_BATCH} seeds per
+     * call and handing them out one at a time.
+     */
+    private static class SecureSeeds {
+
+        private final SecureRandom random = new SecureRandom();
+        private final ByteBuffer seeds = ByteBuffer.allocate(SEEDS_PER_BATCH * Long.BYTES);
+        private final ReentrantLock lock = new ReentrantLock();
+
+        SecureSeeds() {
+            seeds.position(seeds.limit());
+        }
+
+        long next() {
+            lock.lock();
+            try {
+                if (!seeds.hasRemaining()) {
+                    random.nextBytes(seeds.array());
+                    seeds.clear();
+                }
+                return seeds.getLong();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -1,13 +0,0 @@
-package com.game.gamedeck.shared.configs;
-
-import org.modelmapper.ModelMapper;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class Configs {
-    @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
-    }
-}
@@ -0,0 +1,27 @@
+package com.game.gamedeck.shared.configs;
+
+import com.game.gamedeck.repositories.GameRepository;
+import com.game.gamedeck.repositories.impl.CachingGameRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "game.cache.enabled", havingValue = "true")
+public class GameCacheConfig {
+
+    @Bean
+    @Primary
+    public CachingGameRepository cachingGameRepository(
+            GameRepository gameRepository,
+            @Value("${game.cache.maximum-size:10000}") long maximumSize,
+            @Value("${game.cache.expire-after-write:5s}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        return new CachingGameRepository(gameRepository, maximumSize, expireAfterWrite, meterRegistry);
+    }
+}
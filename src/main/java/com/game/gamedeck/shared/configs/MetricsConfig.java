@@ -0,0 +1,20 @@
+package com.game.gamedeck.shared.configs;
+
+import com.game.gamedeck.repositories.impl.RepositoryTimers;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Static, as a bean post processor, and with the registry resolved on the first timed call, so
+     * neither this configuration nor the registry is created ahead of the other beans.
+     */
+    @Bean
+    public static RepositoryTimers repositoryTimers(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RepositoryTimers(meterRegistry);
+    }
+}
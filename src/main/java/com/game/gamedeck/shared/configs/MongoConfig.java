@@ -0,0 +1,24 @@
+package com.game.gamedeck.shared.configs;
+
+import com.game.gamedeck.repositories.converters.BinaryToCardStackConverter;
+import com.game.gamedeck.repositories.converters.BytesToCardStackConverter;
+import com.game.gamedeck.repositories.converters.CardListToCardStackConverter;
+import com.game.gamedeck.repositories.converters.CardStackWriteConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.Arrays;
+
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(Arrays.asList(
+                new CardStackWriteConverter(),
+                new BinaryToCardStackConverter(),
+                new BytesToCardStackConverter(),
+                new CardListToCardStackConverter()));
+    }
+}
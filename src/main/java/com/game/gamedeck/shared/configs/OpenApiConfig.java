@@ -0,0 +1,35 @@
+package com.game.gamedeck.shared.configs;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Contact;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.info.License;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class OpenApiConfig {
+
+    Contact contact = new Contact()
+            .name("Jorge Luis de Oliveira Barbosa")
+            .url("https://www.linkedin.com/in/jorge-barbosa-295a3334/")
+            .email("jorgeluis6@gmail.com");
+
+    Info apiInfo = new Info()
+            .title("Deck of Cards Game")
+            .description("The game API is a very basic game in which one or more decks are added to create a ‘game\n" +
+                      "deck’, commonly referred to as a shoe, along with a group of players getting cards from the\n" +
+                      "game deck.")
+            .version("1.0")
+            .contact(contact)
+            .license(new License()
+                    .name("Apache 2.0")
+                    .url("http://www.apache.org/licenses/LICENSE-2.0"));
+
+    @Bean
+    public OpenAPI api() {
+        return new OpenAPI().info(apiInfo);
+    }
+}
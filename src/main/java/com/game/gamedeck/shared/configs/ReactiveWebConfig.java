@@ -0,0 +1,141 @@
+package com.game.gamedeck.shared.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.gamedeck.shared.constants.GameMediaTypes;
+import com.game.gamedeck.shared.mappers.CardOrdinalsModule;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.data.web.ReactiveSortHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2CodecSupport;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves {@code Sort} request parameters on WebFlux, as Spring Data does on Spring MVC, and serves
+ * the same media types as {@link WebConfig} does there, varying every response by the Accept header.
+ * The locale of each request is handed to the reactive service through the subscriber context.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new ReactiveSortHandlerMethodArgumentResolver());
+    }
+
+    @Bean
+    public WebFilter varyByAccept() {
+        return (exchange, chain) -> {
+            exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            return chain.filter(exchange);
+        };
+    }
+
+    /**
+     * Puts the locale resolved from the request in the subscriber context, where the reactive service
+     * reads it to build its messages, as WebFlux leaves {@code LocaleContextHolder} empty.
+     */
+    @Bean
+    public WebFilter requestLocale() {
+        return (exchange, chain) -> {
+            Locale locale = exchange.getLocaleContext().getLocale();
+            return locale == null ? chain.filter(exchange)
+                    : chain.filter(exchange).contextWrite(Context.of(Locale.class, locale));
+        };
+    }
+
+    /**
+     * Applied after the customizer setting up the JSON codecs with the application's object mapper.
+     * Custom codecs are consulted ahead of the default ones, so the JSON codecs are registered again
+     * in front of the CBOR ones, to stay the answer to requests accepting any media type.
+     */
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public CodecCustomizer cardOrdinalsCodecCustomizer(ObjectMapper objectMapper) {
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        return configurer -> {
+            Jackson2JsonEncoder jsonEncoder = new Jackson2JsonEncoder(objectMapper);
+            Jackson2JsonDecoder jsonDecoder = new Jackson2JsonDecoder(objectMapper);
+            addCardOrdinals(jsonEncoder, jsonDecoder, objectMapper,
+                    MediaType.APPLICATION_JSON, GameMediaTypes.CARD_ORDINALS_JSON, WebConfig.APPLICATION_ANY_JSON);
+            configurer.defaultCodecs().jackson2JsonEncoder(jsonEncoder);
+            configurer.defaultCodecs().jackson2JsonDecoder(jsonDecoder);
+
+            Jackson2CborEncoder cborEncoder = new Jackson2CborValueEncoder(cborMapper,
+                    MediaType.APPLICATION_CBOR, GameMediaTypes.CARD_ORDINALS_CBOR);
+            Jackson2CborDecoder cborDecoder = new Jackson2CborDecoder(cborMapper,
+                    MediaType.APPLICATION_CBOR, GameMediaTypes.CARD_ORDINALS_CBOR);
+            addCardOrdinals(cborEncoder, cborDecoder, cborMapper,
+                    MediaType.APPLICATION_CBOR, GameMediaTypes.CARD_ORDINALS_CBOR, null);
+            configurer.customCodecs().register(jsonEncoder);
+            configurer.customCodecs().register(jsonDecoder);
+            configurer.customCodecs().register(cborEncoder);
+            configurer.customCodecs().register(cborDecoder);
+        };
+    }
+
+    private void addCardOrdinals(Jackson2CodecSupport encoder, Jackson2CodecSupport decoder,
+                                 ObjectMapper objectMapper, MediaType mediaType, MediaType cardOrdinalsType,
+                                 MediaType suffixType) {
+        ObjectMapper cardOrdinalsMapper = CardOrdinalsModule.withCardOrdinals(objectMapper);
+        for (Jackson2CodecSupport codec : new Jackson2CodecSupport[]{ encoder, decoder }) {
+            codec.registerObjectMappersForType(Object.class, registrations -> {
+                registrations.put(mediaType, objectMapper);
+                registrations.put(cardOrdinalsType, cardOrdinalsMapper);
+                if (suffixType != null) {
+                    registrations.put(suffixType, objectMapper);
+                }
+            });
+        }
+    }
+
+    /**
+     * Spring's CBOR encoder only encodes single values, which is all the CBOR endpoints answer with:
+     * a body is encoded as one value, and a {@code Flux} as the array of its elements.
+     */
+    private static class Jackson2CborValueEncoder extends Jackson2CborEncoder {
+
+        Jackson2CborValueEncoder(ObjectMapper mapper, MimeType... mimeTypes) {
+            super(mapper, mimeTypes);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono) {
+                return Mono.from(inputStream)
+                        .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                        .flux();
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream).collectList()
+                    .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+                    .flux();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.game.gamedeck.shared.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.gamedeck.shared.constants.GameMediaTypes;
+import com.game.gamedeck.shared.mappers.CardOrdinalsModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Serves CBOR next to JSON on Spring MVC, and both with the cards as their codes for the card ordinal
+ * media types. The plain media types come first, so a request accepting anything still gets JSON. As
+ * the body depends on the Accept header, every response says it varies by it.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebConfig implements WebMvcConfigurer {
+
+    static final MediaType APPLICATION_ANY_JSON = new MediaType("application", "*+json");
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (converters.stream().noneMatch(MappingJackson2CborHttpMessageConverter.class::isInstance)) {
+            converters.add(new MappingJackson2CborHttpMessageConverter());
+        }
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2HttpMessageConverter) {
+                addCardOrdinals((AbstractJackson2HttpMessageConverter) converter,
+                        MediaType.APPLICATION_JSON, GameMediaTypes.CARD_ORDINALS_JSON, APPLICATION_ANY_JSON);
+            } else if (converter instanceof MappingJackson2CborHttpMessageConverter) {
+                ((MappingJackson2CborHttpMessageConverter) converter).setSupportedMediaTypes(
+                        List.of(MediaType.APPLICATION_CBOR, GameMediaTypes.CARD_ORDINALS_CBOR));
+                addCardOrdinals((AbstractJackson2HttpMessageConverter) converter,
+                        MediaType.APPLICATION_CBOR, GameMediaTypes.CARD_ORDINALS_CBOR, null);
+            }
+        }
+    }
+
+    private void addCardOrdinals(AbstractJackson2HttpMessageConverter converter, MediaType mediaType,
+                                 MediaType cardOrdinalsType, MediaType suffixType) {
+        ObjectMapper objectMapper = converter.getObjectMapper();
+        ObjectMapper cardOrdinalsMapper = CardOrdinalsModule.withCardOrdinals(objectMapper);
+        converter.registerObjectMappersForType(Object.class, registrations -> {
+            registrations.put(mediaType, objectMapper);
+            registrations.put(cardOrdinalsType, cardOrdinalsMapper);
+            if (suffixType != null) {
+                registrations.put(suffixType, objectMapper);
+            }
+        });
+    }
+}
@@ -3,10 +3,14 @@ package com.game.gamedeck.shared.constants;
 public class AppErrorConstants {
     public static final String ERROR_ADD_DECK_TO_GAME = "error.add.deck.to.game";
     public static final String ERROR_ADD_PLAYER_TO_GAME = "error.add.player.to.game";
+    public static final String ERROR_CONCURRENT_UPDATE = "error.concurrent.update";
+    public static final String ERROR_DEAL_CARDS_MODE = "error.deal.cards.mode";
     public static final String ERROR_FIELD_CANNOT_BE_EMPTY = "error.field.cannot.be.empty";
     public static final String ERROR_GAME_NOT_FOUND = "error.game.not.found";
     public static final String ERROR_NO_MORE_CARDS_AVAILABLE = "error.no.cards.available";
+    public static final String ERROR_NOT_ENOUGH_CARDS_AVAILABLE = "error.not.enough.cards.available";
     public static final String ERROR_PLAYER_NAME_NOT_BLANK = "error.player.name.not.blank";
     public static final String ERROR_PLAYER_NOT_FOUND = "error.player.not.found";
+    public static final String ERROR_UNKNOWN_FIELD = "error.unknown.field";
     public static final String ERROR_USER_ALREADY_EXISTS = "error.user.already.exists";
 }
@@ -0,0 +1,9 @@
+package com.game.gamedeck.shared.constants;
+
+public enum GameChangeType {
+    CARDS_DEALT,
+    CARDS_SHUFFLED,
+    PLAYER_ADDED,
+    PLAYER_REMOVED,
+    DECK_ADDED
+}
@@ -3,4 +3,6 @@ package com.game.gamedeck.shared.constants;
 public class GameConstants {
     public static final String GAME_ID = "Game ID";
     public static final String PLAYER_NAME = "Player Name";
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
 }
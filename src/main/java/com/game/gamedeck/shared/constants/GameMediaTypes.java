@@ -0,0 +1,14 @@
+package com.game.gamedeck.shared.constants;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Media types of the API besides JSON. The card ordinal ones encode every card as its code, from 0 for
+ * the ace of hearts to 51 for the king of clubs, instead of an object.
+ */
+public class GameMediaTypes {
+    public static final String CARD_ORDINALS_JSON_VALUE = "application/vnd.gamedeck.card-ordinals+json";
+    public static final String CARD_ORDINALS_CBOR_VALUE = "application/vnd.gamedeck.card-ordinals+cbor";
+    public static final MediaType CARD_ORDINALS_JSON = MediaType.parseMediaType(CARD_ORDINALS_JSON_VALUE);
+    public static final MediaType CARD_ORDINALS_CBOR = MediaType.parseMediaType(CARD_ORDINALS_CBOR_VALUE);
+}
@@ -0,0 +1,63 @@
+package com.game.gamedeck.shared.mappers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.game.gamedeck.model.Card;
+import com.game.gamedeck.model.CardEnum;
+
+import java.io.IOException;
+
+/**
+ * Writes each {@link Card} as its {@link CardEnum} code, and reads it back as the shared card of the
+ * code, so a list of cards is a list of small integers.
+ */
+public class CardOrdinalsModule extends SimpleModule {
+
+    public CardOrdinalsModule() {
+        super("CardOrdinals");
+        addSerializer(Card.class, new CardOrdinalSerializer());
+        addDeserializer(Card.class, new CardOrdinalDeserializer());
+    }
+
+    /**
+     * A copy of the object mapper writing and reading cards as their codes.
+     */
+    public static <T extends ObjectMapper> T withCardOrdinals(T objectMapper) {
+        @SuppressWarnings("unchecked")
+        T copy = (T) objectMapper.copy();
+        copy.registerModule(new CardOrdinalsModule());
+        return copy;
+    }
+
+    private static class CardOrdinalSerializer extends JsonSerializer<Card> {
+
+        @Override
+        public void serialize(Card card, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(CardEnum.fromCard(card).getCode());
+        }
+    }
+
+    private static class CardOrdinalDeserializer extends JsonDeserializer<Card> {
+
+        private static final int NUMBER_OF_CARDS = CardEnum.values().length;
+
+        @Override
+        public Card deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+                return (Card) context.handleUnexpectedToken(Card.class, parser);
+            }
+            int code = parser.getIntValue();
+            if (code < 0 || code >= NUMBER_OF_CARDS) {
+                return (Card) context.handleWeirdNumberValue(Card.class, code, "not a card code");
+            }
+            return CardEnum.fromCode(code).toCard();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.game.gamedeck.shared.mappers;
+
+import com.game.gamedeck.model.Card;
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.GameField;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.responses.GameChangeResponseDTO;
+import com.game.gamedeck.responses.GameResponseDTO;
+import com.game.gamedeck.responses.PlayerResponseDTO;
+import com.game.gamedeck.shared.constants.GameChangeType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Maps games to their API responses. Cards are the shared {@link Card} instances of each
+ * {@link com.game.gamedeck.model.CardEnum}, so a response only allocates the lists holding them.
+ */
+@Component
+public class GameResponseMapper {
+
+    public GameResponseDTO toGameResponse(Game game) {
+        List<Player> players = game.getPlayers() == null ? new ArrayList<>() : game.getPlayers();
+        List<PlayerResponseDTO> playerResponses = new ArrayList<>(players.size());
+        for (Player player : players) {
+            playerResponses.add(toPlayerResponse(player));
+        }
+        return new GameResponseDTO(game.getId(), toCards(game.getGameCards()), playerResponses);
+    }
+
+    /**
+     * The response with only the given fields of the game, leaving the others out.
+     */
+    public GameResponseDTO toGameResponse(Game game, Set<GameField> fields) {
+        boolean playerNames = fields.contains(GameField.PLAYERS) || fields.contains(GameField.PLAYER_NAMES);
+        boolean playerCards = fields.contains(GameField.PLAYERS) || fields.contains(GameField.PLAYER_CARDS);
+
+        List<PlayerResponseDTO> playerResponses = null;
+        if (playerNames || playerCards) {
+            List<Player> players = game.getPlayers() == null ? new ArrayList<>() : game.getPlayers();
+            playerResponses = new ArrayList<>(players.size());
+            for (Player player : players) {
+                playerResponses.add(new PlayerResponseDTO(playerNames ? player.getName() : null,
+                        playerCards ? toCards(player.getOnHandCards()) : null));
+            }
+        }
+        return new GameResponseDTO(fields.contains(GameField.ID) ? game.getId() : null,
+                fields.contains(GameField.GAME_CARDS) ? toCards(game.getGameCards()) : null, playerResponses);
+    }
+
+    /**
+     * The delta response of a write: the game without its cards, the number of cards left, and only the
+     * players named in {@code dealtCardsByPlayer}, ignoring case, each with the number of cards the write
+     * dealt to it.
+     */
+    public GameResponseDTO toGameDelta(Game game, Map<String, Integer> dealtCardsByPlayer) {
+        Map<String, Integer> dealtCards = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        dealtCards.putAll(dealtCardsByPlayer);
+
+        List<PlayerResponseDTO> playerResponses = new ArrayList<>();
+        for (Player player : game.getPlayers() == null ? new ArrayList<Player>() : game.getPlayers()) {
+            Integer dealtCount = dealtCards.get(player.getName());
+            if (dealtCount != null) {
+                PlayerResponseDTO playerResponse = toPlayerResponse(player);
+                List<Card> onHandCards = playerResponse.getOnHandCards();
+                playerResponse.setDealtCards(onHandCards.subList(Math.max(0, onHandCards.size() - dealtCount),
+                        onHandCards.size()));
+                playerResponse.setTotal(player.getOnHandCards().totalValue());
+                playerResponses.add(playerResponse);
+            }
+        }
+
+        GameResponseDTO gameResponse = new GameResponseDTO(game.getId(), null, playerResponses);
+        gameResponse.setVersion(game.getVersion());
+        gameResponse.setCardsLeft(cardsLeft(game));
+        return gameResponse;
+    }
+
+    public GameChangeResponseDTO toGameChange(GameChangeType change, Game game, Collection<String> playerNames) {
+        return new GameChangeResponseDTO(game.getId(), change, new ArrayList<>(playerNames), game.getVersion(),
+                cardsLeft(game));
+    }
+
+    public PlayerResponseDTO toPlayerResponse(Player player) {
+        return new PlayerResponseDTO(player.getName(), toCards(player.getOnHandCards()));
+    }
+
+    public List<Card> toCards(CardStack cards) {
+        return cards == null ? new ArrayList<>() : cards.toCards();
+    }
+
+    private Integer cardsLeft(Game game) {
+        return game.getCardCounts() == null ? null : Arrays.stream(game.getCardCounts()).sum();
+    }
+}
@@ -1,24 +1,76 @@
 package com.game.gamedeck.shared.utils;
 
-import com.game.gamedeck.model.Card;
-import org.springframework.util.CollectionUtils;
+import com.game.gamedeck.model.CardStack;
 
-import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public class DeckUtils {
 
-    public static void shuffleCards(List<Card> cards) {
+    private static final int PERMUTATION_ROUNDS = 6;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
 
-        if (CollectionUtils.isEmpty(cards)) {
+    public static void shuffleCards(CardStack cards) {
+        shuffleCards(cards, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Shuffles the cards with a generator seeded with {@code seed}. The generator and the algorithm
+     * are fixed, so the same seed always gives the same shuffle and a recorded seed replays it.
+     */
+    public static void shuffleCards(CardStack cards, long seed) {
+        shuffleCards(cards, new SplittableRandom(seed));
+    }
+
+    /**
+     * Shuffles the cards with a Fisher-Yates shuffle drawing from the given generator, every order of
+     * the cards being equally likely.
+     */
+    public static void shuffleCards(CardStack cards, RandomGenerator random) {
+
+        if (cards == null || cards.isEmpty()) {
             return;
         }
 
-        for (int i = 0; i < cards.size(); i++) {
-            int index = (int) (Math.random() * cards.size());
-            Card currentCard = cards.get(i);
-            Card movedCard = cards.get(index);
-            cards.set(index, currentCard);
-            cards.set(i, movedCard);
+        for (int i = cards.size() - 1; i > 0; i--) {
+            cards.swap(i, random.nextInt(i + 1));
         }
     }
+
+    /**
+     * The position the element at {@code index} takes in a pseudo random permutation of {@code size}
+     * elements keyed by {@code seed}, computed on its own so the permutation never has to be stored.
+     * It is a balanced Feistel network over the smallest even number of bits covering the size, walking
+     * the cycle until it lands back below the size.
+     */
+    public static int permute(int index, int size, long seed) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int halfBits = Math.max(1, (33 - Integer.numberOfLeadingZeros(size - 1)) / 2);
+        int halfMask = (1 << halfBits) - 1;
+
+        int position = index;
+        do {
+            int left = position >>> halfBits;
+            int right = position & halfMask;
+            for (int round = 1; round <= PERMUTATION_ROUNDS; round++) {
+                int mixed = left ^ (int) (mix(seed + round * GOLDEN_GAMMA + right) & halfMask);
+                left = right;
+                right = mixed;
+            }
+            position = (left << halfBits) | right;
+        } while (position >= size);
+        return position;
+    }
+
+    /**
+     * The SplitMix64 finalizer.
+     */
+    private static long mix(long value) {
+        long z = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
 }
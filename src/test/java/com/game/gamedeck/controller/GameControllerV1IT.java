@@ -1,11 +1,14 @@
 package com.game.gamedeck.controller;
 
 import com.game.gamedeck.model.Card;
+import com.game.gamedeck.model.CardEnum;
+import com.game.gamedeck.model.CardStack;
 import com.game.gamedeck.model.Game;
 import com.game.gamedeck.model.Player;
 import com.game.gamedeck.repositories.GameRepository;
 import com.game.gamedeck.requests.CreateGameRequestDTO;
 import com.game.gamedeck.responses.GameResponseDTO;
+import com.game.gamedeck.responses.PlayerResponseDTO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -50,7 +53,7 @@ public class GameControllerV1IT {
 
     private GameResponseDTO getMockedGameResponseDTO() {
         GameResponseDTO response = new GameResponseDTO();
-        response.setPlayers(Arrays.asList(PLAYER_JORGE));
+        response.setPlayers(Arrays.asList(new PlayerResponseDTO(PLAYER_NAME)));
         response.setGameCards(Arrays.asList(CARD_ACE_HEARTS, CARD_ACE_CLUBS));
         response.setId(GAME_ID);
         return response;
@@ -67,7 +70,7 @@ public class GameControllerV1IT {
         Game game = new Game();
         game.setId(GAME_ID);
         game.setPlayers(Arrays.asList(PLAYER_JORGE));
-        game.setGameCards(Arrays.asList(CARD_ACE_HEARTS, CARD_ACE_CLUBS));
+        game.setGameCards(CardStack.of(CardEnum.ACE_HEARTS, CardEnum.ACE_CLUBS));
         return Optional.ofNullable(game);
     }
 }
\ No newline at end of file
@@ -1,25 +1,41 @@
 package com.game.gamedeck.controller;
 
 import com.game.gamedeck.model.Card;
-import com.game.gamedeck.model.Player;
 import com.game.gamedeck.requests.CreateGameRequestDTO;
 import com.game.gamedeck.responses.GameResponseDTO;
+import com.game.gamedeck.responses.PlayerResponseDTO;
 import com.game.gamedeck.services.GameService;
+import com.game.gamedeck.shared.constants.GameMediaTypes;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.google.gson.Gson;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import reactor.core.publisher.Flux;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(GameControllerV1.class)
@@ -28,7 +44,7 @@ public class GameControllerV1Test {
     private static final Card CARD_ACE_CLUBS = new Card(1,"CLUBS","A");
     private static final Card CARD_ACE_HEARTS = new Card(1,"HEARTS","A");
     private static final String PLAYER_NAME = "jorge";
-    private static final Player PLAYER_JORGE = new Player(PLAYER_NAME);
+    private static final PlayerResponseDTO PLAYER_JORGE = new PlayerResponseDTO(PLAYER_NAME);
     private static final String GAME_ID = "5ed98daf2cd10901dc4f8422";
     private static final String URI_API_GAMES = "/game-management/api/v1/games";
 
@@ -57,6 +73,132 @@ public class GameControllerV1Test {
 
     }
 
+    @Test
+    public void streamAllGames_writesOneGamePerLine() throws Exception {
+
+        GameResponseDTO responseDTO = getMockedGameResponseDTO();
+        responseDTO.setGameCards(null);
+        when(gameService.streamGames(false)).thenReturn(Stream.of(responseDTO, responseDTO));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+                .get(URI_API_GAMES + "/stream")
+                .param("includeGameCards", "false"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"id\":\"" + GAME_ID + "\",\"players\":[{\"name\":\"jorge\",\"onHandCards\":[]}]}\n" +
+                        "{\"id\":\"" + GAME_ID + "\",\"players\":[{\"name\":\"jorge\",\"onHandCards\":[]}]}\n"));
+    }
+
+    @Test
+    public void getPlayerCards_ofTheVersionTheClientHas_isNotModified() throws Exception {
+
+        when(gameService.getGameVersion(GAME_ID)).thenReturn(Optional.of(7L));
+        when(gameService.getPlayerCards(GAME_ID, PLAYER_NAME)).thenReturn(Arrays.asList(CARD_ACE_CLUBS));
+        String uri = URI_API_GAMES + "/" + GAME_ID + "/players/" + PLAYER_NAME + "/cards";
+
+        mockMvc.perform(MockMvcRequestBuilders.get(uri))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"7\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().json("[{value: 1, suit: CLUBS, faceValue: A}]"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(uri).header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(gameService, times(1)).getPlayerCards(GAME_ID, PLAYER_NAME);
+    }
+
+    @Test
+    public void streamGameChanges_writesEachChangeAsAnEvent() throws Exception {
+
+        ServerSentEvent<byte[]> change = ServerSentEvent.builder("{\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8))
+                .id("7").event("CARDS_DEALT").build();
+        when(gameService.streamGameChanges(GAME_ID)).thenReturn(Flux.just(change, change));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+                .get(URI_API_GAMES + "/" + GAME_ID + "/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(
+                        "id:7\nevent:CARDS_DEALT\ndata:{\"id\":\"1\"}\n\n" +
+                        "id:7\nevent:CARDS_DEALT\ndata:{\"id\":\"1\"}\n\n"));
+    }
+
+    @Test
+    public void createGame_inCbor_answersInCbor() throws Exception {
+
+        GameResponseDTO responseDTO = getMockedGameResponseDTO();
+        when(gameService.createGame(any())).thenReturn(responseDTO);
+        CBORMapper cborMapper = new CBORMapper();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+                .post(URI_API_GAMES)
+                .content(cborMapper.writeValueAsBytes(getCreateGameRequestDTO()))
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertThat(cborMapper.readValue(result.getResponse().getContentAsByteArray(), GameResponseDTO.class),
+                is(responseDTO));
+    }
+
+    @Test
+    public void getGame_withFields_answersOnlyThoseFields() throws Exception {
+
+        GameResponseDTO responseDTO = new GameResponseDTO(GAME_ID, null, null);
+        when(gameService.getGameVersion(GAME_ID)).thenReturn(Optional.of(7L));
+        when(gameService.getGame(GAME_ID, Arrays.asList("id", "players.name"))).thenReturn(responseDTO);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URI_API_GAMES + "/" + GAME_ID).param("fields", "id,players.name"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"7\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().json("{ id: " + GAME_ID + " }", true));
+    }
+
+    @Test
+    public void getPlayerCards_asCardOrdinals_writesTheCardCodes() throws Exception {
+
+        when(gameService.getGameVersion(GAME_ID)).thenReturn(Optional.of(7L));
+        when(gameService.getPlayerCards(GAME_ID, PLAYER_NAME)).thenReturn(Arrays.asList(CARD_ACE_HEARTS, CARD_ACE_CLUBS));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get(URI_API_GAMES + "/" + GAME_ID + "/players/" + PLAYER_NAME + "/cards")
+                .accept(GameMediaTypes.CARD_ORDINALS_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(GameMediaTypes.CARD_ORDINALS_JSON))
+                .andExpect(content().string("[0,3]"));
+    }
+
+    @Test
+    public void getPlayerCards_asCardOrdinalsInCbor_writesTheCardCodes() throws Exception {
+
+        when(gameService.getGameVersion(GAME_ID)).thenReturn(Optional.of(7L));
+        when(gameService.getPlayerCards(GAME_ID, PLAYER_NAME)).thenReturn(Arrays.asList(CARD_ACE_HEARTS, CARD_ACE_CLUBS));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+                .get(URI_API_GAMES + "/" + GAME_ID + "/players/" + PLAYER_NAME + "/cards")
+                .accept(GameMediaTypes.CARD_ORDINALS_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(GameMediaTypes.CARD_ORDINALS_CBOR))
+                .andReturn();
+
+        assertThat(new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), int[].class),
+                is(new int[]{ 0, 3 }));
+    }
+
     private String getExpectedMockedGameResponse() {
         return "{ id: 5ed98daf2cd10901dc4f8422, " +
                 "gameCards: [" +
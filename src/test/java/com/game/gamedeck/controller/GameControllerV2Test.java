@@ -0,0 +1,172 @@
+package com.game.gamedeck.controller;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.game.gamedeck.exceptions.NotFoundException;
+import com.game.gamedeck.model.Card;
+import com.game.gamedeck.requests.CreateGameRequestDTO;
+import com.game.gamedeck.responses.GameResponseDTO;
+import com.game.gamedeck.responses.PlayerResponseDTO;
+import com.game.gamedeck.services.ReactiveGameService;
+import com.game.gamedeck.shared.constants.GameMediaTypes;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(GameControllerV2.class)
+public class GameControllerV2Test {
+
+    private static final Card CARD_ACE_CLUBS = new Card(1,"CLUBS","A");
+    private static final Card CARD_ACE_HEARTS = new Card(1,"HEARTS","A");
+    private static final String PLAYER_NAME = "jorge";
+    private static final PlayerResponseDTO PLAYER_JORGE = new PlayerResponseDTO(PLAYER_NAME);
+    private static final String GAME_ID = "5ed98daf2cd10901dc4f8422";
+    private static final String URI_API_GAMES = "/game-management/api/v2/games";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveGameService gameService;
+
+    @Test
+    public void createGame_successfully() {
+
+        when(gameService.createGame(any())).thenReturn(Mono.just(getMockedGameResponseDTO()));
+
+        webTestClient.post().uri(URI_API_GAMES)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(getCreateGameRequestDTO())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().json(getExpectedMockedGameResponse());
+    }
+
+    @Test
+    public void createGame_withoutPlayers_failsValidation() {
+
+        CreateGameRequestDTO request = getCreateGameRequestDTO();
+        request.setPlayers(Collections.emptyList());
+
+        webTestClient.post().uri(URI_API_GAMES)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.errors[0].field").isEqualTo("players");
+    }
+
+    @Test
+    public void createGame_withAMalformedBody_isBadRequest() {
+
+        webTestClient.post().uri(URI_API_GAMES)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"players\": [")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void putGames_isMethodNotAllowed() {
+
+        webTestClient.put().uri(URI_API_GAMES)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(getCreateGameRequestDTO())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.METHOD_NOT_ALLOWED);
+    }
+
+    @Test
+    public void getPlayerCards_ofUnknownGame_isNotFound() {
+
+        when(gameService.getGameVersion(GAME_ID)).thenReturn(Mono.empty());
+        when(gameService.getPlayerCards(GAME_ID, PLAYER_NAME))
+                .thenReturn(Flux.error(new NotFoundException("Player not found")));
+
+        webTestClient.get().uri(URI_API_GAMES + "/" + GAME_ID + "/players/" + PLAYER_NAME + "/cards")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Player not found");
+    }
+
+    @Test
+    public void deleteGame_getsTheLocaleOfTheRequest() {
+
+        when(gameService.deleteGame(GAME_ID)).thenReturn(Mono.deferContextual(context ->
+                Mono.error(new NotFoundException(context.get(Locale.class).toLanguageTag()))));
+
+        webTestClient.delete().uri(URI_API_GAMES + "/" + GAME_ID)
+                .header(HttpHeaders.ACCEPT_LANGUAGE, "es-ES")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("es-ES");
+    }
+
+    @Test
+    public void getPlayersTotals_ofTheVersionTheClientHas_isNotModified() {
+
+        when(gameService.getGameVersion(GAME_ID)).thenReturn(Mono.just(7L));
+        when(gameService.getPlayersTotals(GAME_ID)).thenReturn(Flux.error(new IllegalStateException("read")));
+
+        webTestClient.get().uri(URI_API_GAMES + "/" + GAME_ID + "/players/totals")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"6\", \"7\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"7\"")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    public void getPlayerCards_asCardOrdinalsInCbor_writesTheCardCodes() throws Exception {
+
+        when(gameService.getGameVersion(GAME_ID)).thenReturn(Mono.just(7L));
+        when(gameService.getPlayerCards(GAME_ID, PLAYER_NAME)).thenReturn(Flux.just(CARD_ACE_HEARTS, CARD_ACE_CLUBS));
+
+        byte[] body = webTestClient.get().uri(URI_API_GAMES + "/" + GAME_ID + "/players/" + PLAYER_NAME + "/cards")
+                .accept(GameMediaTypes.CARD_ORDINALS_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(GameMediaTypes.CARD_ORDINALS_CBOR)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        assertThat(new CBORMapper().readValue(body, int[].class), is(new int[]{ 0, 3 }));
+    }
+
+    private String getExpectedMockedGameResponse() {
+        return "{ id: 5ed98daf2cd10901dc4f8422, " +
+                "gameCards: [" +
+                    "{value: 1, suit: HEARTS, faceValue: A}, " +
+                    "{value: 1, suit: CLUBS, faceValue: A}], " +
+                "players : [{ name: jorge , onHandCards: []}]}";
+    }
+
+    private GameResponseDTO getMockedGameResponseDTO() {
+        GameResponseDTO response = new GameResponseDTO();
+        response.setPlayers(Arrays.asList(PLAYER_JORGE));
+        response.setGameCards(Arrays.asList(CARD_ACE_HEARTS, CARD_ACE_CLUBS));
+        response.setId(GAME_ID);
+        return response;
+    }
+
+    private CreateGameRequestDTO getCreateGameRequestDTO() {
+        CreateGameRequestDTO request = new CreateGameRequestDTO();
+        request.setNumberOfDecks(1);
+        request.setPlayers(Arrays.asList(PLAYER_NAME));
+        return request;
+    }
+}
@@ -1,29 +1,47 @@
 package com.game.gamedeck.controller;
 
+import com.game.gamedeck.exceptions.ConflictException;
 import com.game.gamedeck.exceptions.GameException;
+import com.game.gamedeck.exceptions.NotFoundException;
 import com.game.gamedeck.model.Card;
 import com.game.gamedeck.model.CardEnum;
+import com.game.gamedeck.model.CardStack;
 import com.game.gamedeck.model.Game;
 import com.game.gamedeck.model.Player;
 import com.game.gamedeck.repositories.GameRepository;
 import com.game.gamedeck.requests.AddPlayerRequestDTO;
 import com.game.gamedeck.requests.CreateGameRequestDTO;
+import com.game.gamedeck.requests.DealCardsRequestDTO;
 import com.game.gamedeck.responses.GameResponseDTO;
 import com.game.gamedeck.responses.OperationStatus;
+import com.game.gamedeck.responses.PlayerResponseDTO;
 import com.game.gamedeck.responses.PlayerTotalResponseDTO;
+import com.game.gamedeck.services.impl.ConflictRetry;
+import com.game.gamedeck.services.impl.GameChangeBroadcaster;
+import com.game.gamedeck.services.impl.GameCommandExecutor;
+import com.game.gamedeck.services.impl.GameMetrics;
+import com.game.gamedeck.services.impl.ShuffleEngine;
 import com.game.gamedeck.services.impl.GameServiceImpl;
+import com.game.gamedeck.shared.constants.GameChangeType;
+import com.game.gamedeck.shared.constants.GameConstants;
 import com.game.gamedeck.shared.constants.RequestOperationName;
 import com.game.gamedeck.shared.constants.RequestOperationStatus;
+import com.game.gamedeck.shared.mappers.GameResponseMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hamcrest.collection.IsMapContaining;
-import org.junit.Before;
-import org.junit.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.modelmapper.ModelMapper;
+import org.mockito.Spy;
 import org.springframework.context.MessageSource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -31,6 +49,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.collection.IsMapWithSize.aMapWithSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.BDDMockito.any;
 import static org.mockito.BDDMockito.*;
 
@@ -55,36 +74,53 @@ public class GameServiceTest {
     private GameRepository gameRepository;
 
     @Mock
-    private ModelMapper mapper;
+    private GameResponseMapper mapper;
 
     @Mock
     private MessageSource messageSource;
 
+    @Mock
+    private GameChangeBroadcaster gameChanges;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ConflictRetry conflictRetry = new ConflictRetry(3, Duration.ZERO, Duration.ZERO, meterRegistry);
+
+    @Spy
+    private GameCommandExecutor gameCommands = new GameCommandExecutor(true, meterRegistry);
+
+    @Spy
+    private GameMetrics gameMetrics = new GameMetrics(meterRegistry);
+
+    @Spy
+    private ShuffleEngine shuffleEngine = new ShuffleEngine(ShuffleEngine.Source.THREAD_LOCAL);
+
     private Game mockedGame;
 
     private GameResponseDTO expectedGameResDTO;
 
-    @Before
+    @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        List<Card> mockedGameCards = getMockedGameCards(CARD_ACE_HEARTS, CARD_ACE_CLUBS);
-        Player mockedPlayer = getMockedPlayer(PLAYER_NAME_JORGE, CARD_TWO_HEARTS);
+        CardStack mockedGameCards = CardStack.of(CardEnum.ACE_HEARTS, CardEnum.ACE_CLUBS);
+        Player mockedPlayer = getMockedPlayer(PLAYER_NAME_JORGE, CardEnum.TWO_HEARTS);
         this.mockedGame = createMockedGame(mockedGameCards, mockedPlayer);
         this.expectedGameResDTO = getMockedGameResponseDTO(mockedGameCards, mockedPlayer);
     }
 
-    @Test()
+    @Test
     public void givenValidCreateGameRequestDTO_thenCreateGameSuccessfully() {
 
         // GIVEN
-        List<Card> mockedGameCards = getMockedGameCards(CARD_ACE_HEARTS, CARD_ACE_CLUBS);
-        Player mockedPlayer = getMockedPlayer(PLAYER_NAME_JORGE, CARD_TWO_HEARTS);
+        CardStack mockedGameCards = CardStack.of(CardEnum.ACE_HEARTS, CardEnum.ACE_CLUBS);
+        Player mockedPlayer = getMockedPlayer(PLAYER_NAME_JORGE, CardEnum.TWO_HEARTS);
         Game mockedGame = createMockedGame(mockedGameCards, mockedPlayer);
         GameResponseDTO mockedGameResponseDTO = getMockedGameResponseDTO(mockedGameCards, mockedPlayer);
         CreateGameRequestDTO createGameRequestDTO = getCreateGameRequestDTO(NUMBER_OF_DECKS, PLAYER_NAME_JORGE);
 
         given(gameRepository.save(any())).willReturn(Optional.ofNullable(mockedGame));
-        given(mapper.map(any(), any())).willReturn(mockedGameResponseDTO);
+        given(mapper.toGameResponse(any())).willReturn(mockedGameResponseDTO);
 
         // WHEN
         GameResponseDTO response = gameService.createGame(createGameRequestDTO);
@@ -96,7 +132,7 @@ public class GameServiceTest {
         assertEquals(mockedGameResponseDTO.getPlayers(), response.getPlayers());
     }
 
-    @Test()
+    @Test
     public void givenExistentPlayerAndGame_thenDeleteGameSuccessfully() {
 
         // GIVEN
@@ -112,17 +148,17 @@ public class GameServiceTest {
 
     }
 
-    @Test(expected = GameException.class)
+    @Test
     public void givenInvalidGameId_whenDeleteGame_thenThrowsException() {
         // GIVEN
         given(gameRepository.delete(any())).willThrow(GameException.class);
         // WHEN
-        gameService.deleteGame(GAME_ID);
+        assertThrows(GameException.class, () -> gameService.deleteGame(GAME_ID));
         // THEN
         then(gameRepository).should().delete(any());
     }
 
-    @Test(expected = GameException.class)
+    @Test
     public void givenNullGameId_whenDeleteGame_thenThrowsException() {
 
         // GIVEN
@@ -130,54 +166,167 @@ public class GameServiceTest {
         given(messageSource.getMessage(anyString(), any(), any())).willReturn("error");
 
         //WHEN
-        gameService.deleteGame(gameId);
+        assertThrows(GameException.class, () -> gameService.deleteGame(gameId));
 
         //THEN
         then(gameRepository).should(never()).delete(any());
     }
 
     @Test
-    public void whenCallGetAllGames_thenGetAllGamesSuccessfully() {
+    public void whenCallGetGames_thenGetFirstPageOfGamesSuccessfully() {
 
         // Given
         List<Game> mockedGames = Arrays.asList(Optional.ofNullable(this.mockedGame).get());
-        given(gameRepository.findAll()).willReturn(mockedGames);
-        given(mapper.map(any(), any())).willReturn(this.expectedGameResDTO);
+        given(gameRepository.findPage(any(), anyInt(), anyBoolean())).willReturn(mockedGames);
+        given(mapper.toGameResponse(any())).willReturn(this.expectedGameResDTO);
 
         // When
-        List<GameResponseDTO> gamesResponseDTO = gameService.getAllGames();
+        List<GameResponseDTO> gamesResponseDTO = gameService.getGames(null, null, true);
 
         // Then
-        then(gameRepository).should().findAll();
+        then(gameRepository).should().findPage(null, GameConstants.DEFAULT_PAGE_SIZE, true);
         assertThat(gamesResponseDTO, hasSize(1));
         assertThat(gamesResponseDTO, hasItem(this.expectedGameResDTO));
     }
 
+    @Test
+    public void givenLimitAboveMaximum_whenCallGetGames_thenLimitsPageSize() {
+
+        // Given
+        given(gameRepository.findPage(any(), anyInt(), anyBoolean())).willReturn(new ArrayList<>());
+
+        // When
+        gameService.getGames(GAME_ID, 100000, false);
+
+        // Then
+        then(gameRepository).should().findPage(GAME_ID, GameConstants.MAX_PAGE_SIZE, false);
+    }
+
     @Test
     public void givenValidPlayerNameAndGameId_whenCallDealCardsToPlayer_thenDealsCardSuccessfully() {
 
         // Given
+        given(gameRepository.dealTopCard(anyString(), anyString())).willReturn(Optional.ofNullable(this.mockedGame));
+        given(mapper.toGameResponse(any())).willReturn(this.expectedGameResDTO);
+
+        // When
+        GameResponseDTO gameResponseDTO = gameService.dealCards(GAME_ID, PLAYER_NAME_JORGE);
+
+        // Then
+        then(gameRepository).should().dealTopCard(GAME_ID, PLAYER_NAME_JORGE);
+        then(gameRepository).should(never()).save(any());
+        then(gameChanges).should().publish(GameChangeType.CARDS_DEALT, this.mockedGame,
+                Collections.singleton(PLAYER_NAME_JORGE));
+        assertThat(meterRegistry.get("game.players").summary().count(), is(1L));
+        assertThat(gameResponseDTO, is(this.expectedGameResDTO));
+
+    }
+
+    @Test
+    public void givenUnknownPlayer_whenCallDealCardsToPlayer_thenThrowsException() {
+
+        // Given
+        given(gameRepository.dealTopCard(anyString(), anyString())).willReturn(Optional.empty());
         given(gameRepository.findById(anyString())).willReturn(Optional.ofNullable(this.mockedGame));
-        given(gameRepository.save(any())).willReturn(Optional.ofNullable(this.mockedGame));
-        given(mapper.map(any(), any())).willReturn(this.expectedGameResDTO);
-        ArgumentCaptor<Game> gameArgumentCaptor = ArgumentCaptor.forClass(Game.class);
+        given(messageSource.getMessage(anyString(), any(), any())).willReturn("error");
+
+        // When
+        assertThrows(NotFoundException.class, () -> gameService.dealCards(GAME_ID, PLAYER_NAME_MARIA));
+    }
+
+    @Test
+    public void givenVirtualShoeChangedMeanwhile_whenCallDealCardsToPlayer_thenDealsOnTheNewVersion() {
+
+        // Given
+        given(gameRepository.dealTopCard(anyString(), anyString()))
+                .willThrow(new OptimisticLockingFailureException("changed"))
+                .willReturn(Optional.ofNullable(this.mockedGame));
+        given(mapper.toGameResponse(any())).willReturn(this.expectedGameResDTO);
 
         // When
         GameResponseDTO gameResponseDTO = gameService.dealCards(GAME_ID, PLAYER_NAME_JORGE);
-        List<Card> playerOneOnHandCards = gameResponseDTO.getPlayers().get(0).getOnHandCards();
 
         // Then
-        then(gameRepository).should().save(gameArgumentCaptor.capture());
-        assertThat(gameArgumentCaptor.getValue(), is(Optional.ofNullable(this.mockedGame).get()));
-        assertThat(playerOneOnHandCards, hasSize(2));
+        then(gameRepository).should(times(2)).dealTopCard(GAME_ID, PLAYER_NAME_JORGE);
+        assertThat(meterRegistry.get("game.write.conflicts").tag("operation", "deal-cards")
+                .tag("outcome", "retried").counter().count(), is(1.0));
+        assertThat(gameResponseDTO, is(this.expectedGameResDTO));
+    }
+
+    @Test
+    public void givenVirtualShoeChangedOnEveryAttempt_whenCallDealCardsToPlayer_thenThrowConflict() {
+
+        // Given
+        given(gameRepository.dealTopCard(anyString(), anyString()))
+                .willThrow(new OptimisticLockingFailureException("changed"));
+
+        // When
+        assertThrows(ConflictException.class, () -> gameService.dealCards(GAME_ID, PLAYER_NAME_JORGE));
+    }
+
+    @Test
+    public void givenPlayersAndCounts_whenCallDealCards_thenDealsAllCardsInOneUpdate() {
+
+        // Given
+        DealCardsRequestDTO dealCardsRequestDTO = new DealCardsRequestDTO();
+        dealCardsRequestDTO.getCardsByPlayer().put(PLAYER_NAME_JORGE, 2);
+        dealCardsRequestDTO.getCardsByPlayer().put("JORGE", 1);
+        given(gameRepository.dealCards(anyString(), anyMap())).willReturn(Optional.ofNullable(this.mockedGame));
+        given(mapper.toGameResponse(any())).willReturn(this.expectedGameResDTO);
+
+        // When
+        GameResponseDTO gameResponseDTO = gameService.dealCards(GAME_ID, dealCardsRequestDTO);
+
+        // Then
+        then(gameRepository).should().dealCards(GAME_ID, Collections.singletonMap(PLAYER_NAME_JORGE.toLowerCase(), 3));
+        then(gameRepository).should(never()).save(any());
+        assertThat(gameResponseDTO, is(this.expectedGameResDTO));
+
+    }
+
+    @Test
+    public void givenTurkishDefaultLocale_whenCallDealCards_thenMergesNamesIgnoringCase() {
+
+        // Given
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        DealCardsRequestDTO dealCardsRequestDTO = new DealCardsRequestDTO();
+        dealCardsRequestDTO.getCardsByPlayer().put("ISABEL", 1);
+        dealCardsRequestDTO.getCardsByPlayer().put("isabel", 2);
+        given(gameRepository.dealCards(anyString(), anyMap())).willReturn(Optional.ofNullable(this.mockedGame));
+        given(mapper.toGameResponse(any())).willReturn(this.expectedGameResDTO);
+
+        // When
+        try {
+            gameService.dealCards(GAME_ID, dealCardsRequestDTO);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        // Then
+        then(gameRepository).should().dealCards(GAME_ID, Collections.singletonMap("ISABEL", 3));
 
     }
 
+    @Test
+    public void givenNotEnoughCards_whenCallDealCardsToEachPlayer_thenThrowsException() {
+
+        // Given
+        DealCardsRequestDTO dealCardsRequestDTO = new DealCardsRequestDTO();
+        dealCardsRequestDTO.setCardsPerPlayer(60);
+        given(gameRepository.dealCardsToEachPlayer(anyString(), anyInt())).willReturn(Optional.empty());
+        given(gameRepository.findById(anyString())).willReturn(Optional.ofNullable(this.mockedGame));
+        given(messageSource.getMessage(anyString(), any(), any())).willReturn("error");
+
+        // When
+        assertThrows(GameException.class, () -> gameService.dealCards(GAME_ID, dealCardsRequestDTO));
+    }
+
     @Test
     public void givenValidGameId_whenCallGetPlayerTotal_thenReturnsPlayersTotal() {
 
         // Given
-        given(gameRepository.findGameOnlyWithPlayers(anyString())).willReturn(Optional.ofNullable(this.mockedGame));
+        given(gameRepository.findGameOnlyWithPlayerTotals(anyString())).willReturn(Optional.ofNullable(this.mockedGame));
 
         // When
         List<PlayerTotalResponseDTO> playersTotals = gameService.getPlayersTotals(GAME_ID);
@@ -190,14 +339,32 @@ public class GameServiceTest {
 
     }
 
+    @Test
+    public void givenPlayersWithoutRunningTotals_whenCallGetPlayerTotal_thenSumsTheirHands() {
+
+        // Given
+        Game gameWithoutTotals = new Game();
+        gameWithoutTotals.getPlayers().add(new Player(PLAYER_NAME_JORGE, new CardStack(), null, null));
+        given(gameRepository.findGameOnlyWithPlayerTotals(anyString())).willReturn(Optional.of(gameWithoutTotals));
+        given(gameRepository.findGameOnlyWithPlayers(anyString())).willReturn(Optional.ofNullable(this.mockedGame));
+
+        // When
+        List<PlayerTotalResponseDTO> playersTotals = gameService.getPlayersTotals(GAME_ID);
+
+        // Then
+        assertThat(playersTotals, hasSize(1));
+        assertThat(playersTotals.get(0).getTotal(), is(2));
+        assertThat(playersTotals.get(0).getNumberOfCards(), is(1));
+    }
+
     @Test
     public void givenValidGameId_whenCallShuffleCards_thenShuffleGameCards() {
 
         // Given
-        List<Card> gameDeckCards = Optional.ofNullable(this.mockedGame).get().getGameCards();
+        List<Card> gameDeckCards = Optional.ofNullable(this.mockedGame).get().getGameCards().toCards();
         given(gameRepository.findGameOnlyWithCards(anyString())).willReturn(Optional.ofNullable(this.mockedGame));
-        given(gameRepository.updateGameCards(anyString(), any())).willReturn(Optional.ofNullable(this.mockedGame));
-        given(mapper.map(any(), any())).willReturn(this.expectedGameResDTO);
+        given(gameRepository.shuffleCards(anyString(), any(), anyLong(), any())).willReturn(Optional.ofNullable(this.mockedGame));
+        given(mapper.toGameResponse(any())).willReturn(this.expectedGameResDTO);
 
         // When
         GameResponseDTO gameResponseDTO = gameService.shuffleCards(GAME_ID);
@@ -209,13 +376,62 @@ public class GameServiceTest {
 
     }
 
+    @Test
+    public void givenConcurrentWrite_whenCallShuffleCards_thenRetriesOnTheNewVersion() {
+
+        // Given
+        Game readGame = createMockedGame(CardStack.of(CardEnum.ACE_HEARTS, CardEnum.ACE_CLUBS));
+        readGame.setVersion(1L);
+        Game changedGame = createMockedGame(CardStack.of(CardEnum.ACE_HEARTS));
+        changedGame.setVersion(2L);
+        given(gameRepository.findGameOnlyWithCards(anyString()))
+                .willReturn(Optional.of(readGame), Optional.of(changedGame));
+        given(gameRepository.shuffleCards(anyString(), eq(1L), anyLong(), any())).willReturn(Optional.empty());
+        given(gameRepository.shuffleCards(anyString(), eq(2L), anyLong(), any())).willReturn(Optional.of(changedGame));
+        given(mapper.toGameResponse(any())).willReturn(this.expectedGameResDTO);
+
+        // When
+        gameService.shuffleCards(GAME_ID);
+
+        // Then
+        then(gameRepository).should().shuffleCards(eq(GAME_ID), eq(2L), anyLong(), eq(CardStack.of(CardEnum.ACE_HEARTS)));
+        assertThat(meterRegistry.get("game.write.conflicts").tag("outcome", "retried").counter().count(), is(1.0));
+    }
+
+    @Test
+    public void givenShuffleOnDraw_whenCallShuffleCards_thenOnlyMarksTheCardsUnordered() {
+
+        // Given
+        ReflectionTestUtils.setField(gameService, "shuffleOnDraw", true);
+        given(gameRepository.markCardsUnordered(anyString(), anyLong())).willReturn(Optional.ofNullable(this.mockedGame));
+        given(mapper.toGameResponse(any())).willReturn(this.expectedGameResDTO);
+
+        // When
+        gameService.shuffleCards(GAME_ID);
+
+        // Then
+        then(gameRepository).should().markCardsUnordered(eq(GAME_ID), anyLong());
+        then(gameRepository).should(never()).findGameOnlyWithCards(anyString());
+    }
+
+    @Test
+    public void givenWriteConflictOnEveryAttempt_whenCallShuffleCards_thenThrowConflict() {
+
+        // Given
+        given(gameRepository.findGameOnlyWithCards(anyString())).willReturn(Optional.ofNullable(this.mockedGame));
+        given(gameRepository.shuffleCards(anyString(), any(), anyLong(), any())).willReturn(Optional.empty());
+
+        // When
+        assertThrows(ConflictException.class, () -> gameService.shuffleCards(GAME_ID));
+    }
+
     @Test
     public void givenValidGameId_whenCallGetCountCardsLeft_thenReturnsSuccessfully() {
 
         // Given
         given(gameRepository.findGameOnlyWithCards(anyString())).willReturn(Optional.ofNullable(this.mockedGame));
-        given(gameRepository.updateGameCards(anyString(), any())).willReturn(Optional.ofNullable(this.mockedGame));
-        given(mapper.map(any(), any())).willReturn(this.expectedGameResDTO);
+        given(gameRepository.shuffleCards(anyString(), any(), anyLong(), any())).willReturn(Optional.ofNullable(this.mockedGame));
+        given(mapper.toGameResponse(any())).willReturn(this.expectedGameResDTO);
 
         // When
         Map<String, Long> countCardsLeft = gameService.getCardsLeftBySuitUsingCollectors(GAME_ID);
@@ -269,11 +485,10 @@ public class GameServiceTest {
 
         // Given
         this.mockedGame.getPlayers().add(new Player(PLAYER_NAME_MARIA));
-        this.expectedGameResDTO.getPlayers().add(new Player(PLAYER_NAME_MARIA));
+        this.expectedGameResDTO.getPlayers().add(new PlayerResponseDTO(PLAYER_NAME_MARIA));
 
-        given(gameRepository.isPlayerExists(anyString(), anyString())).willReturn(false);
         given(gameRepository.addNewPlayer(anyString(), anyString())).willReturn(Optional.ofNullable(this.mockedGame));
-        given(mapper.map(any(), any())).willReturn(this.expectedGameResDTO);
+        given(mapper.toGameResponse(any())).willReturn(this.expectedGameResDTO);
 
         AddPlayerRequestDTO requestDTO = new AddPlayerRequestDTO();
         requestDTO.setPlayerName(PLAYER_NAME_MARIA);
@@ -282,7 +497,7 @@ public class GameServiceTest {
         GameResponseDTO gameResponseDTO = gameService.addPlayer(GAME_ID, requestDTO);
 
         // Then
-        assertThat(gameResponseDTO.getPlayers(), hasItem(new Player(PLAYER_NAME_MARIA)));
+        assertThat(gameResponseDTO.getPlayers(), hasItem(new PlayerResponseDTO(PLAYER_NAME_MARIA)));
         assertThat(gameResponseDTO.getPlayers(), hasSize(2));
 
     }
@@ -294,13 +509,13 @@ public class GameServiceTest {
         this.mockedGame.getPlayers().add(new Player(PLAYER_NAME_MARIA));
 
         given(gameRepository.removePlayer(anyString(), anyString())).willReturn(Optional.ofNullable(this.mockedGame));
-        given(mapper.map(any(), any())).willReturn(this.expectedGameResDTO);
+        given(mapper.toGameResponse(any())).willReturn(this.expectedGameResDTO);
 
         // When
         GameResponseDTO gameResponseDTO = gameService.removePlayer(GAME_ID, PLAYER_NAME_MARIA);
 
         // Then
-        assertThat(gameResponseDTO.getPlayers(), not(hasItem(new Player(PLAYER_NAME_MARIA))));
+        assertThat(gameResponseDTO.getPlayers(), not(hasItem(new PlayerResponseDTO(PLAYER_NAME_MARIA))));
         assertThat(gameResponseDTO.getPlayers(), hasSize(1));
     }
 
@@ -311,39 +526,35 @@ public class GameServiceTest {
         this.expectedGameResDTO.getGameCards().addAll(CardEnum.createDeck());
 
         given(gameRepository.addNewDeck(anyString(), any())).willReturn(Optional.ofNullable((this.mockedGame)));
-        given(mapper.map(any(), any())).willReturn(this.expectedGameResDTO);
+        given(mapper.toGameResponse(any())).willReturn(this.expectedGameResDTO);
 
-        ArgumentCaptor<List<Card>> cardArgumentCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<CardStack> cardArgumentCaptor = ArgumentCaptor.forClass(CardStack.class);
 
         // When
         GameResponseDTO gameResponseDTO = gameService.addDeck(GAME_ID);
 
         // Then
         then(gameRepository).should().addNewDeck(any(), cardArgumentCaptor.capture());
-        assertThat(cardArgumentCaptor.getValue(), hasSize(52));
+        assertThat(cardArgumentCaptor.getValue().size(), is(52));
         assertThat(gameResponseDTO.getGameCards(), hasSize(54));
 
     }
 
-    private GameResponseDTO getMockedGameResponseDTO(List<Card> cards, Player... players) {
+    private GameResponseDTO getMockedGameResponseDTO(CardStack cards, Player... players) {
         GameResponseDTO response = new GameResponseDTO();
         response.setId(GAME_ID);
-        response.setGameCards(cards);
-        response.setPlayers(Arrays.stream(players).collect(Collectors.toList()));
+        response.setGameCards(cards.toCards());
+        response.setPlayers(Arrays.stream(players)
+                .map(player -> new PlayerResponseDTO(player.getName(), player.getOnHandCards().toCards()))
+                .collect(Collectors.toList()));
         return response;
     }
 
-    private List<Card> getMockedGameCards(Card... cards) {
-        List<Card> mockedCards = new ArrayList<>();
-        Arrays.stream(cards).forEach(card -> mockedCards.add(card));
-        return mockedCards;
-    }
-
-    private Player getMockedPlayer(String playerName, Card... cards) {
-        return new Player(playerName, Arrays.stream(cards).collect(Collectors.toList()));
+    private Player getMockedPlayer(String playerName, CardEnum... cards) {
+        return new Player(playerName, CardStack.of(cards));
     }
 
-    private Game createMockedGame(List<Card> gameCards, Player... players) {
+    private Game createMockedGame(CardStack gameCards, Player... players) {
         Game game = new Game();
         game.setId(GAME_ID);
         game.setPlayers(Arrays.stream(players).collect(Collectors.toList()));
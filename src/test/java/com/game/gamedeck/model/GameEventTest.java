@@ -0,0 +1,67 @@
+package com.game.gamedeck.model;
+
+import com.game.gamedeck.shared.utils.DeckUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class GameEventTest {
+
+    private static final long SEED = 42L;
+
+    private Game game;
+    private long sequence;
+
+    @BeforeEach
+    public void setUp() {
+        game = new Game();
+        sequence = 0;
+        apply(GameEvent.gameCreated(Arrays.asList("jorge", "maria"), CardStack.ofDecks(1)));
+    }
+
+    @Test
+    public void cardsShuffled_replaysTheShuffleOfItsSeed() {
+
+        CardStack shuffledCards = CardStack.ofDecks(1);
+        DeckUtils.shuffleCards(shuffledCards, SEED);
+
+        apply(GameEvent.cardsShuffled(SEED));
+
+        assertThat(game.getGameCards(), is(shuffledCards));
+        assertThat(game.getShuffleSeed(), is(SEED));
+        assertThat(game.getVersion(), is(1L));
+    }
+
+    @Test
+    public void cardsDealt_dealsEachTopCardToItsSeats() {
+
+        apply(GameEvent.cardsDealt(Arrays.asList(
+                Collections.singletonList(1), Collections.singletonList(0), Arrays.asList(0, 1))));
+
+        assertThat(game.getPlayers().get(0).getOnHandCards(), is(CardStack.of(CardEnum.ACE_SPADES, CardEnum.ACE_DIAMONDS)));
+        assertThat(game.getPlayers().get(1).getOnHandCards(), is(CardStack.of(CardEnum.ACE_HEARTS, CardEnum.ACE_DIAMONDS)));
+        assertThat(game.getGameCards().size(), is(49));
+    }
+
+    @Test
+    public void playerRemoved_keepsTheOtherPlayers() {
+
+        apply(GameEvent.playerAdded("ana"));
+        apply(GameEvent.playerRemoved("jorge"));
+
+        assertThat(game.getPlayers().size(), is(2));
+        assertThat(game.getPlayers().get(0).getName(), is("maria"));
+        assertThat(game.getVersion(), is(2L));
+    }
+
+    private void apply(GameEvent event) {
+        event.setGameId("game");
+        event.setSequence(sequence++);
+        event.applyTo(game);
+    }
+}
@@ -0,0 +1,77 @@
+package com.game.gamedeck.model;
+
+import com.game.gamedeck.shared.utils.DeckUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class VirtualShoeTest {
+
+    private static final long SEED = 42L;
+
+    @Test
+    public void newShoe_holdsItsDecksInOrder() {
+
+        VirtualShoe shoe = VirtualShoe.ofDecks(2);
+
+        assertThat(shoe.size(), is(104));
+        assertThat(shoe.toCardStack(), is(CardStack.ofDecks(2)));
+        assertThat(shoe.deal(), is(CardEnum.ACE_HEARTS));
+        assertThat(shoe.countByCard()[CardEnum.ACE_HEARTS.getCode()], is(1));
+    }
+
+    @Test
+    public void deal_takesTheCardsInTheOrderOfTheShoe() {
+
+        VirtualShoe shoe = VirtualShoe.ofDecks(3);
+        shoe.shuffle(SEED);
+        CardStack cards = shoe.toCardStack();
+
+        assertThat(cards, is(not(CardStack.ofDecks(3))));
+        assertThat(cards.countByCard(), is(CardStack.ofDecks(3).countByCard()));
+        for (int i = 0; i < cards.size(); i++) {
+            assertThat(shoe.deal(), is(cards.get(i)));
+        }
+        assertThat(shoe.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shuffle_afterDeals_skipsTheCardsDealt() {
+
+        VirtualShoe shoe = VirtualShoe.ofDecks(2);
+        shoe.shuffle(SEED);
+        CardStack dealtCards = new CardStack();
+        for (int i = 0; i < 30; i++) {
+            dealtCards.add(shoe.deal());
+        }
+        shoe.shuffle(SEED + 1);
+        shoe.addDecks(1);
+
+        CardStack cards = shoe.toCardStack();
+        int[] expectedCounts = CardStack.ofDecks(3).countByCard();
+        int[] dealtCounts = dealtCards.countByCard();
+        for (int code = 0; code < expectedCounts.length; code++) {
+            expectedCounts[code] -= dealtCounts[code];
+        }
+        assertThat(cards.size(), is(3 * 52 - 30));
+        assertThat(cards.countByCard(), is(expectedCounts));
+        assertThat(shoe.countByCard(), is(expectedCounts));
+        assertThat(cards.get(cards.size() - 52), is(CardEnum.ACE_HEARTS));
+    }
+
+    @Test
+    public void permute_isAPermutationOfItsPositions() {
+
+        for (int size : new int[]{1, 52, 416}) {
+            boolean[] seen = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                seen[DeckUtils.permute(i, size, SEED)] = true;
+            }
+            assertThat(Arrays.toString(seen).contains("false"), is(false));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardEnum;
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.repositories.GameRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+
+public class CachingGameRepositoryTest {
+
+    private static final String GAME_ID = "5ed98daf2cd10901dc4f8422";
+    private static final String PLAYER_NAME_JORGE = "jorge";
+
+    private GameRepository delegate;
+    private CachingGameRepository repository;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        Game game = new Game(GAME_ID, CardStack.of(CardEnum.ACE_HEARTS, CardEnum.KING_CLUBS),
+                new ArrayList<>(Collections.singletonList(
+                        new Player(PLAYER_NAME_JORGE, CardStack.of(CardEnum.TWO_SPADES)))));
+        delegate = mock(GameRepository.class);
+        when(delegate.findById(GAME_ID)).thenReturn(Optional.of(game));
+        when(delegate.addNewDeck(anyString(), any())).thenReturn(Optional.of(game));
+        meterRegistry = new SimpleMeterRegistry();
+        repository = new CachingGameRepository(delegate, 10, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    public void repeatedReads_areServedFromTheCache() {
+
+        repository.findGameOnlyWithPlayer(GAME_ID, PLAYER_NAME_JORGE);
+        repository.findGameOnlyWithCards(GAME_ID);
+        repository.countRemainingCardsBySuit(GAME_ID);
+
+        verify(delegate, times(1)).findById(GAME_ID);
+        assertThat(cacheGets("hit"), is(2.0));
+        assertThat(cacheGets("miss"), is(1.0));
+    }
+
+    @Test
+    public void mutation_invalidatesTheCachedGame() {
+
+        repository.findById(GAME_ID);
+        repository.addNewDeck(GAME_ID, CardStack.ofDecks(1));
+        repository.findById(GAME_ID);
+
+        verify(delegate, times(2)).findById(GAME_ID);
+    }
+
+    @Test
+    public void findVersion_isAlwaysAskedOfTheStore() {
+
+        when(delegate.findVersion(GAME_ID)).thenReturn(Optional.of(7L), Optional.of(8L));
+        repository.findById(GAME_ID);
+
+        assertThat(repository.findVersion(GAME_ID), is(Optional.of(7L)));
+        assertThat(repository.findVersion(GAME_ID), is(Optional.of(8L)));
+        verify(delegate, times(1)).findById(GAME_ID);
+    }
+
+    @Test
+    public void changesToReturnedGames_doNotReachTheCache() {
+
+        repository.findGameOnlyWithCards(GAME_ID).get().getGameCards().removeFirst();
+        repository.findById(GAME_ID).get().getPlayers().clear();
+
+        Game cachedGame = repository.findById(GAME_ID).get();
+        assertThat(cachedGame.getGameCards().size(), is(2));
+        assertThat(cachedGame.getPlayers().size(), is(1));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tags("cache", CachingGameRepository.GAMES, "result", result)
+                .functionCounter()
+                .count();
+    }
+}
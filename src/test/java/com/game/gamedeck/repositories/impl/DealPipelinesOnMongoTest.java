@@ -0,0 +1,63 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.Game;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the tests of {@link DealPipelinesTest} with the pipeline updates applied by a real Mongo: the one
+ * given with -Dtest.mongodb.host and optionally -Dtest.mongodb.port, or else a container started with
+ * Docker. Skipped when there is neither.
+ */
+public class DealPipelinesOnMongoTest extends DealPipelinesTest {
+
+    private static final String MONGO_HOST = System.getProperty("test.mongodb.host");
+    private static final String MONGO_PORT = System.getProperty("test.mongodb.port", "27017");
+    private static final String MONGO_IMAGE = "mongo:7.0";
+
+    private static MongoDBContainer container;
+    private static MongoClient mongoClient;
+
+    @BeforeAll
+    static void startMongo() {
+        String connectionString;
+        if (MONGO_HOST != null) {
+            connectionString = "mongodb://" + MONGO_HOST + ":" + MONGO_PORT;
+        } else {
+            assumeTrue(DockerClientFactory.instance().isDockerAvailable(),
+                    "pipeline updates on a real Mongo need Docker, or see -Dtest.mongodb.host");
+            container = new MongoDBContainer(DockerImageName.parse(MONGO_IMAGE));
+            container.start();
+            connectionString = container.getConnectionString();
+        }
+        mongoClient = MongoClients.create(connectionString);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongoClient != null) {
+            mongoClient.close();
+        }
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Override
+    MongoTemplate mongoTemplate() {
+        MongoDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(mongoClient, "game_deck_pipelines");
+        MongoTemplate mongoTemplate = new MongoTemplate(factory, converter(factory));
+        mongoTemplate.dropCollection(Game.class);
+        return mongoTemplate;
+    }
+}
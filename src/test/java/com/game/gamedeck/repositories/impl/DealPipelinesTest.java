@@ -0,0 +1,356 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardEnum;
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.shared.configs.MongoConfig;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.result.UpdateResult;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Runs the update pipelines of the repository on an in-process Mongo server. The server has no pipeline
+ * updates, so its template evaluates each pipeline as an aggregation of the game it would update, and
+ * writes the result back. {@link DealPipelinesOnMongoTest} runs the same tests on a real Mongo. Deals
+ * are checked against the same deals applied in process by the in-memory repository, down to the card
+ * counters and players' totals.
+ */
+public class DealPipelinesTest {
+
+    private static final String PLAYER_NAME_JORGE = "jorge";
+    private static final String PLAYER_NAME_MARIA = "maria";
+    private static final String PLAYER_NAME_JOSE = "josé";
+    private static final long SEED = 42L;
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private GameRepositoryImpl repository;
+    private InMemoryGameRepository inProcess;
+    private String gameId;
+    private String inProcessGameId;
+
+    @BeforeEach
+    public void setUp() {
+        mongoTemplate = mongoTemplate();
+        repository = new GameRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "mongoTemplate", mongoTemplate);
+        inProcess = new InMemoryGameRepository(1);
+
+        gameId = repository.save(newGame()).orElseThrow().getId();
+        inProcessGameId = inProcess.save(newGame()).orElseThrow().getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+            server.shutdown();
+        }
+    }
+
+    /**
+     * The template the repository writes with, here on a new in-process server.
+     */
+    MongoTemplate mongoTemplate() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        MongoDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(client, "game_deck_pipelines");
+        return new AggregatingMongoTemplate(factory);
+    }
+
+    @Test
+    public void dealTopCard_dealsTheTopCardToThePlayerIgnoringCase() {
+
+        Game game = repository.dealTopCard(gameId, "MARIA").orElseThrow();
+
+        assertSameDeal(game, inProcess.dealTopCard(inProcessGameId, "MARIA").orElseThrow());
+        assertThat(game.getPlayers().get(1).getOnHandCards(), is(CardStack.of(CardEnum.ACE_HEARTS)));
+        assertThat(game.getGameCards().size(), is(51));
+        assertThat(game.getVersion(), is(1L));
+        assertThat(repository.dealTopCard(gameId, "nobody"), is(Optional.empty()));
+        assertThat(repository.findVersion(gameId).orElseThrow(), is(1L));
+    }
+
+    @Test
+    public void dealCardsToEachPlayer_dealsRoundRobinFromTheTop() {
+
+        Game game = repository.dealCardsToEachPlayer(gameId, 2).orElseThrow();
+
+        assertSameDeal(game, inProcess.dealCardsToEachPlayer(inProcessGameId, 2).orElseThrow());
+        assertThat(game.getPlayers().get(0).getOnHandCards(),
+                is(CardStack.of(CardEnum.ACE_HEARTS, CardEnum.ACE_DIAMONDS)));
+        assertThat(game.getPlayers().get(1).getOnHandCards(),
+                is(CardStack.of(CardEnum.ACE_SPADES, CardEnum.ACE_CLUBS)));
+        assertThat(repository.dealCardsToEachPlayer(gameId, 25), is(Optional.empty()));
+        assertThat(repository.findById(gameId).orElseThrow().getGameCards().size(), is(48));
+    }
+
+    @Test
+    public void dealCardsToEachPlayer_dealsPlayersSharingANameTheirOwnSeats() {
+        List<Player> players = new ArrayList<>(List.of(new Player(PLAYER_NAME_JORGE), new Player(PLAYER_NAME_JORGE)));
+        String twinsId = repository.save(new Game(null, CardStack.ofDecks(1), players)).orElseThrow().getId();
+        List<Player> inProcessPlayers = new ArrayList<>(List.of(new Player(PLAYER_NAME_JORGE), new Player(PLAYER_NAME_JORGE)));
+        String inProcessTwinsId = inProcess.save(new Game(null, CardStack.ofDecks(1), inProcessPlayers)).orElseThrow().getId();
+
+        Game game = repository.dealCardsToEachPlayer(twinsId, 2).orElseThrow();
+
+        assertSameDeal(game, inProcess.dealCardsToEachPlayer(inProcessTwinsId, 2).orElseThrow());
+        assertThat(game.getPlayers().get(1).getOnHandCards(),
+                is(CardStack.of(CardEnum.ACE_SPADES, CardEnum.ACE_CLUBS)));
+    }
+
+    @Test
+    public void dealCards_dealsEachNamedPlayerTheirCards() {
+        Map<String, Integer> cardsByPlayer = new LinkedHashMap<>();
+        cardsByPlayer.put("MARIA", 3);
+        cardsByPlayer.put(PLAYER_NAME_JORGE, 1);
+
+        Game game = repository.dealCards(gameId, cardsByPlayer).orElseThrow();
+
+        assertSameDeal(game, inProcess.dealCards(inProcessGameId, cardsByPlayer).orElseThrow());
+        assertThat(game.getPlayers().get(1).getOnHandCards().size(), is(3));
+        assertThat(game.getGameCards().size(), is(48));
+        assertThat(repository.dealCards(gameId, Map.of("nobody", 1)), is(Optional.empty()));
+        assertThat(repository.dealCards(gameId, Map.of(PLAYER_NAME_JORGE, 49)), is(Optional.empty()));
+        assertThat(repository.findVersion(gameId).orElseThrow(), is(1L));
+    }
+
+    /**
+     * Whether or not the server takes the names for the same, the deals never take cards from the shoe
+     * without dealing them.
+     */
+    @Test
+    public void deals_toANonAsciiNameInAnotherCase_keepEveryCard() {
+        List<Player> players = new ArrayList<>(List.of(new Player(PLAYER_NAME_JOSE)));
+        String gameOfJoseId = repository.save(new Game(null, CardStack.ofDecks(1), players)).orElseThrow().getId();
+
+        Optional<Game> dealtTopCard = repository.dealTopCard(gameOfJoseId, "JOSÉ");
+        Optional<Game> dealtCards = repository.dealCards(gameOfJoseId, Map.of("JOSÉ", 2));
+
+        Game game = repository.findById(gameOfJoseId).orElseThrow();
+        int dealtToJose = (dealtTopCard.isPresent() ? 1 : 0) + (dealtCards.isPresent() ? 2 : 0);
+        assertThat(game.getPlayers().get(0).getOnHandCards().size(), is(dealtToJose));
+        assertThat(game.getGameCards().size(), is(52 - dealtToJose));
+    }
+
+    @Test
+    public void cardCounts_followTheDealsAndNewDecks() {
+
+        repository.dealCardsToEachPlayer(gameId, 5);
+        repository.addNewDeck(gameId, CardStack.ofDecks(1));
+        Game game = repository.dealTopCard(gameId, PLAYER_NAME_JORGE).orElseThrow();
+        inProcess.dealCardsToEachPlayer(inProcessGameId, 5);
+        inProcess.addNewDeck(inProcessGameId, CardStack.ofDecks(1));
+
+        assertSameDeal(game, inProcess.dealTopCard(inProcessGameId, PLAYER_NAME_JORGE).orElseThrow());
+        assertThat(game.getCardCounts(), is(game.getGameCards().countByCard()));
+        assertThat(repository.countRemainingCardsBySuit(gameId),
+                is(inProcess.countRemainingCardsBySuit(inProcessGameId)));
+    }
+
+    @Test
+    public void rebuildCardCounts_recountsGamesStoredWithoutThem() {
+        repository.dealCardsToEachPlayer(gameId, 3);
+        mongoTemplate.updateFirst(GameQueries.byId(gameId), new Update().unset("cardCounts")
+                .unset("players.0.total").unset("players.1.numberOfCards"), Game.class);
+
+        Game dealtGame = repository.dealTopCard(gameId, PLAYER_NAME_JORGE).orElseThrow();
+        assertThat(dealtGame.getCardCounts(), is(nullValue()));
+        assertThat(repository.rebuildCardCounts(), is(1L));
+
+        Game game = repository.findById(gameId).orElseThrow();
+        assertThat(game.getCardCounts(), is(game.getGameCards().countByCard()));
+        assertThat(game.getPlayers().get(0).getTotal(), is(game.getPlayers().get(0).getOnHandCards().totalValue()));
+        assertThat(game.getPlayers().get(1).getNumberOfCards(), is(3));
+    }
+
+    @Test
+    public void playerTotals_addUpTheCardsDealtToEachPlayer() {
+
+        repository.dealCardsToEachPlayer(gameId, 2);
+        mongoTemplate.updateFirst(GameQueries.byId(gameId), new Update().unset("players.0.total"), Game.class);
+        repository.dealTopCard(gameId, PLAYER_NAME_JORGE);
+        repository.dealCards(gameId, Map.of(PLAYER_NAME_MARIA, 2));
+
+        Game game = repository.findGameOnlyWithPlayerTotals(gameId).orElseThrow();
+        assertThat(game.getPlayers().get(0).getTotal(), is(1 + 1 + 2));
+        assertThat(game.getPlayers().get(0).getNumberOfCards(), is(3));
+        assertThat(game.getPlayers().get(1).getTotal(), is(1 + 1 + 2 + 2));
+        assertThat(game.getPlayers().get(1).getNumberOfCards(), is(4));
+    }
+
+    @Test
+    public void markCardsUnordered_drawsTheCardsDrawnInProcess() {
+
+        assertThat(repository.markCardsUnordered(gameId, SEED).orElseThrow().getShuffleSeed(), is(SEED));
+        inProcess.markCardsUnordered(inProcessGameId, SEED);
+
+        assertSameDeal(repository.dealTopCard(gameId, "JORGE").orElseThrow(),
+                inProcess.dealTopCard(inProcessGameId, "JORGE").orElseThrow());
+        assertSameDeal(repository.dealCardsToEachPlayer(gameId, 3).orElseThrow(),
+                inProcess.dealCardsToEachPlayer(inProcessGameId, 3).orElseThrow());
+        Map<String, Integer> cardsByPlayer = new LinkedHashMap<>();
+        cardsByPlayer.put(PLAYER_NAME_MARIA, 2);
+        cardsByPlayer.put(PLAYER_NAME_JORGE, 1);
+        assertSameDeal(repository.dealCards(gameId, cardsByPlayer).orElseThrow(),
+                inProcess.dealCards(inProcessGameId, cardsByPlayer).orElseThrow());
+    }
+
+    @Test
+    public void dealingTheLastUnorderedCard_leavesTheShoeInOrder() {
+
+        repository.markCardsUnordered(gameId, SEED);
+        inProcess.markCardsUnordered(inProcessGameId, SEED);
+        repository.addNewDeck(gameId, CardStack.ofDecks(1));
+        inProcess.addNewDeck(inProcessGameId, CardStack.ofDecks(1));
+
+        Game game = repository.dealCardsToEachPlayer(gameId, 26).orElseThrow();
+        assertSameDeal(game, inProcess.dealCardsToEachPlayer(inProcessGameId, 26).orElseThrow());
+        assertThat(game.getUnorderedCards(), is(nullValue()));
+        assertThat(game.getDrawState(), is(nullValue()));
+        assertThat(game.getGameCards(), is(CardStack.ofDecks(1)));
+    }
+
+    private static void assertSameDeal(Game game, Game inProcessGame) {
+        assertThat(game.getPlayers(), is(inProcessGame.getPlayers()));
+        assertThat(game.getGameCards(), is(inProcessGame.getGameCards()));
+        assertThat(game.getCardCounts(), is(inProcessGame.getCardCounts()));
+        assertThat(game.getUnorderedCards(), is(inProcessGame.getUnorderedCards()));
+        assertThat(game.getDrawState(), is(inProcessGame.getDrawState()));
+    }
+
+    private static Game newGame() {
+        return new Game(null, CardStack.ofDecks(1),
+                new ArrayList<>(Arrays.asList(new Player(PLAYER_NAME_JORGE), new Player(PLAYER_NAME_MARIA))));
+    }
+
+    static MappingMongoConverter converter(MongoDatabaseFactory factory) {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(factory), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    /**
+     * A template applying update pipelines as aggregations, for a server without pipeline updates. Each
+     * pipeline runs on the games matching the query, its {@code $set} stages as the {@code $addFields}
+     * they alias and the variables of any {@code $let}, which the server lacks too, substituted into its
+     * body. Every game it yields replaces the stored one.
+     */
+    private static class AggregatingMongoTemplate extends MongoTemplate {
+
+        private AggregatingMongoTemplate(MongoDatabaseFactory factory) {
+            super(factory, converter(factory));
+        }
+
+        @Override
+        public <T> T findAndModify(Query query, UpdateDefinition update, FindAndModifyOptions options,
+                                   Class<T> entityClass) {
+            if (!(update instanceof AggregationUpdate pipeline)) {
+                return super.findAndModify(query, update, options, entityClass);
+            }
+            Document updatedGame = aggregate(query, pipeline, entityClass).first();
+            if (updatedGame == null) {
+                return null;
+            }
+            Document game = getCollection(getCollectionName(entityClass))
+                    .findOneAndReplace(new Document("_id", updatedGame.get("_id")), updatedGame);
+            Query projected = new BasicQuery(new Document("_id", updatedGame.get("_id")), query.getFieldsObject());
+            return options.isReturnNew() ? findOne(projected, entityClass) : getConverter().read(entityClass, game);
+        }
+
+        @Override
+        public UpdateResult updateMulti(Query query, UpdateDefinition update, Class<?> entityClass) {
+            if (!(update instanceof AggregationUpdate pipeline)) {
+                return super.updateMulti(query, update, entityClass);
+            }
+            long updated = 0;
+            for (Document updatedGame : aggregate(query, pipeline, entityClass)) {
+                getCollection(getCollectionName(entityClass))
+                        .replaceOne(new Document("_id", updatedGame.get("_id")), updatedGame);
+                updated++;
+            }
+            return UpdateResult.acknowledged(updated, updated, null);
+        }
+
+        private AggregateIterable<Document> aggregate(Query query, AggregationUpdate pipeline, Class<?> entityClass) {
+            List<Document> stages = new ArrayList<>();
+            stages.add(new Document("$match", new QueryMapper(getConverter()).getMappedObject(query.getQueryObject(),
+                    getConverter().getMappingContext().getPersistentEntity(entityClass))));
+            stages.addAll(pipeline.toPipeline(Aggregation.DEFAULT_CONTEXT));
+            return getCollection(getCollectionName(entityClass)).aggregate(stages.stream()
+                    .map(stage -> stage.containsKey("$set") ? new Document("$addFields", stage.get("$set")) : stage)
+                    .map(stage -> (Document) withoutLet(stage, Map.of()))
+                    .collect(Collectors.toList()));
+        }
+
+        /**
+         * The expression with every {@code $let} replaced by its body, and the variables it binds by
+         * their values.
+         */
+        private static Object withoutLet(Object expression, Map<String, Object> variables) {
+            if (expression instanceof String variable && variables.containsKey(variable)) {
+                return variables.get(variable);
+            }
+            if (expression instanceof List<?> expressions) {
+                return expressions.stream().map(item -> withoutLet(item, variables)).collect(Collectors.toList());
+            }
+            if (!(expression instanceof Document document)) {
+                return expression;
+            }
+            if (document.get("$let") instanceof Document let) {
+                Map<String, Object> letVariables = new HashMap<>(variables);
+                let.get("vars", Document.class).forEach((name, value) ->
+                        letVariables.put("$$" + name, withoutLet(value, variables)));
+                return withoutLet(let.get("in"), letVariables);
+            }
+            Document replaced = new Document();
+            document.forEach((key, value) -> replaced.append(key, withoutLet(value, variables)));
+            return replaced;
+        }
+    }
+}
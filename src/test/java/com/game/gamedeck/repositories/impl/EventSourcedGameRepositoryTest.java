@@ -0,0 +1,195 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardEnum;
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.GameEvent;
+import com.game.gamedeck.model.GameSnapshot;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.shared.configs.MongoConfig;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the event log against an in-process Mongo server, which enforces the unique index on game id
+ * and sequence the appends rely on, with a snapshot every {@value #SNAPSHOT_EVERY} events.
+ */
+public class EventSourcedGameRepositoryTest {
+
+    private static final String PLAYER_NAME_JORGE = "jorge";
+    private static final String PLAYER_NAME_MARIA = "maria";
+    private static final String PLAYER_NAME_ANA = "ana";
+    private static final int SNAPSHOT_EVERY = 3;
+
+    private MongoServer server;
+    private MongoClient client;
+    private RacingMongoTemplate mongoTemplate;
+    private EventSourcedGameRepository repository;
+    private String gameId;
+
+    @BeforeEach
+    public void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new RacingMongoTemplate(new SimpleMongoClientDatabaseFactory(client, "game_deck_events"));
+        repository = new EventSourcedGameRepository(mongoTemplate, SNAPSHOT_EVERY);
+        repository.createIndexes();
+
+        List<Player> players = new ArrayList<>(List.of(new Player(PLAYER_NAME_JORGE)));
+        gameId = repository.save(new Game(null, CardStack.ofDecks(1), players)).orElseThrow().getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void appendRace_throwsForTheCallerToDecideAgain() {
+
+        mongoTemplate.rival = GameEvent.playerAdded(PLAYER_NAME_MARIA);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> repository.addNewPlayer(gameId, PLAYER_NAME_ANA));
+        Game game = repository.addNewPlayer(gameId, PLAYER_NAME_ANA).orElseThrow();
+
+        assertThat(playerNames(game), contains(PLAYER_NAME_JORGE, PLAYER_NAME_MARIA, PLAYER_NAME_ANA));
+        assertThat(game.getVersion(), is(2L));
+        assertThat(repository.findVersion(gameId).orElseThrow(), is(2L));
+    }
+
+    @Test
+    public void snapshot_isMovedForwardEverySnapshotEveryEvents() {
+
+        assertThat(snapshot().getSequence(), is(0L));
+
+        repository.addNewPlayer(gameId, PLAYER_NAME_MARIA);
+        repository.dealTopCard(gameId, PLAYER_NAME_MARIA);
+        assertThat(snapshot().getSequence(), is(0L));
+
+        repository.addNewPlayer(gameId, PLAYER_NAME_ANA);
+        assertThat(snapshot().getSequence(), is(3L));
+        assertThat(playerNames(snapshot().getGame()), contains(PLAYER_NAME_JORGE, PLAYER_NAME_MARIA, PLAYER_NAME_ANA));
+
+        repository.removePlayer(gameId, PLAYER_NAME_ANA);
+        assertThat(snapshot().getSequence(), is(3L));
+    }
+
+    @Test
+    public void findById_replaysTheEventsAfterTheSnapshot() {
+
+        repository.addNewPlayer(gameId, PLAYER_NAME_MARIA);
+        repository.dealCardsToEachPlayer(gameId, 1);
+        repository.shuffleCards(gameId, 2L, 42L, null);
+        repository.dealTopCard(gameId, PLAYER_NAME_MARIA);
+        repository.addNewPlayer(gameId, PLAYER_NAME_ANA);
+
+        Game game = repository.findById(gameId).orElseThrow();
+
+        assertThat(snapshot().getSequence(), is(3L));
+        assertThat(game.getVersion(), is(5L));
+        assertThat(playerNames(game), contains(PLAYER_NAME_JORGE, PLAYER_NAME_MARIA, PLAYER_NAME_ANA));
+        assertThat(game.getPlayers().get(0).getOnHandCards(), is(CardStack.of(CardEnum.ACE_HEARTS)));
+        assertThat(game.getPlayers().get(1).getOnHandCards().size(), is(2));
+        assertThat(game.getGameCards().size(), is(49));
+        assertThat(game.getCardCounts(), is(game.getGameCards().countByCard()));
+        assertThat(game, is(replayedFromCreation()));
+    }
+
+    @Test
+    public void delete_endsTheLogAndDropsTheSnapshot() {
+
+        repository.addNewPlayer(gameId, PLAYER_NAME_MARIA);
+
+        assertThat(repository.delete(gameId).isPresent(), is(true));
+
+        assertThat(repository.findById(gameId).isPresent(), is(false));
+        assertThat(repository.findVersion(gameId).isPresent(), is(false));
+        assertThat(mongoTemplate.findById(gameId, GameSnapshot.class), is(nullValue()));
+        assertThat(repository.findPage(null, 10, false).isEmpty(), is(true));
+        assertThat(repository.delete(gameId).isPresent(), is(false));
+        assertThat(repository.addNewPlayer(gameId, PLAYER_NAME_ANA).isPresent(), is(false));
+    }
+
+    private GameSnapshot snapshot() {
+        return mongoTemplate.findById(gameId, GameSnapshot.class);
+    }
+
+    /**
+     * The game replayed from its first event on, ignoring the snapshot.
+     */
+    private Game replayedFromCreation() {
+        Game game = new Game();
+        mongoTemplate.find(Query.query(Criteria.where("gameId").is(gameId)).with(Sort.by("sequence")), GameEvent.class)
+                .forEach(event -> event.applyTo(game));
+        game.setCardCounts(game.getGameCards().countByCard());
+        return game;
+    }
+
+    private static List<String> playerNames(Game game) {
+        return game.getPlayers().stream().map(Player::getName).collect(Collectors.toList());
+    }
+
+    /**
+     * A template that lets a rival event take the sequence of the next event appended.
+     */
+    private static class RacingMongoTemplate extends MongoTemplate {
+
+        private GameEvent rival;
+
+        private RacingMongoTemplate(MongoDatabaseFactory factory) {
+            super(factory, converter(factory));
+        }
+
+        @Override
+        public <T> T insert(T objectToSave) {
+            if (rival != null && objectToSave instanceof GameEvent event) {
+                rival.setGameId(event.getGameId());
+                rival.setSequence(event.getSequence());
+                super.insert(rival);
+                rival = null;
+            }
+            return super.insert(objectToSave);
+        }
+
+        private static MappingMongoConverter converter(MongoDatabaseFactory factory) {
+            MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+            MongoMappingContext mappingContext = new MongoMappingContext();
+            mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+            mappingContext.afterPropertiesSet();
+            MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(factory), mappingContext);
+            converter.setCustomConversions(conversions);
+            converter.afterPropertiesSet();
+            return converter;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardEnum;
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.model.VirtualShoe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class InMemoryGameRepositoryTest {
+
+    private static final String PLAYER_NAME_JORGE = "jorge";
+    private static final String PLAYER_NAME_MARIA = "maria";
+    private static final long SEED = 42L;
+
+    private InMemoryGameRepository repository;
+    private String gameId;
+
+    @BeforeEach
+    public void setUp() {
+        repository = new InMemoryGameRepository(4);
+        Game game = new Game(null, CardStack.ofDecks(1),
+                new ArrayList<>(Arrays.asList(new Player(PLAYER_NAME_JORGE), new Player(PLAYER_NAME_MARIA))));
+        gameId = repository.save(game).get().getId();
+    }
+
+    @Test
+    public void dealCardsToEachPlayer_dealsRoundRobinFromTheTop() {
+
+        Game game = repository.dealCardsToEachPlayer(gameId, 2).get();
+
+        assertThat(game.getPlayers().get(0).getOnHandCards(), is(CardStack.of(CardEnum.ACE_HEARTS, CardEnum.ACE_DIAMONDS)));
+        assertThat(game.getPlayers().get(1).getOnHandCards(), is(CardStack.of(CardEnum.ACE_SPADES, CardEnum.ACE_CLUBS)));
+        assertThat(repository.findGameOnlyWithCards(gameId).get().getGameCards().size(), is(48));
+        assertThat(game.getCardCounts(), is(game.getGameCards().countByCard()));
+        assertThat(repository.findGameOnlyWithPlayerTotals(gameId).get().getPlayers().get(1).getTotal(), is(2));
+        assertThat(repository.dealCardsToEachPlayer(gameId, 25).isPresent(), is(false));
+    }
+
+    @Test
+    public void dealCards_toUnknownPlayer_leavesTheGameUntouched() {
+
+        Map<String, Integer> cardsByPlayer = new LinkedHashMap<>();
+        cardsByPlayer.put("MARIA", 1);
+        cardsByPlayer.put("nobody", 1);
+
+        assertThat(repository.dealCards(gameId, cardsByPlayer).isPresent(), is(false));
+        assertThat(repository.findById(gameId).get().getGameCards().size(), is(52));
+    }
+
+    @Test
+    public void updateGameCards_onlyAppliesToTheVersionRead() {
+
+        Game game = repository.findGameOnlyWithCards(gameId).get();
+        repository.dealTopCard(gameId, PLAYER_NAME_JORGE);
+
+        assertThat(repository.updateGameCards(gameId, game.getVersion(), game.getGameCards()).isPresent(), is(false));
+        assertThat(repository.findById(gameId).get().getGameCards().size(), is(51));
+
+        Game dealtGame = repository.findGameOnlyWithCards(gameId).get();
+        Game shuffledGame = repository.updateGameCards(gameId, dealtGame.getVersion(), dealtGame.getGameCards()).get();
+        assertThat(shuffledGame.getVersion(), is(dealtGame.getVersion() + 1));
+    }
+
+    @Test
+    public void markCardsUnordered_drawsEachDealtCardAmongTheUnorderedOnes() {
+
+        repository.markCardsUnordered(gameId, SEED);
+        repository.addNewDeck(gameId, CardStack.of(CardEnum.KING_CLUBS));
+
+        Game game = repository.dealCardsToEachPlayer(gameId, 26).get();
+        CardStack dealtCards = game.getPlayers().get(0).getOnHandCards();
+        dealtCards.addAll(game.getPlayers().get(1).getOnHandCards());
+        assertThat(Arrays.stream(dealtCards.countByCard()).allMatch(count -> count == 1), is(true));
+        assertThat(game.getUnorderedCards(), is(nullValue()));
+        assertThat(game.getGameCards(), is(CardStack.of(CardEnum.KING_CLUBS)));
+        assertThat(game.getCardCounts(), is(game.getGameCards().countByCard()));
+    }
+
+    @Test
+    public void markCardsUnordered_withTheSameSeed_drawsTheSameCards() {
+        Game otherGame = new Game(null, CardStack.ofDecks(1),
+                new ArrayList<>(Arrays.asList(new Player(PLAYER_NAME_JORGE), new Player(PLAYER_NAME_MARIA))));
+        String otherGameId = repository.save(otherGame).get().getId();
+
+        Game markedGame = repository.markCardsUnordered(gameId, SEED).get();
+        repository.markCardsUnordered(otherGameId, SEED);
+        repository.dealTopCard(gameId, PLAYER_NAME_JORGE);
+        repository.dealTopCard(otherGameId, PLAYER_NAME_JORGE);
+
+        Game game = repository.dealCardsToEachPlayer(gameId, 3).get();
+        Game sameGame = repository.dealCardsToEachPlayer(otherGameId, 3).get();
+        assertThat(markedGame.getShuffleSeed(), is(SEED));
+        assertThat(game.getPlayers(), is(sameGame.getPlayers()));
+        assertThat(game.getGameCards(), is(sameGame.getGameCards()));
+        assertThat(game.getDrawState(), is(sameGame.getDrawState()));
+    }
+
+    @Test
+    public void virtualShoe_dealsTheCardsItLaysOut() {
+
+        Game virtualGame = new Game(null, new CardStack(), new ArrayList<>(Arrays.asList(new Player(PLAYER_NAME_JORGE))));
+        virtualGame.setVirtualShoe(VirtualShoe.ofDecks(2));
+        String virtualGameId = repository.save(virtualGame).get().getId();
+        repository.markCardsUnordered(virtualGameId, SEED);
+        CardStack shoe = repository.findGameOnlyWithCards(virtualGameId).get().getGameCards();
+
+        Game game = repository.dealCardsToEachPlayer(virtualGameId, 3).get();
+
+        assertThat(game.getPlayers().get(0).getOnHandCards(), is(CardStack.of(shoe.get(0), shoe.get(1), shoe.get(2))));
+        assertThat(game.getGameCards().size(), is(101));
+        assertThat(game.getCardCounts(), is(game.getGameCards().countByCard()));
+    }
+
+    @Test
+    public void save_answersTheShoeOfAVirtualShoeGame() {
+
+        Game virtualGame = new Game(null, new CardStack(), new ArrayList<>());
+        virtualGame.setVirtualShoe(VirtualShoe.ofDecks(2));
+
+        Game savedGame = repository.save(virtualGame).get();
+
+        assertThat(savedGame.getGameCards().size(), is(104));
+        assertThat(savedGame.getGameCards(), is(repository.findById(savedGame.getId()).get().getGameCards()));
+    }
+
+    @Test
+    public void concurrentDeals_neverLoseOrRepeatCards() throws InterruptedException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 52; i++) {
+            String playerName = i % 2 == 0 ? PLAYER_NAME_JORGE : PLAYER_NAME_MARIA;
+            executor.execute(() -> repository.dealTopCard(gameId, playerName));
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        Game game = repository.findById(gameId).get();
+        CardStack dealtCards = game.getPlayers().get(0).getOnHandCards();
+        dealtCards.addAll(game.getPlayers().get(1).getOnHandCards());
+        assertThat(game.getGameCards().isEmpty(), is(true));
+        assertThat(Arrays.stream(dealtCards.countByCard()).allMatch(count -> count == 1), is(true));
+    }
+}
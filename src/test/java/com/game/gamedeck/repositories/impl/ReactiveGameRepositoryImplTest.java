@@ -0,0 +1,168 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.model.VirtualShoe;
+import com.game.gamedeck.shared.configs.MongoConfig;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the reactive repository against an in-process Mongo server on games with a virtual shoe,
+ * whose changes are conditional writes of the shoe rather than the update pipelines the in-process
+ * server lacks.
+ */
+public class ReactiveGameRepositoryImplTest {
+
+    private static final String PLAYER_NAME_JORGE = "jorge";
+    private static final String PLAYER_NAME_MARIA = "maria";
+
+    private MongoServer server;
+    private MongoClient client;
+    private RacingMongoTemplate mongoTemplate;
+    private ReactiveGameRepositoryImpl repository;
+    private String gameId;
+
+    @BeforeEach
+    public void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new RacingMongoTemplate(new SimpleReactiveMongoDatabaseFactory(client, "game_deck_reactive"));
+        repository = new ReactiveGameRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(repository, "virtualShoes", true);
+
+        Game game = new Game(null, new CardStack(), new ArrayList<>(List.of(new Player(PLAYER_NAME_JORGE))));
+        game.setVirtualShoe(VirtualShoe.ofDecks(1));
+        gameId = repository.save(game).block().getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void save_answersTheShoeAndVersionOfTheStoredGame() {
+
+        Game game = repository.findById(gameId).block();
+
+        assertThat(game.getGameCards().size(), is(52));
+        assertThat(game.getCardCounts(), is(game.getGameCards().countByCard()));
+        assertThat(repository.findVersion(gameId).block(), is(game.getVersion()));
+    }
+
+    @Test
+    public void dealTopCard_writesTheVirtualShoeBackOnItsVersion() {
+
+        Game game = repository.findById(gameId).block();
+
+        Game dealtGame = repository.dealTopCard(gameId, "JORGE").block();
+
+        assertThat(dealtGame.getPlayers().get(0).getOnHandCards(), is(CardStack.of(game.getGameCards().get(0))));
+        assertThat(dealtGame.getGameCards().size(), is(51));
+        assertThat(dealtGame.getVersion(), is(game.getVersion() + 1));
+        assertThat(repository.dealTopCard(gameId, PLAYER_NAME_MARIA).blockOptional().isPresent(), is(false));
+        assertThat(repository.dealCardsToEachPlayer(gameId, 52).blockOptional().isPresent(), is(false));
+    }
+
+    @Test
+    public void dealTopCard_ofAGameChangedMeanwhile_failsForTheCallerToRetry() {
+
+        mongoTemplate.rivalWriteTo = gameId;
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> repository.dealTopCard(gameId, PLAYER_NAME_JORGE).block());
+        Game dealtGame = repository.dealTopCard(gameId, PLAYER_NAME_JORGE).block();
+
+        assertThat(dealtGame.getPlayers().get(0).getOnHandCards().size(), is(1));
+        assertThat(dealtGame.getGameCards().size(), is(51));
+    }
+
+    @Test
+    public void playerChanges_andDelete() {
+
+        Game game = repository.addNewPlayer(gameId, PLAYER_NAME_MARIA, false).block();
+
+        assertThat(playerNames(game), contains(PLAYER_NAME_JORGE, PLAYER_NAME_MARIA));
+        assertThat(repository.addNewPlayer(gameId, PLAYER_NAME_MARIA, false).blockOptional().isPresent(), is(false));
+        assertThat(playerNames(repository.removePlayer(gameId, PLAYER_NAME_JORGE, false).block()),
+                contains(PLAYER_NAME_MARIA));
+
+        assertThat(repository.delete(gameId).block().getId(), is(gameId));
+        assertThat(repository.findById(gameId).block(), is(nullValue()));
+        assertThat(repository.findVersion(gameId).block(), is(nullValue()));
+    }
+
+    private static List<String> playerNames(Game game) {
+        return game.getPlayers().stream().map(Player::getName).collect(Collectors.toList());
+    }
+
+    /**
+     * A template that lets a rival write change the game right before the next conditional write.
+     */
+    private static class RacingMongoTemplate extends ReactiveMongoTemplate {
+
+        private String rivalWriteTo;
+
+        private RacingMongoTemplate(ReactiveMongoDatabaseFactory factory) {
+            super(factory, converter());
+        }
+
+        @Override
+        public <T> Mono<T> findAndModify(Query query, UpdateDefinition update, FindAndModifyOptions options,
+                                         Class<T> entityClass) {
+            if (rivalWriteTo == null) {
+                return super.findAndModify(query, update, options, entityClass);
+            }
+            Query rivalQuery = GameQueries.byId(rivalWriteTo);
+            rivalWriteTo = null;
+            return updateFirst(rivalQuery, new Update().inc("version", 1), Game.class)
+                    .then(super.findAndModify(query, update, options, entityClass));
+        }
+
+        private static MappingMongoConverter converter() {
+            MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+            MongoMappingContext mappingContext = new MongoMappingContext();
+            mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+            mappingContext.afterPropertiesSet();
+            MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+            converter.setCustomConversions(conversions);
+            converter.afterPropertiesSet();
+            return converter;
+        }
+    }
+}
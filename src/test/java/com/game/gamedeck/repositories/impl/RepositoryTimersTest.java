@@ -0,0 +1,39 @@
+package com.game.gamedeck.repositories.impl;
+
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.repositories.GameRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.ArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class RepositoryTimersTest {
+
+    @Test
+    public void repositoryOperations_areTimedPerOperationAndRepository() {
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        RepositoryTimers repositoryTimers = new RepositoryTimers(beanFactory.getBeanProvider(MeterRegistry.class));
+        repositoryTimers.setBeanFactory(beanFactory);
+
+        GameRepository repository = (GameRepository) repositoryTimers.postProcessAfterInitialization(
+                new InMemoryGameRepository(4), "gameRepository");
+        Game game = repository.save(new Game(null, CardStack.ofDecks(1), new ArrayList<>())).orElseThrow();
+        repository.findById(game.getId());
+        repository.findById(game.getId());
+
+        assertThat(meterRegistry.get(RepositoryTimers.TIMER)
+                .tag("operation", "findById")
+                .tag("repository", "InMemoryGameRepository")
+                .timer().count(), is(2L));
+        assertThat(meterRegistry.get(RepositoryTimers.TIMER).tag("operation", "save").timer().count(), is(1L));
+    }
+}
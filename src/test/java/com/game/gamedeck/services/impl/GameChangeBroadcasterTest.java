@@ -0,0 +1,122 @@
+package com.game.gamedeck.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.responses.GameChangeResponseDTO;
+import com.game.gamedeck.shared.constants.GameChangeType;
+import com.game.gamedeck.shared.mappers.GameResponseMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class GameChangeBroadcasterTest {
+
+    private static final String GAME_ID = "5ed98daf2cd10901dc4f8422";
+    private static final int BUFFER_SIZE = 4;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GameChangeBroadcaster gameChanges;
+    private Game game;
+
+    @BeforeEach
+    public void setUp() {
+        gameChanges = new GameChangeBroadcaster();
+        ReflectionTestUtils.setField(gameChanges, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(gameChanges, "gameResponseMapper", new GameResponseMapper());
+        ReflectionTestUtils.setField(gameChanges, "bufferSize", BUFFER_SIZE);
+        game = new Game(GAME_ID, CardStack.ofDecks(1), new ArrayList<>());
+        game.setVersion(7L);
+        game.setCardCounts(CardStack.ofDecks(1).countByCard());
+    }
+
+    @Test
+    public void publish_handsTheSameEventToEverySubscriber() throws Exception {
+
+        List<ServerSentEvent<byte[]>> first = new ArrayList<>();
+        List<ServerSentEvent<byte[]>> second = new ArrayList<>();
+        gameChanges.subscribe(GAME_ID).subscribe(first::add);
+        gameChanges.subscribe(GAME_ID).subscribe(second::add);
+
+        gameChanges.publish(GameChangeType.CARDS_DEALT, game, Collections.singleton("jorge"));
+
+        assertThat(first, hasSize(1));
+        assertThat(second.get(0), sameInstance(first.get(0)));
+        assertThat(first.get(0).id(), is("7"));
+        assertThat(first.get(0).event(), is("CARDS_DEALT"));
+        GameChangeResponseDTO change = objectMapper.readValue(first.get(0).data(), GameChangeResponseDTO.class);
+        assertThat(change.getPlayers(), contains("jorge"));
+        assertThat(change.getCardsLeft(), is(52));
+    }
+
+    @Test
+    public void publish_dropsOnlyTheSubscribersFallingBehind() {
+
+        List<ServerSentEvent<byte[]>> received = new ArrayList<>();
+        gameChanges.subscribe(GAME_ID).subscribe(received::add);
+        SlowSubscriber slow = new SlowSubscriber();
+        gameChanges.subscribe(GAME_ID).subscribe(slow);
+
+        for (int i = 0; i <= BUFFER_SIZE; i++) {
+            game.setVersion(game.getVersion() + 1);
+            gameChanges.publish(GameChangeType.CARDS_SHUFFLED, game, Collections.emptyList());
+        }
+        assertThat(slow.completed, is(false));
+        slow.request(BUFFER_SIZE + 1);
+
+        assertThat(slow.completed, is(true));
+        assertThat(slow.received, is(BUFFER_SIZE));
+        game.setVersion(game.getVersion() + 1);
+        gameChanges.publish(GameChangeType.DECK_ADDED, game, Collections.emptyList());
+        assertThat(received, hasSize(BUFFER_SIZE + 2));
+    }
+
+    @Test
+    public void publish_dropsChangesOlderThanTheLastOneSent() {
+
+        List<ServerSentEvent<byte[]>> received = new ArrayList<>();
+        gameChanges.subscribe(GAME_ID).subscribe(received::add);
+        Game earlierGame = game.copy();
+        earlierGame.setVersion(6L);
+
+        gameChanges.publish(GameChangeType.CARDS_DEALT, game, Collections.singleton("jorge"));
+        gameChanges.publish(GameChangeType.PLAYER_ADDED, earlierGame, Collections.singleton("jorge"));
+        gameChanges.publish(GameChangeType.CARDS_DEALT, game, Collections.singleton("jorge"));
+
+        assertThat(received.stream().map(ServerSentEvent::id).collect(Collectors.toList()), contains("7"));
+    }
+
+    private static class SlowSubscriber extends BaseSubscriber<ServerSentEvent<byte[]>> {
+
+        private int received;
+        private boolean completed;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+        }
+
+        @Override
+        protected void hookOnNext(ServerSentEvent<byte[]> event) {
+            received++;
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.game.gamedeck.services.impl;
+
+import com.game.gamedeck.exceptions.NotFoundException;
+import com.game.gamedeck.model.Game;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GameCommandExecutorTest {
+
+    private static final String GAME_ID = "5ed98daf2cd10901dc4f8422";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GameCommandExecutor gameCommands = new GameCommandExecutor(true, meterRegistry);
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+        gameCommands.destroy();
+    }
+
+    @Test
+    public void commandsOfOneGame_runOneAtATime() throws Exception {
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(callers.submit(() -> gameCommands.execute(GAME_ID, heldGame -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.yield();
+                return running.decrementAndGet();
+            })));
+        }
+        for (Future<Integer> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(maxRunning.get(), is(1));
+        assertThat(meterRegistry.get(GameCommandExecutor.WAIT).timer().count(), is(100L));
+        assertThat(meterRegistry.get(GameCommandExecutor.QUEUED).gauge().value(), is(0.0));
+    }
+
+    @Test
+    public void queuedCommand_startsFromTheGameHeldByThePreviousOne() throws Exception {
+
+        Game writtenGame = new Game();
+        writtenGame.setId(GAME_ID);
+        writtenGame.setVersion(7L);
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        Future<Optional<Game>> first = callers.submit(() -> gameCommands.execute(GAME_ID, heldGame -> {
+            firstRunning.countDown();
+            await(releaseFirst);
+            return heldGame.hold(Optional.of(writtenGame));
+        }));
+        firstRunning.await(10, TimeUnit.SECONDS);
+        Future<Optional<Game>> second = callers.submit(() -> gameCommands.execute(GAME_ID, heldGame -> heldGame.take()));
+        while (meterRegistry.get(GameCommandExecutor.QUEUED).gauge().value() < 1) {
+            Thread.sleep(1);
+        }
+        releaseFirst.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS).get().getVersion(), is(7L));
+        assertThat(second.get(10, TimeUnit.SECONDS).get().getVersion(), is(7L));
+        assertThat(gameCommands.execute(GAME_ID, heldGame -> heldGame.take()).isPresent(), is(false));
+    }
+
+    @Test
+    public void commandExceptions_areThrownToTheCaller() {
+
+        assertThrows(NotFoundException.class, () -> gameCommands.execute(GAME_ID, heldGame -> {
+            throw new NotFoundException("Game not found.");
+        }));
+    }
+
+    @Test
+    public void commands_seeTheLocaleOfTheCaller() throws Exception {
+
+        Future<Locale> commandLocale = callers.submit(() -> {
+            LocaleContextHolder.setLocale(Locale.GERMAN);
+            return gameCommands.execute(GAME_ID, heldGame -> LocaleContextHolder.getLocale());
+        });
+
+        assertThat(commandLocale.get(10, TimeUnit.SECONDS), is(Locale.GERMAN));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.game.gamedeck.services.impl;
+
+import com.game.gamedeck.exceptions.GameException;
+import com.game.gamedeck.requests.AddPlayerRequestDTO;
+import com.game.gamedeck.requests.CreateGameRequestDTO;
+import com.game.gamedeck.requests.DealCardsRequestDTO;
+import com.game.gamedeck.services.GameService;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Counts the commands each service call sends to Mongo, seen by a command listener on the driver, and
+ * holds every endpoint to its budget of round trips. Runs against an in-process Mongo server, which has
+ * no pipeline updates, so the deals and new decks are only counted against a real Mongo, given with
+ * -Dtest.mongodb.host and optionally -Dtest.mongodb.port.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class MongoRoundTripsTest {
+
+    private static final String MONGO_HOST = System.getProperty("test.mongodb.host");
+    private static final String MONGO_PORT = System.getProperty("test.mongodb.port", "27017");
+    private static final String PLAYER_NAME_JORGE = "jorge";
+    private static final String PLAYER_NAME_MARIA = "maria";
+    private static final CommandCounter COMMANDS = new CommandCounter();
+
+    private static MongoServer server;
+
+    @Autowired
+    private GameService gameService;
+
+    private String gameId;
+
+    @DynamicPropertySource
+    static void mongo(DynamicPropertyRegistry registry) {
+        if (MONGO_HOST != null) {
+            registry.add("spring.data.mongodb.host", () -> MONGO_HOST);
+            registry.add("spring.data.mongodb.port", () -> MONGO_PORT);
+        } else {
+            server = new MongoServer(new MemoryBackend());
+            InetSocketAddress address = server.bind();
+            registry.add("spring.data.mongodb.host", address::getHostString);
+            registry.add("spring.data.mongodb.port", address::getPort);
+        }
+        registry.add("spring.data.mongodb.database", () -> "game_deck_round_trips");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (server != null) {
+            server.shutdown();
+        }
+    }
+
+    @TestConfiguration
+    static class CountingCommands {
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer countingCommands() {
+            return builder -> builder.addCommandListener(COMMANDS);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        CreateGameRequestDTO request = new CreateGameRequestDTO();
+        request.setNumberOfDecks(1);
+        request.setPlayers(List.of(PLAYER_NAME_JORGE));
+        gameId = gameService.createGame(request).getId();
+    }
+
+    @Test
+    public void createGame_insertsOnly() {
+        CreateGameRequestDTO request = new CreateGameRequestDTO();
+        request.setNumberOfDecks(2);
+        request.setPlayers(List.of(PLAYER_NAME_JORGE, PLAYER_NAME_MARIA));
+
+        withinRoundTrips(1, () -> gameService.createGame(request));
+    }
+
+    @Test
+    public void reads_takeOneRoundTrip() {
+        withinRoundTrips(1, () -> gameService.getGame(gameId, null));
+        withinRoundTrips(1, () -> gameService.getGame(gameId, List.of("id", "players.name")));
+        withinRoundTrips(1, () -> gameService.getGames(null, 10, false));
+        withinRoundTrips(1, () -> gameService.getGameVersion(gameId));
+        withinRoundTrips(1, () -> gameService.getPlayerCards(gameId, PLAYER_NAME_JORGE));
+        withinRoundTrips(1, () -> gameService.getPlayersTotals(gameId));
+        withinRoundTrips(1, () -> gameService.getCountRemainingCardsBySuit(gameId));
+        withinRoundTrips(1, () -> gameService.getCountRemainingCardsSorted(gameId, Sort.by("suit")));
+    }
+
+    @Test
+    public void playerChanges_takeOneConditionalWrite() {
+        withinRoundTrips(1, () -> gameService.addPlayer(gameId, addPlayerRequest(PLAYER_NAME_MARIA)));
+        withinRoundTrips(1, () -> gameService.addPlayer(gameId, addPlayerRequest("ana"), true));
+        withinRoundTrips(1, () -> gameService.removePlayer(gameId, PLAYER_NAME_MARIA));
+    }
+
+    @Test
+    public void addPlayer_looksUpTheGameOnlyToTellWhyItFailed() {
+        withinRoundTrips(2, () -> assertThrows(GameException.class,
+                () -> gameService.addPlayer(gameId, addPlayerRequest(PLAYER_NAME_JORGE))));
+    }
+
+    @Test
+    public void shuffleCards_readsTheShoeOnceAndWritesItBack() {
+        withinRoundTrips(2, () -> gameService.shuffleCards(gameId));
+    }
+
+    @Test
+    public void deleteGame_takeOneRoundTrip() {
+        withinRoundTrips(1, () -> gameService.deleteGame(gameId));
+    }
+
+    @Test
+    public void dealsAndNewDecks_takeOneConditionalWrite() {
+        assumeTrue(MONGO_HOST != null, "pipeline updates need a real Mongo, see -Dtest.mongodb.host");
+
+        DealCardsRequestDTO eachPlayer = new DealCardsRequestDTO();
+        eachPlayer.setCardsPerPlayer(2);
+        DealCardsRequestDTO byPlayer = new DealCardsRequestDTO();
+        byPlayer.setCardsByPlayer(Map.of(PLAYER_NAME_JORGE, 3));
+
+        withinRoundTrips(1, () -> gameService.dealCards(gameId, PLAYER_NAME_JORGE));
+        withinRoundTrips(1, () -> gameService.dealCards(gameId, eachPlayer));
+        withinRoundTrips(1, () -> gameService.dealCards(gameId, byPlayer, true));
+        withinRoundTrips(1, () -> gameService.addDeck(gameId));
+    }
+
+    private void withinRoundTrips(int budget, Supplier<?> call) {
+        COMMANDS.names.clear();
+        call.get();
+        assertThat("commands sent: " + COMMANDS.names, COMMANDS.names.size(), lessThanOrEqualTo(budget));
+    }
+
+    private static AddPlayerRequestDTO addPlayerRequest(String playerName) {
+        AddPlayerRequestDTO request = new AddPlayerRequestDTO();
+        request.setPlayerName(playerName);
+        return request;
+    }
+
+    private static class CommandCounter implements CommandListener {
+
+        private final List<String> names = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            names.add(event.getCommandName());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.game.gamedeck.services.impl;
+
+import com.game.gamedeck.model.CardEnum;
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.shared.utils.DeckUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class ShuffleEngineTest {
+
+    @Test
+    public void shuffle_isReproducedFromTheSeedItRecords() {
+
+        Game game = new Game(null, CardStack.ofDecks(2), new ArrayList<>());
+
+        long seed = new ShuffleEngine(ShuffleEngine.Source.SECURE).shuffle(game);
+
+        CardStack replayedCards = CardStack.ofDecks(2);
+        DeckUtils.shuffleCards(replayedCards, seed);
+        assertThat(game.getShuffleSeed(), is(seed));
+        assertThat(game.getGameCards(), is(replayedCards));
+    }
+
+    @Test
+    public void splittableSource_seedsEachGameFromItsLastSeed() {
+
+        ShuffleEngine shuffleEngine = new ShuffleEngine(ShuffleEngine.Source.SPLITTABLE);
+        Game game = new Game(null, CardStack.ofDecks(1), new ArrayList<>());
+        Game sameGame = new Game(null, CardStack.ofDecks(1), new ArrayList<>());
+        game.setShuffleSeed(42L);
+        sameGame.setShuffleSeed(42L);
+
+        shuffleEngine.shuffle(game);
+        shuffleEngine.shuffle(sameGame);
+
+        assertThat(game.getShuffleSeed(), is(sameGame.getShuffleSeed()));
+        assertThat(game.getGameCards(), is(sameGame.getGameCards()));
+        assertThat(shuffleEngine.nextSeed(game) == 42L, is(false));
+    }
+
+    @Test
+    public void secureSource_drawsDistinctSeedsAcrossBatches() {
+
+        ShuffleEngine shuffleEngine = new ShuffleEngine(ShuffleEngine.Source.SECURE);
+        Game game = new Game();
+
+        Set<Long> seeds = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            seeds.add(shuffleEngine.nextSeed(game));
+        }
+        assertThat(seeds.size(), is(1000));
+    }
+
+    @Test
+    public void shuffleCards_drawsEveryOrderEvenly() {
+
+        SplittableRandom random = new SplittableRandom(7);
+        Map<CardStack, Integer> orders = new HashMap<>();
+        int shuffles = 60000;
+        for (int i = 0; i < shuffles; i++) {
+            CardStack cards = CardStack.of(CardEnum.ACE_HEARTS, CardEnum.TWO_HEARTS, CardEnum.THREE_HEARTS);
+            DeckUtils.shuffleCards(cards, random);
+            orders.merge(cards, 1, Integer::sum);
+        }
+
+        assertThat(orders.size(), is(6));
+        orders.values().forEach(count ->
+                assertThat(count, allOf(greaterThan(shuffles / 6 * 95 / 100), lessThan(shuffles / 6 * 105 / 100))));
+    }
+}
@@ -0,0 +1,81 @@
+package com.game.gamedeck.shared.mappers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.gamedeck.model.CardEnum;
+import com.game.gamedeck.model.CardStack;
+import com.game.gamedeck.model.Game;
+import com.game.gamedeck.model.GameField;
+import com.game.gamedeck.model.Player;
+import com.game.gamedeck.responses.GameResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class GameResponseMapperTest {
+
+    private static final String GAME_ID = "5ed98daf2cd10901dc4f8422";
+
+    private final GameResponseMapper mapper = new GameResponseMapper();
+
+    @Test
+    public void toGameResponse_sharesTheCardInstances() throws Exception {
+
+        Game game = new Game(GAME_ID, CardStack.of(CardEnum.ACE_HEARTS, CardEnum.ACE_HEARTS),
+                new ArrayList<>(Collections.singletonList(new Player("jorge", CardStack.of(CardEnum.KING_CLUBS)))));
+
+        GameResponseDTO response = mapper.toGameResponse(game);
+
+        assertThat(response.getId(), is(GAME_ID));
+        assertThat(response.getGameCards(), contains(CardEnum.ACE_HEARTS.toCard(), CardEnum.ACE_HEARTS.toCard()));
+        assertThat(response.getGameCards().get(0), sameInstance(response.getGameCards().get(1)));
+        assertThat(response.getPlayers().get(0).getOnHandCards(), contains(CardEnum.KING_CLUBS.toCard()));
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        GameResponseDTO parsed = objectMapper.readValue(objectMapper.writeValueAsString(response), GameResponseDTO.class);
+        assertThat(parsed, is(response));
+    }
+
+    @Test
+    public void toGameDelta_keepsOnlyThePlayersDealtTo() throws Exception {
+
+        Game game = new Game(GAME_ID, null, new ArrayList<>(Arrays.asList(
+                new Player("jorge", CardStack.of(CardEnum.KING_CLUBS, CardEnum.ACE_HEARTS)),
+                new Player("maria", CardStack.of(CardEnum.TWO_HEARTS)))));
+        game.setVersion(3L);
+        game.setCardCounts(CardStack.ofDecks(1).countByCard());
+
+        GameResponseDTO delta = mapper.toGameDelta(game, Map.of("JORGE", 1));
+
+        assertThat(delta.getGameCards(), is(nullValue()));
+        assertThat(delta.getVersion(), is(3L));
+        assertThat(delta.getCardsLeft(), is(52));
+        assertThat(delta.getPlayers(), hasSize(1));
+        assertThat(delta.getPlayers().get(0).getDealtCards(), contains(CardEnum.ACE_HEARTS.toCard()));
+        assertThat(delta.getPlayers().get(0).getTotal(),
+                is(CardStack.of(CardEnum.KING_CLUBS, CardEnum.ACE_HEARTS).totalValue()));
+
+        String json = new ObjectMapper().writeValueAsString(delta);
+        assertThat(json, not(containsString("gameCards")));
+        assertThat(new ObjectMapper().writeValueAsString(mapper.toGameResponse(game)), not(containsString("version")));
+    }
+
+    @Test
+    public void toGameResponse_withFields_writesOnlyThoseFields() throws Exception {
+
+        Game game = new Game(GAME_ID, CardStack.of(CardEnum.ACE_HEARTS),
+                new ArrayList<>(Collections.singletonList(new Player("jorge", CardStack.of(CardEnum.KING_CLUBS)))));
+
+        GameResponseDTO response = mapper.toGameResponse(game, EnumSet.of(GameField.PLAYER_NAMES));
+
+        assertThat(new ObjectMapper().writeValueAsString(response), is("{\"players\":[{\"name\":\"jorge\"}]}"));
+        assertThat(mapper.toGameResponse(game, EnumSet.of(GameField.ID, GameField.PLAYERS)).getPlayers().get(0)
+                .getOnHandCards(), contains(CardEnum.KING_CLUBS.toCard()));
+    }
+}